@@ -121,6 +121,15 @@ repositories {
     mavenLocal() // Must be last for caching to work
 }
 
+// Offline tooling that runs against the mod classes but is not part of the mod
+// jar: the sound workload replay and the JMH benchmarks. The test classes are
+// visible so benchmarks can share the test fixtures.
+val tools: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.test.get().output +
+        sourceSets.test.get().compileClasspath
+    runtimeClasspath += output + compileClasspath + sourceSets.test.get().runtimeClasspath
+}
+
 dependencies {
 
     // OreLib
@@ -156,6 +165,11 @@ dependencies {
     compileOnly("curse.maven:SereneSeasons-291874:2799213")
     compileOnly("curse.maven:CTM-267602:2915363")
 
+    testImplementation("junit:junit:4.13.2")
+
+    "toolsImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "toolsAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+
     if (use_assetmover.toBoolean()) {
         implementation("com.cleanroommc:assetmover:2.5")
     }
@@ -180,6 +194,24 @@ dependencies {
     }
 }
 
+// Replays a sound workload recorded with the SOUND_RECORD trace flag, i.e.
+// gradlew replaySoundWorkload --args="run/config/dsurround/soundworkload-xxx.bin"
+tasks.register<JavaExec>("replaySoundWorkload") {
+    group = "verification"
+    description = "Replays a recorded sound workload and reports sound engine statistics"
+    classpath = tools.runtimeClasspath
+    mainClass.set("org.orecruncher.dsurround.client.sound.SoundReplay")
+}
+
+// Runs the JMH benchmarks in the tools source set. JMH options can be passed
+// through, i.e. gradlew benchmark --args="ConditionBenchmark -prof gc"
+tasks.register<JavaExec>("benchmark") {
+    group = "verification"
+    description = "Runs the JMH benchmarks"
+    classpath = tools.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+}
+
 // Adds Access Transformer files to tasks
 if (use_access_transformer.toBoolean()) {
     for (at in sourceSets.getByName("main").resources.files) {
@@ -54,6 +54,7 @@ public final class ModOptions {
 		public static final int SOUND_PLAY = 0x1;
 		public static final int FOOTSTEP_ACOUSTIC = 0x2;
 		public static final int WORLD_CAPABILITIES = 0x4;
+		public static final int SOUND_RECORD = 0x8;
 	}
 
 	public static final String CATEGORY_ASM = "asm";
@@ -359,6 +360,24 @@ public final class ModOptions {
 		@Comment("Block radius/range around player for special effect application")
 		public static int specialEffectRange = 24;
 
+		@Option("Batch Entity Effects")
+		@DefaultValue("false")
+		@LangKey(effects.PREFIX + ".BatchEntityEffects")
+		@Comment("Update entity effects in a single pass per tick, grouped by effect, rather than as each entity updates (performance)")
+		public static boolean batchEntityEffects = false;
+
+		@Option("Background Block Scanning")
+		@DefaultValue("true")
+		@LangKey(effects.PREFIX + ".AsyncScan")
+		@Comment("Scan for block effects on background threads against a snapshot of the surrounding area (performance)")
+		public static boolean enableAsyncBlockScan = true;
+
+		@Option("Weighted Block Sampling")
+		@DefaultValue("true")
+		@LangKey(effects.PREFIX + ".WeightedSampling")
+		@Comment("Limit random block effect sampling to blocks that have effects (performance)")
+		public static boolean enableWeightedBlockSampling = true;
+
 		@Option("Disable Water Suspend Particles")
 		@DefaultValue("false")
 		@LangKey(effects.PREFIX + ".Suspend")
@@ -558,6 +577,27 @@ public final class ModOptions {
 		@Comment("true to match first person arm swing; false to match 3rd person leg animation")
 		public static boolean firstPersonFootstepCadence = true;
 
+		@Option("Footstep Full Detail Range")
+		@DefaultValue("12")
+		@LangKey(sound.PREFIX + ".FootstepFullRange")
+		@RangeInt(min = 0, max = 64)
+		@Comment("Block range around the player in which mob footsteps are fully simulated")
+		public static int footstepFullRange = 12;
+
+		@Option("Footstep Reduced Detail Range")
+		@DefaultValue("20")
+		@LangKey(sound.PREFIX + ".FootstepReducedRange")
+		@RangeInt(min = 0, max = 64)
+		@Comment("Block range around the player in which mob footsteps are simulated without footprints or brush sounds; beyond it only occasional steps are played")
+		public static int footstepReducedRange = 20;
+
+		@Option("Max Delayed Footstep Sounds")
+		@DefaultValue("128")
+		@LangKey(sound.PREFIX + ".MaxDelayedFootsteps")
+		@RangeInt(min = 16, max = 1024)
+		@Comment("Maximum number of delayed footstep sounds waiting to play; additional ones are dropped")
+		public static int maxDelayedFootsteps = 128;
+
 		@Option("Armor Sound")
 		@DefaultValue("true")
 		@LangKey(sound.PREFIX + ".Armor")
@@ -583,6 +623,33 @@ public final class ModOptions {
 		@Comment("Ticks between culled sound events (0 to disable culling)")
 		public static int soundCullingThreshold = 20;
 
+		@Option("Voice Stealing")
+		@DefaultValue("true")
+		@LangKey(sound.PREFIX + ".VoiceStealing")
+		@Comment("Stop less important sounds to make room for more important ones when out of sound channels")
+		public static boolean enableVoiceStealing = true;
+
+		@Option("Audibility Threshold")
+		@DefaultValue("0.01")
+		@LangKey(sound.PREFIX + ".AudibilityThreshold")
+		@RangeFloat(min = 0F, max = 0.25F)
+		@Comment("Sounds estimated to be quieter than this at the player are not played (0 to disable)")
+		public static float audibilityThreshold = 0.01F;
+
+		@Option("Sound Coalesce Window")
+		@DefaultValue("2")
+		@LangKey(sound.PREFIX + ".CoalesceWindow")
+		@RangeInt(min = 0, max = 10)
+		@Comment("Ticks to gather repeated block and weather sounds in an area into a single sound (0 to disable)")
+		public static int coalesceWindow = 2;
+
+		@Option("Sound Coalesce Area")
+		@DefaultValue("4")
+		@LangKey(sound.PREFIX + ".CoalesceArea")
+		@RangeInt(min = 1, max = 16)
+		@Comment("Size in blocks of the area in which repeated sounds are gathered together")
+		public static int coalesceCellSize = 4;
+
 		@Option(CONFIG_SOUND_SETTINGS)
 		@Hidden
 		@DefaultValue("minecraft:block.water.ambient cull,minecraft:block.lava.ambient cull,minecraft:entity.sheep.ambient cull,minecraft:entity.chicken.ambient cull,minecraft:entity.cow.ambient cull,minecraft:entity.pig.ambient cull,dsurround:bison block,dsurround:elephant block,dsurround:gnatt block,dsurround:insectbuzz block,dsurround:hiss block,dsurround:rattlesnake block")
@@ -30,6 +30,7 @@ import javax.annotation.Nullable;
 import org.orecruncher.dsurround.ModBase;
 import org.orecruncher.dsurround.ModOptions;
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
+import org.orecruncher.dsurround.client.handlers.scanners.ColumnCache;
 import org.orecruncher.dsurround.client.weather.Weather;
 import org.orecruncher.dsurround.lib.compat.ModEnvironment;
 import org.orecruncher.dsurround.registry.biome.BiomeInfo;
@@ -106,7 +107,7 @@ public class SeasonInfo implements ISeasonInfo {
 	@Override
 	@Nonnull
 	public BlockPos getPrecipitationHeight(@Nonnull final BlockPos pos) {
-		return ClientChunkCache.instance().getPrecipitationHeight(pos);
+		return new BlockPos(pos.getX(), ColumnCache.getPrecipitationHeight(pos.getX(), pos.getZ()), pos.getZ());
 	}
 
 	@Override
@@ -25,6 +25,7 @@ package org.orecruncher.dsurround.client.effects;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 import javax.annotation.Nonnull;
 
@@ -57,6 +58,10 @@ public class EntityEffectHandler extends EntityEffectStateBase implements IEntit
 		public void update() {
 		}
 
+		@Override
+		public void collect(@Nonnull final BiConsumer<EntityEffect, Entity> sink) {
+		}
+
 		@Override
 		public boolean isDummy() {
 			return true;
@@ -69,6 +74,8 @@ public class EntityEffectHandler extends EntityEffectStateBase implements IEntit
 		}
 	}
 
+	private static final BiConsumer<EntityEffect, Entity> RUN = EntityEffect::update;
+
 	protected final ObjectArray<EntityEffect> activeEffects;
 	protected boolean isAlive = true;
 	protected double rangeToPlayer;
@@ -98,28 +105,63 @@ public class EntityEffectHandler extends EntityEffectStateBase implements IEntit
 	 * EntityEffects that are attached.
 	 */
 	public void update() {
+		collect(RUN);
+	}
+
+	/**
+	 * Batched form of update(). The state of the EntityEffectHandler is updated
+	 * the same way, but the EntityEffects that need to run are handed to the sink
+	 * along with their subject rather than being run here.
+	 */
+	public void collect(@Nonnull final BiConsumer<EntityEffect, Entity> sink) {
 		if (!isAlive())
 			return;
 
 		this.isAlive = isSubjectAlive();
 
-        if (this.activeEffects == null)
-            return;
+		if (this.activeEffects == null)
+			return;
+
+		final Entity entity = this.subject.get();
+
+		if (entity == null)
+			return;
+
+		final EntityPlayer player = Minecraft.getMinecraft().player;
+		this.rangeToPlayer = entity.getDistanceSq(player);
 
-        final Entity entity = this.subject.get();
+		for (int i = 0; i < this.activeEffects.size(); i++) {
+			final EntityEffect e = this.activeEffects.get(i);
+			if (this.isAlive || e.receiveLastCall())
+				sink.accept(e, entity);
+		}
+	}
 
-        if (entity == null)
-            return;
+	/**
+	 * Hands the EntityEffects that want a last call to the sink when the subject
+	 * is going away without the handler having seen it die, such as when it is
+	 * removed from the world. The handler is dead afterwards.
+	 */
+	public void collectLastCall(@Nonnull final BiConsumer<EntityEffect, Entity> sink) {
+		if (!isAlive())
+			return;
 
-        final EntityPlayer player = Minecraft.getMinecraft().player;
-        this.rangeToPlayer = entity.getDistanceSq(player);
+		this.isAlive = false;
 
-        for (int i = 0; i < this.activeEffects.size(); i++) {
-            final EntityEffect e = this.activeEffects.get(i);
-            if (this.isAlive || e.receiveLastCall())
-                e.update(entity);
-        }
-    }
+		if (this.activeEffects == null)
+			return;
+
+		final Entity entity = this.subject.get();
+
+		if (entity == null)
+			return;
+
+		for (int i = 0; i < this.activeEffects.size(); i++) {
+			final EntityEffect e = this.activeEffects.get(i);
+			if (e.receiveLastCall())
+				sink.accept(e, entity);
+		}
+	}
 
 	/**
 	 * Used for metric collection to distinguish between active handlers and
@@ -31,7 +31,6 @@ import org.orecruncher.dsurround.registry.acoustics.AcousticRegistry;
 import org.orecruncher.dsurround.registry.acoustics.IAcoustic;
 import org.orecruncher.dsurround.registry.footstep.BlockMap;
 import org.orecruncher.dsurround.registry.footstep.Substrate;
-import org.orecruncher.lib.MyUtils;
 import org.orecruncher.lib.math.MathStuff;
 
 import net.minecraft.block.state.IBlockState;
@@ -48,25 +47,43 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 public class AcousticResolver {
 
 	protected final IBlockState airState = Blocks.AIR.getDefaultState();
-	protected final IBlockAccess world;
 	protected final BlockMap blockMap;
-	protected final FootStrikeLocation loc;
-	protected final double distanceToCenter;
+	protected final BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+	protected IBlockAccess world;
+	protected FootStrikeLocation loc;
+	protected double distanceToCenter;
+
+	/**
+	 * Creates a resolver that is pointed at a strike location with set() before
+	 * each use. Probing is done on coordinates and a mutable position so a reused
+	 * resolver does not allocate.
+	 */
+	public AcousticResolver(@Nonnull final BlockMap map) {
+		this.blockMap = map;
+	}
 
 	public AcousticResolver(@Nonnull final IBlockAccess world, @Nonnull final BlockMap map,
 			@Nonnull final FootStrikeLocation loc, final double distanceToCenter) {
+		this(map);
+		set(world, loc, distanceToCenter);
+	}
+
+	@Nonnull
+	public AcousticResolver set(@Nonnull final IBlockAccess world, @Nonnull final FootStrikeLocation loc,
+			final double distanceToCenter) {
 		this.world = world;
-		this.blockMap = map;
 		this.loc = loc;
 		this.distanceToCenter = distanceToCenter;
+		return this;
 	}
 
-	protected IBlockState getBlockStateFacade(@Nonnull final Vec3d pos) {
-		return FacadeHelper.resolveState(this.loc.getEntity(), getBlockState(pos), this.world, pos, EnumFacing.UP);
+	protected IBlockState getBlockStateFacade(final double x, final double y, final double z) {
+		return FacadeHelper.resolveState(this.loc.getEntity(), getBlockState(x, y, z), this.world, x, y, z,
+				EnumFacing.UP);
 	}
 
-	protected IBlockState getBlockState(@Nonnull final Vec3d pos) {
-		return this.world.getBlockState(new BlockPos(pos));
+	protected IBlockState getBlockState(final double x, final double y, final double z) {
+		return this.world.getBlockState(this.mutable.setPos(x, y, z));
 	}
 
 	/**
@@ -81,10 +98,19 @@ public class AcousticResolver {
 	 */
 	@Nullable
 	public Association findAssociationForEvent() {
+		return findAssociationForEvent(new Association());
+	}
+
+	/**
+	 * Same as findAssociationForEvent() but the result is written into the
+	 * association provided, which is returned if a match is found.
+	 */
+	@Nullable
+	public Association findAssociationForEvent(@Nonnull final Association target) {
 
 		final Vec3d pos = this.loc.getStrikePosition();
 
-		Association worked = resolve(pos);
+		Association worked = resolve(pos.x, pos.y, pos.z, target);
 
 		// If it didn't work, the player has walked over the air on the border
 		// of a block.
@@ -98,9 +124,8 @@ public class AcousticResolver {
 			// Create a trigo. mark contained inside the block the player is
 			// over
 			final EntityLivingBase entity = this.loc.getEntity();
-			final BlockPos adj = new BlockPos(pos);
-			final double xdang = (entity.posX - adj.getX()) * 2 - 1;
-			final double zdang = (entity.posZ - adj.getZ()) * 2 - 1;
+			final double xdang = (entity.posX - MathStuff.floor(pos.x)) * 2 - 1;
+			final double zdang = (entity.posZ - MathStuff.floor(pos.z)) * 2 - 1;
 			// -1 0 1
 			// ------- -1
 			// | o |
@@ -125,9 +150,9 @@ public class AcousticResolver {
 				if (isXdangMax) {
 					// If we are in the positive border, add 1,
 					// else subtract 1
-					worked = resolve(xdang > 0 ? this.loc.east() : this.loc.west());
+					worked = resolve(pos.x + (xdang > 0 ? 1 : -1), pos.y, pos.z, target);
 				} else {
-					worked = resolve(zdang > 0 ? this.loc.south() : this.loc.north());
+					worked = resolve(pos.x, pos.y, pos.z + (zdang > 0 ? 1 : -1), target);
 				}
 
 				// If that didn't work, then maybe the footstep hit in the
@@ -136,9 +161,9 @@ public class AcousticResolver {
 					// Take the maximum direction and try with
 					// the orthogonal direction of it
 					if (isXdangMax) {
-						worked = resolve(zdang > 0 ? this.loc.south() : this.loc.north());
+						worked = resolve(pos.x, pos.y, pos.z + (zdang > 0 ? 1 : -1), target);
 					} else {
-						worked = resolve(xdang > 0 ? this.loc.east() : this.loc.west());
+						worked = resolve(pos.x + (xdang > 0 ? 1 : -1), pos.y, pos.z, target);
 					}
 				}
 			}
@@ -147,12 +172,12 @@ public class AcousticResolver {
 	}
 
 	@Nullable
-	protected Association resolve(@Nonnull Vec3d vec) {
+	protected Association resolve(final double x, double y, final double z, @Nonnull final Association target) {
 		IBlockState in;
 		IAcoustic[] acoustics = AcousticRegistry.EMPTY;
 
-		Vec3d tPos = vec.add(0, 1, 0);
-		final IBlockState above = getBlockState(tPos);
+		double tY = y + 1;
+		final IBlockState above = getBlockState(x, tY, z);
 
 		if (above != this.airState)
 			acoustics = this.blockMap.getBlockAcoustics(above, Substrate.CARPET);
@@ -162,13 +187,13 @@ public class AcousticResolver {
 			// will CONTINUE with the actual block surface the player is walking
 			// on NOT_EMITTER carpets will not cause solving to skip
 
-			in = getBlockStateFacade(vec);
+			in = getBlockStateFacade(x, y, z);
 			if (in == this.airState) {
-				tPos = vec.add(0, -1, 0);
-				final IBlockState below = getBlockState(tPos);
+				tY = y - 1;
+				final IBlockState below = getBlockState(x, tY, z);
 				acoustics = this.blockMap.getBlockAcoustics(below, Substrate.FENCE);
 				if (acoustics != AcousticRegistry.EMPTY) {
-					vec = tPos;
+					y = tY;
 					in = below;
 				}
 			}
@@ -186,12 +211,12 @@ public class AcousticResolver {
 				if (above != this.airState) {
 					final IAcoustic[] foliage = this.blockMap.getBlockAcoustics(above, Substrate.FOLIAGE);
 					if (foliage != AcousticRegistry.NOT_EMITTER) {
-						acoustics = MyUtils.concatenate(acoustics, foliage);
+						acoustics = this.blockMap.getCombinedAcoustics(acoustics, foliage);
 					}
 				}
 			}
 		} else {
-			vec = tPos;
+			y = tY;
 			in = above;
 		}
 
@@ -200,7 +225,8 @@ public class AcousticResolver {
 			return null;
 		} else {
 			// Let's play the fancy acoustics we have defined for the block
-			return new Association(in, this.loc.rebase(new BlockPos(vec)), acoustics);
+			return target.set(in, this.loc.rebase(MathStuff.floor(x), MathStuff.floor(y), MathStuff.floor(z)),
+					acoustics);
 		}
 	}
 
@@ -38,32 +38,47 @@ import net.minecraft.block.SoundType;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Vec3d;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 @SideOnly(Side.CLIENT)
 public class Association {
 
-	private final IBlockState state;
-	private final FootStrikeLocation location;
+	private IBlockState state;
+	private FootStrikeLocation location;
 	private final ObjectArray<IAcoustic> data = new ObjectArray<>(8);
-	private final boolean isNotEmitter;
+	private boolean isNotEmitter;
+
+	/**
+	 * Creates an empty association to be filled in with set(). Generators keep
+	 * these around and reuse them rather than allocating one per footstep.
+	 */
+	public Association() {
+	}
 
 	public Association(@Nonnull final EntityLivingBase entity, @Nonnull final IAcoustic[] association) {
-		final Vec3d vec = entity.getPositionVector();
-		this.state = null;
-		this.location = new FootStrikeLocation(entity, vec.x, vec.y + 1, vec.z);
-		this.data.addAll(association);
-		this.isNotEmitter = association == AcousticRegistry.NOT_EMITTER;
+		set(entity, association);
 	}
 
 	public Association(@Nonnull final IBlockState state, @Nonnull final FootStrikeLocation pos,
 			@Nonnull final IAcoustic[] association) {
+		set(state, pos, association);
+	}
+
+	@Nonnull
+	public Association set(@Nonnull final EntityLivingBase entity, @Nonnull final IAcoustic[] association) {
+		return set(null, new FootStrikeLocation(entity, entity.posX, entity.posY + 1, entity.posZ), association);
+	}
+
+	@Nonnull
+	public Association set(@Nullable final IBlockState state, @Nonnull final FootStrikeLocation pos,
+			@Nonnull final IAcoustic[] association) {
 		this.state = state;
 		this.location = pos;
+		this.data.clear();
 		this.data.addAll(association);
 		this.isNotEmitter = association == AcousticRegistry.NOT_EMITTER;
+		return this;
 	}
 
 	@Nonnull
@@ -71,6 +86,15 @@ public class Association {
 		return this.data.toArray(new IAcoustic[0]);
 	}
 
+	/**
+	 * The acoustics of the association without copying them. The list belongs to
+	 * the association and must not be modified.
+	 */
+	@Nonnull
+	public ObjectArray<IAcoustic> getAcoustics() {
+		return this.data;
+	}
+
 	public boolean isLiquid() {
 		return this.state != null && this.state.getMaterial().isLiquid();
 	}
@@ -72,6 +72,13 @@ public final class FootStrikeLocation {
 		return this;
 	}
 
+	public FootStrikeLocation rebase(final int x, final int y, final int z) {
+		if (this.stepPos.getX() != x || this.stepPos.getY() != y || this.stepPos.getZ() != z) {
+			return new FootStrikeLocation(this.entity, this.strike, new BlockPos(x, y, z));
+		}
+		return this;
+	}
+
 	@Nonnull
 	public EntityLivingBase getEntity() {
 		return this.entity;
@@ -70,6 +70,9 @@ public class Generator {
 
 	protected static final Random RANDOM = XorShiftRandom.current();
 	protected static final int BRUSH_INTERVAL = 100;
+	// Squared distance an entity has to move in a tick to be considered walking
+	// when playing representative steps
+	protected static final double REPRESENTATIVE_MOTION = 0.0025D;
 
 	protected static final Consumer<Footprint> GENERATE_PRINT = print -> {
 		final Vec3d loc = print.getStepLocation();
@@ -111,14 +114,31 @@ public class Generator {
 	protected double distanceWalkedOnStepModified;
 	protected int pedometer;
 
+	// Set while generating at reduced detail; no footprints or brush sounds are
+	// produced. Reduced detail callers skip ticks so the distance walked is
+	// measured from where the last simulation ran rather than prevPos.
+	protected boolean reducedDetail;
+	protected boolean hasLastPos;
+	protected double lastPosX;
+	protected double lastPosY;
+	protected double lastPosZ;
+
 	protected static final ObjectArray<IAcoustic> accents = new ObjectArray<>(4);
 	protected final ObjectArray<Footprint> footprints = new ObjectArray<>(4);
 	protected final SoundPlayer soundPlayer;
 
+	// Reused for every footstep this generator produces. An association is
+	// played as soon as it is found so one per foot is enough; multifoot
+	// events hold both feet at the same time.
+	protected final AcousticResolver resolver;
+	protected final Association[] footAssociations = { new Association(), new Association() };
+	protected final Association messyAssociation = new Association();
+
 	public Generator(@Nonnull final Variator var) {
 		this.VAR = var;
 		this.blockMap = RegistryManager.FOOTSTEPS.getBlockMap();
 		this.soundPlayer = new SoundPlayer(this.VAR.VOLUME_SCALE);
+		this.resolver = new AcousticResolver(this.blockMap);
 	}
 
 	public int getPedometer() {
@@ -128,8 +148,10 @@ public class Generator {
 	public void generateFootsteps(@Nonnull final EntityLivingBase entity) {
 
 		// If an entity is a passenger or is sleeping then no footsteps to process
-		if (entity.isRiding() || entity.isPlayerSleeping())
+		if (entity.isRiding() || entity.isPlayerSleeping()) {
+			this.hasLastPos = false;
 			return;
+		}
 
 		// No footstep or print effects for spectators
 		if ((entity instanceof EntityPlayer) && ((EntityPlayer) entity).isSpectator())
@@ -148,9 +170,6 @@ public class Generator {
 		simulateAirborne(entity);
 		simulateBrushes(entity);
 
-		// Flush!
-		this.soundPlayer.think();
-
 		if (this.footprints.size() > 0) {
 			this.footprints.forEach(GENERATE_PRINT);
 			this.footprints.clear();
@@ -165,6 +184,47 @@ public class Generator {
 					null);
 		}
 
+		suppressVanillaSteps(entity);
+	}
+
+	/**
+	 * Generates footsteps at reduced detail. Strides are still simulated, from the
+	 * distance covered since the previous call so the caller can skip ticks, but
+	 * no footprints or brush sounds are produced.
+	 */
+	public void generateReducedFootsteps(@Nonnull final EntityLivingBase entity) {
+		this.reducedDetail = true;
+		generateFootsteps(entity);
+		this.reducedDetail = false;
+	}
+
+	/**
+	 * Plays a single step if the entity is walking on the ground, without
+	 * simulating the stride. Used for entities at the edge of effect range where
+	 * an occasional representative step is enough.
+	 */
+	public void generateRepresentativeStep(@Nonnull final EntityLivingBase entity) {
+		this.hasLastPos = false;
+		suppressVanillaSteps(entity);
+
+		if (!entity.onGround || entity.isRiding() || entity.isPlayerSleeping() || entity.isInWater())
+			return;
+
+		final double dX = entity.posX - entity.prevPosX;
+		final double dZ = entity.posZ - entity.prevPosZ;
+		if (dX * dX + dZ * dZ < REPRESENTATIVE_MOTION)
+			return;
+
+		this.reducedDetail = true;
+		this.isInWater = false;
+		this.isSneaking = entity.isSneaking();
+		playSinglefoot(entity, 0d, speedDisambiguator(entity, EventType.WALK, EventType.RUN), this.isRightFoot);
+		this.isRightFoot = !this.isRightFoot;
+		this.pedometer++;
+		this.reducedDetail = false;
+	}
+
+	protected void suppressVanillaSteps(@Nonnull final EntityLivingBase entity) {
 		if (SoundEngine.getVolume(SoundRegistry.FOOTSTEPS) > 0) {
 			EntityUtil.setNextStepDistance(entity, Integer.MAX_VALUE);
 		} else {
@@ -190,10 +250,23 @@ public class Generator {
 	}
 
 	protected void updateWalkedOnStep(@Nonnull final EntityLivingBase entity) {
-		final double dX = entity.posX - entity.prevPosX;
-		final double dY = entity.posY - entity.prevPosY;
-		final double dZ = entity.posZ - entity.prevPosZ;
+		final double dX;
+		final double dY;
+		final double dZ;
+		if (this.reducedDetail && this.hasLastPos) {
+			dX = entity.posX - this.lastPosX;
+			dY = entity.posY - this.lastPosY;
+			dZ = entity.posZ - this.lastPosZ;
+		} else {
+			dX = entity.posX - entity.prevPosX;
+			dY = entity.posY - entity.prevPosY;
+			dZ = entity.posZ - entity.prevPosZ;
+		}
 		this.distanceWalkedOnStepModified += Math.sqrt(dX * dX + dY * dY + dZ * dZ) * 0.6F;
+		this.lastPosX = entity.posX;
+		this.lastPosY = entity.posY;
+		this.lastPosZ = entity.posZ;
+		this.hasLastPos = true;
 	}
 
 	protected void simulateFootsteps(@Nonnull final EntityLivingBase entity) {
@@ -345,6 +418,8 @@ public class Generator {
 	}
 
 	protected void simulateBrushes(@Nonnull final EntityLivingBase entity) {
+		if (this.reducedDetail)
+			return;
 		final long current = TimeUtils.currentTimeMillis();
 		if (current >= this.brushesTime) {
 			this.brushesTime = current + BRUSH_INTERVAL;
@@ -396,7 +471,7 @@ public class Generator {
 	}
 
 	protected boolean shouldProducePrint(@Nonnull final EntityLivingBase entity) {
-		return ModOptions.effects.enableFootprints && this.VAR.HAS_FOOTPRINT
+		return !this.reducedDetail && ModOptions.effects.enableFootprints && this.VAR.HAS_FOOTPRINT
 				&& (entity.onGround || !(this.isJumping || entity.isAirBorne))
 				&& !entity.isInvisibleToPlayer(EnvironState.getPlayer());
 	}
@@ -421,10 +496,10 @@ public class Generator {
 		final FootStrikeLocation loc = new FootStrikeLocation(entity, xx, minY - PROBE_DEPTH - verticalOffsetAsMinus,
 				zz);
 
-		final AcousticResolver resolver = new AcousticResolver(ClientChunkCache.instance(), this.blockMap, loc,
-				this.VAR.DISTANCE_TO_CENTER);
+		final Association target = this.footAssociations[isRightFoot ? 1 : 0];
+		this.resolver.set(ClientChunkCache.instance(), loc, this.VAR.DISTANCE_TO_CENTER);
 
-		final Association result = addSoundOverlay(entity, resolver.findAssociationForEvent());
+		final Association result = addSoundOverlay(entity, this.resolver.findAssociationForEvent(target), target);
 
 		// It is possible that the association has no position, so it
 		// needs to be checked.
@@ -483,7 +558,7 @@ public class Generator {
 			if (acoustics == AcousticRegistry.MESSY_GROUND) {
 				acoustics = this.blockMap.getBlockAcoustics(above, Substrate.FOLIAGE);
 				if (acoustics != AcousticRegistry.NOT_EMITTER) {
-					result = new Association(entity, acoustics);
+					result = this.messyAssociation.set(entity, acoustics);
 				}
 
 			}
@@ -493,10 +568,12 @@ public class Generator {
 
 	/**
 	 * Adds additional sound overlays to the acoustic based on other environment
-	 * aspects, such as armor being worn.
+	 * aspects, such as armor being worn. If there is no association to add them to
+	 * the scratch association is filled in and returned.
 	 */
 	@Nullable
-	protected Association addSoundOverlay(@Nonnull final EntityLivingBase entity, @Nullable Association assoc) {
+	protected Association addSoundOverlay(@Nonnull final EntityLivingBase entity, @Nullable Association assoc,
+			@Nonnull final Association scratch) {
 		// Don't apply overlays if the entity is not on the ground
 		if (entity.onGround) {
 			accents.clear();
@@ -504,9 +581,8 @@ public class Generator {
 			FootstepAccents.provide(entity, pos, accents);
 			if (accents.size() > 0) {
 				if (assoc == null)
-					assoc = new Association(entity, accents.toArray(new IAcoustic[0]));
-				else
-					assoc.add(accents);
+					assoc = scratch.set(entity, AcousticRegistry.EMPTY);
+				assoc.add(accents);
 			}
 		}
 
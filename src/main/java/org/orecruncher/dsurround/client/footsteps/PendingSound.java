@@ -33,42 +33,76 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
+/**
+ * A delayed footstep sound waiting in the PendingSoundQueue. Instances are
+ * pooled by the queue and filled in with set() each time they are used.
+ */
 @SideOnly(Side.CLIENT)
 public class PendingSound {
 
 	private static final float LATENESS_SLACK_FACTOR = 1.2f;
-
-	private final Vec3d location;
-	private final SoundEvent sound;
-	private final float volume;
-	private final float pitch;
-	private final long timeToPlay;
-	private final long maximum;
-	private final float lateTolerance;
-
-	public PendingSound(@Nonnull final Vec3d location, @Nonnull final SoundEvent sound, final float volume,
-			final float pitch, final long timeToPlay, final long maximum) {
+	// Sounds are only released on a tick so they can play up to a tick after
+	// their time
+	private static final int MILLIS_PER_TICK = 50;
+
+	private ISoundPlayer player;
+	private Vec3d location;
+	private SoundEvent sound;
+	private float volume;
+	private float pitch;
+	private int tickToPlay;
+	private long timeToPlay;
+	private long maximum;
+	private float lateTolerance;
+
+	@Nonnull
+	public PendingSound set(@Nonnull final ISoundPlayer player, @Nonnull final Vec3d location,
+			@Nonnull final SoundEvent sound, final float volume, final float pitch, final int tickToPlay,
+			final long timeToPlay, final long maximum) {
+		this.player = player;
 		this.location = location;
 		this.sound = sound;
 		this.volume = volume;
 		this.pitch = pitch;
 
+		this.tickToPlay = tickToPlay;
 		this.timeToPlay = timeToPlay;
 		this.maximum = maximum;
-		this.lateTolerance = maximum * LATENESS_SLACK_FACTOR;
+		this.lateTolerance = maximum * LATENESS_SLACK_FACTOR + MILLIS_PER_TICK;
+		return this;
+	}
+
+	/**
+	 * Play the sound stored in this pending sound through the player that
+	 * queued it.
+	 */
+	public void playSound() {
+		this.player.playSound(this.location, this.sound, this.volume, this.pitch, null);
+	}
+
+	/**
+	 * Releases the references held so a pooled instance does not keep the
+	 * generator or sound alive.
+	 */
+	public void clear() {
+		this.player = null;
+		this.location = null;
+		this.sound = null;
 	}
 
 	/**
-	 * Play the sound stored in this pending sound.
+	 * Returns the tick on which this sound plays.
 	 *
-	 * @param player
+	 * @return
 	 */
-	public void playSound(@Nonnull final ISoundPlayer player) {
-		player.playSound(this.location, this.sound, this.volume, this.pitch, null);
+	public int getTickToPlay() {
+		return this.tickToPlay;
 	}
 
 	/**
-	 * Returns the time after which this sound plays.
+	 * Returns the time after which this sound plays. Lateness is measured against
+	 * this rather than the tick since the tick counter stands still while the
+	 * game is paused.
 	 *
 	 * @return
 	 */
@@ -77,8 +111,8 @@ public class PendingSound {
 	}
 
 	/**
-	 * Get the maximum delay of this sound, for threshold purposes. If the value is
-	 * negative, the sound will not be skippable.
+	 * Get the maximum delay of this sound, in milliseconds, for threshold
+	 * purposes. If the value is negative, the sound will not be skippable.
 	 *
 	 * @return
 	 */
@@ -94,11 +128,11 @@ public class PendingSound {
 		if (this.maximum < 0)
 			return false;
 
-		return (time - this.timeToPlay) > this.lateTolerance;
+		return howLate(time) > this.lateTolerance;
 	}
 
 	public long howLate(final long time) {
 		return time - this.timeToPlay;
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.client.footsteps;
+
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+
+import org.orecruncher.dsurround.ModOptions;
+import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
+import org.orecruncher.dsurround.lib.TimingWheel;
+import org.orecruncher.dsurround.registry.acoustics.ISoundPlayer;
+import org.orecruncher.lib.TimeUtils;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.Vec3d;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Holds the delayed footstep sounds for all generators. Sounds are kept in a
+ * timing wheel by the tick they are due and the whole queue is processed once
+ * per tick by the EffectManager, rather than every generator scanning its own
+ * list. The number of outstanding sounds is capped; anything over the cap is
+ * dropped.
+ */
+@SideOnly(Side.CLIENT)
+public final class PendingSoundQueue {
+
+	public static final PendingSoundQueue INSTANCE = new PendingSoundQueue();
+
+	private static final int MILLIS_PER_TICK = 50;
+
+	private final TimingWheel<PendingSound> pending = new TimingWheel<>(32);
+	private final ObjectArrayList<PendingSound> pool = new ObjectArrayList<>();
+	private final Consumer<PendingSound> playPending = this::playPending;
+	private long time;
+	private int dropped;
+	private int late;
+
+	private PendingSoundQueue() {
+
+	}
+
+	/**
+	 * Queues up a sound to be played by the player after the delay.
+	 *
+	 * @param player   Player that will play the sound
+	 * @param location Where the sound plays
+	 * @param sound    The sound to play
+	 * @param volume   Volume of the sound
+	 * @param pitch    Pitch of the sound
+	 * @param delay    Delay in milliseconds before the sound plays
+	 * @param maximum  Maximum delay of the acoustic, used to decide if the sound
+	 *                 is too late to play
+	 */
+	public void schedule(@Nonnull final ISoundPlayer player, @Nonnull final Vec3d location,
+			@Nonnull final SoundEvent sound, final float volume, final float pitch, final long delay,
+			final long maximum) {
+		if (this.pending.size() >= ModOptions.sound.maxDelayedFootsteps) {
+			this.dropped++;
+			return;
+		}
+
+		final int ticks = (int) ((delay + MILLIS_PER_TICK - 1) / MILLIS_PER_TICK);
+		final int due = EnvironState.getTickCounter() + Math.max(ticks, 1);
+		final long timeToPlay = TimeUtils.currentTimeMillis() + delay;
+		final PendingSound s = this.pool.isEmpty() ? new PendingSound() : this.pool.pop();
+		this.pending.schedule(s.set(player, location, sound, volume, pitch, due, timeToPlay, maximum), due);
+	}
+
+	/**
+	 * Plays the sounds that have come due. Called once per client tick. Sounds
+	 * that have waited too long in real time, such as across a pause, are
+	 * skipped.
+	 */
+	public void process(final int tick) {
+		this.time = TimeUtils.currentTimeMillis();
+		this.pending.advance(tick, this.playPending);
+	}
+
+	private void playPending(@Nonnull final PendingSound s) {
+		if (s.isLate(this.time))
+			this.late++;
+		else
+			s.playSound();
+		s.clear();
+		this.pool.push(s);
+	}
+
+	public int size() {
+		return this.pending.size();
+	}
+
+	public int getDropped() {
+		return this.dropped;
+	}
+
+	public int getLate() {
+		return this.late;
+	}
+
+	public void clear() {
+		this.pending.forEach((s, due) -> s.clear());
+		this.pending.clear();
+		this.dropped = 0;
+		this.late = 0;
+	}
+
+}
@@ -40,7 +40,6 @@ import org.orecruncher.dsurround.registry.acoustics.IAcoustic;
 import org.orecruncher.dsurround.registry.acoustics.IOptions;
 import org.orecruncher.dsurround.registry.acoustics.ISoundPlayer;
 import org.orecruncher.dsurround.registry.sound.SoundRegistry;
-import org.orecruncher.lib.TimeUtils;
 import org.orecruncher.lib.collections.ObjectArray;
 import org.orecruncher.lib.random.XorShiftRandom;
 
@@ -53,7 +52,6 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 public class SoundPlayer implements ISoundPlayer {
 
 	protected final Random random = XorShiftRandom.current();
-	protected final ObjectArray<PendingSound> pending = new ObjectArray<>();
 	protected final float scale;
 
 	public SoundPlayer(final float volumeScale) {
@@ -61,7 +59,14 @@ public class SoundPlayer implements ISoundPlayer {
 	}
 
 	public void playAcoustic(@Nonnull final Association assoc, @Nonnull final EventType event) {
-		playAcoustic(assoc.getStrikeLocation().getStrikePosition(), assoc.getData(), event, null);
+		final ObjectArray<IAcoustic> acoustics = assoc.getAcoustics();
+		if (acoustics.size() > 0) {
+			if (ModBase.log().isDebugging())
+				logAcousticPlay(assoc.getData(), event);
+			final Vec3d location = assoc.getStrikeLocation().getStrikePosition();
+			for (int i = 0; i < acoustics.size(); i++)
+				acoustics.get(i).playSound(this, location, event, null);
+		}
 	}
 
 	private void logAcousticPlay(@Nonnull final IAcoustic[] acoustics, @Nonnull final EventType event) {
@@ -85,9 +90,8 @@ public class SoundPlayer implements ISoundPlayer {
 			final float pitch, @Nullable final IOptions options) {
 		// If it is a delayed sound queue it up. Otherwise play it.
 		if (options != null && options.isDelayedSound()) {
-			final long delay = TimeUtils.currentTimeMillis()
-					+ randAB(this.random, options.getDelayMin(), options.getDelayMax());
-			this.pending.add(new PendingSound(location, sound, volume, pitch, delay, options.getDelayMax()));
+			final long delay = randAB(this.random, options.getDelayMin(), options.getDelayMax());
+			PendingSoundQueue.INSTANCE.schedule(this, location, sound, volume, pitch, delay, options.getDelayMax());
 		} else {
 			actuallyPlaySound(location, sound, volume, pitch);
 		}
@@ -109,19 +113,6 @@ public class SoundPlayer implements ISoundPlayer {
 		return this.random;
 	}
 
-	public void think() {
-		final long time = TimeUtils.currentTimeMillis();
-
-		this.pending.removeIf(sound -> {
-			if (sound.getTimeToPlay() <= time) {
-				if (!sound.isLate(time))
-					sound.playSound(this);
-				return true;
-			}
-			return false;
-		});
-	}
-
 	private long randAB(@Nonnull final Random rng, final long a, final long b) {
 		return a >= b ? a : a + rng.nextInt((int) (b + 1));
 	}
@@ -109,4 +109,23 @@ public final class FacadeHelper {
 		return state;
 	}
 
+	/**
+	 * Same as resolveState() but with the position given as coordinates. The
+	 * Vec3d the accessor needs is only created if the block has an accessor.
+	 */
+	@Nonnull
+	public static IBlockState resolveState(@Nonnull final EntityLivingBase entity, @Nonnull final IBlockState state,
+			@Nonnull final IBlockAccess world, final double x, final double y, final double z,
+			@Nullable final EnumFacing side) {
+		if (crackers.size() > 0 && state != Blocks.AIR.getDefaultState()) {
+			final IFacadeAccessor accessor = crackers.get(state.getBlock());
+			if (accessor != null) {
+				final IBlockState newState = accessor.getBlockState(entity, state, world, new Vec3d(x, y, z), side);
+				if (newState != null)
+					return newState;
+			}
+		}
+		return state;
+	}
+
 }
@@ -30,7 +30,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import org.apache.commons.lang3.StringUtils;
-import org.orecruncher.dsurround.expression.ExpressionEngine;
+import org.orecruncher.dsurround.expression.Condition;
 import org.orecruncher.lib.chunk.IBlockAccessEx;
 
 import net.minecraft.block.state.IBlockState;
@@ -43,6 +43,7 @@ public abstract class BlockEffect implements ISpecialEffect {
 
 	private int chance;
 	protected String conditions = StringUtils.EMPTY;
+	protected Condition condition = Condition.TRUE;
 
 	public BlockEffect() {
 		this(100);
@@ -57,6 +58,7 @@ public abstract class BlockEffect implements ISpecialEffect {
 
 	public void setConditions(@Nullable final String conditions) {
 		this.conditions = conditions == null ? StringUtils.EMPTY : conditions.intern();
+		this.condition = Condition.compile(this.conditions);
 	}
 
 	@Nonnull
@@ -64,6 +66,11 @@ public abstract class BlockEffect implements ISpecialEffect {
 		return this.conditions;
 	}
 
+	@Nonnull
+	public Condition getCondition() {
+		return this.condition;
+	}
+
 	public void setChance(final int chance) {
 		this.chance = chance;
 	}
@@ -87,7 +94,7 @@ public abstract class BlockEffect implements ISpecialEffect {
 		if (!alwaysExecute() && random.nextInt(getChance()) != 0)
 			return false;
 
-		return ExpressionEngine.instance().check(getConditions());
+		return getCondition().test();
 	}
 
 	/**
@@ -24,18 +24,38 @@
 
 package org.orecruncher.dsurround.client.handlers;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import javax.annotation.Nonnull;
 
+import org.orecruncher.dsurround.ModBase;
 import org.orecruncher.dsurround.ModOptions;
 import org.orecruncher.dsurround.client.handlers.scanners.AlwaysOnBlockEffectScanner;
 import org.orecruncher.dsurround.client.handlers.scanners.ClientPlayerLocus;
 import org.orecruncher.dsurround.client.handlers.scanners.RandomBlockEffectScanner;
+import org.orecruncher.dsurround.event.DiagnosticEvent;
+import org.orecruncher.dsurround.lib.scanner.Scanner;
+import org.orecruncher.dsurround.lib.scanner.SectionSnapshot;
+import org.orecruncher.lib.collections.ObjectArray;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
+/**
+ * Drives the block effect scanners around the player. When background scanning
+ * is enabled the scanners read a snapshot of the surrounding chunk sections on
+ * a worker pool, and the blocks they find are handed back to the client thread
+ * on the following tick to trigger the effects.
+ */
 @SideOnly(Side.CLIENT)
 public final class AreaBlockEffectsHandler extends EffectHandlerBase {
 
@@ -55,25 +75,109 @@ public final class AreaBlockEffectsHandler extends EffectHandlerBase {
 	);
 	//@formatter:on
 
+	protected final Scanner[] scanners = { this.nearEffects, this.farEffects, this.alwaysOn };
+	protected final SectionSnapshot.Builder snapshots = new SectionSnapshot.Builder();
+	protected final ObjectArray<Future<Void>> pending = new ObjectArray<>();
+	protected ExecutorService executor;
+
+	// Statistics for the diagnostic display
+	protected int snapshotSections;
+
 	public AreaBlockEffectsHandler() {
 		super("Area Block Effects");
 	}
 
 	@Override
 	public void process(@Nonnull final EntityPlayer player) {
-		this.nearEffects.update();
-		this.farEffects.update();
-		this.alwaysOn.update();
+		// Hand off the results of the scan started last tick
+		completeScans();
+
+		this.nearEffects.setWeightedSampling(ModOptions.effects.enableWeightedBlockSampling);
+		this.farEffects.setWeightedSampling(ModOptions.effects.enableWeightedBlockSampling);
+
+		if (ModOptions.effects.enableAsyncBlockScan && this.executor != null) {
+			final BlockPos center = this.locus.getCenter();
+			if (center == null)
+				return;
+			for (final Scanner s : this.scanners)
+				s.include(this.snapshots);
+			final SectionSnapshot snapshot = this.snapshots.build(player.getEntityWorld(), center,
+					this.locus.getReference());
+			this.snapshotSections = snapshot.getSectionCount();
+			for (final Scanner s : this.scanners) {
+				s.setSnapshot(snapshot);
+				this.pending.add(this.executor.submit(s));
+			}
+		} else {
+			this.snapshotSections = 0;
+			for (final Scanner s : this.scanners)
+				s.update();
+		}
+	}
+
+	private boolean awaitScans() {
+		boolean success = true;
+		for (final Future<Void> f : this.pending) {
+			try {
+				f.get();
+			} catch (@Nonnull final InterruptedException | ExecutionException ex) {
+				ModBase.log().error("Unable to complete block scan", ex);
+				success = false;
+			}
+		}
+		this.pending.clear();
+		return success;
+	}
+
+	private void completeScans() {
+		if (this.pending.isEmpty())
+			return;
+		final boolean success = awaitScans();
+		for (final Scanner s : this.scanners)
+			if (success)
+				s.dispatch();
+			else
+				s.discard();
 	}
 
 	@Override
 	public void onConnect() {
+		final int threads = Math.max(1, Math.min(this.scanners.length, Runtime.getRuntime().availableProcessors() - 1));
+		this.executor = Executors.newFixedThreadPool(threads,
+				new ThreadFactoryBuilder().setNameFormat("DSurround Scanner %d").setDaemon(true).build());
 		MinecraftForge.EVENT_BUS.register(this.alwaysOn);
+		MinecraftForge.EVENT_BUS.register(this.snapshots);
+		for (final Scanner s : this.scanners)
+			MinecraftForge.EVENT_BUS.register(s.getSectionIndex());
 	}
 
 	@Override
 	public void onDisconnect() {
+		awaitScans();
+		for (final Scanner s : this.scanners)
+			s.discard();
+		if (this.executor != null) {
+			this.executor.shutdown();
+			this.executor = null;
+		}
 		MinecraftForge.EVENT_BUS.unregister(this.alwaysOn);
+		MinecraftForge.EVENT_BUS.unregister(this.snapshots);
+		this.snapshots.clear();
+		for (final Scanner s : this.scanners) {
+			MinecraftForge.EVENT_BUS.unregister(s.getSectionIndex());
+			s.getSectionIndex().clear();
+		}
+	}
+
+	@SubscribeEvent
+	public void diagnostic(@Nonnull final DiagnosticEvent.Gather event) {
+		event.output.add(String.format("Random Scan: %d near, %d far lookups", this.nearEffects.getBlockLookups(),
+				this.farEffects.getBlockLookups()));
+		event.output.add(String.format("Always On Scan: %d scanned, %d skipped", this.alwaysOn.getBlocksScanned(),
+				this.alwaysOn.getBlocksSkipped()));
+		if (ModOptions.effects.enableAsyncBlockScan)
+			event.output.add(String.format("Block Scan: %d sections, %d copied", this.snapshotSections,
+					this.snapshots.getSectionsCopied()));
 	}
 
 }
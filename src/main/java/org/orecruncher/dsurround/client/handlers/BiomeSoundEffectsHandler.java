@@ -30,12 +30,14 @@ import org.orecruncher.dsurround.ModOptions;
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.orecruncher.dsurround.client.handlers.scanners.BiomeScanner;
 import org.orecruncher.dsurround.client.sound.SoundEffect;
+import org.orecruncher.dsurround.event.DiagnosticEvent;
 import org.orecruncher.dsurround.registry.RegistryManager;
 import org.orecruncher.dsurround.registry.biome.BiomeInfo;
 import org.orecruncher.lib.collections.ObjectArray;
 
 import it.unimi.dsi.fastutil.objects.Object2FloatOpenHashMap;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
@@ -46,6 +48,11 @@ public class BiomeSoundEffectsHandler extends EffectHandlerBase {
 
 	protected final BiomeScanner biomes = new BiomeScanner();
 
+	// Reused between scans. The ambient sound queue does not hold on to the map.
+	private final Object2FloatOpenHashMap<SoundEffect> sounds = new Object2FloatOpenHashMap<>();
+	private final ObjectArray<SoundEffect> playerSounds = new ObjectArray<>();
+	private final ObjectArray<SoundEffect> biomeSounds = new ObjectArray<>();
+
 	public BiomeSoundEffectsHandler() {
 		super("Biome Sound Effects");
 	}
@@ -65,12 +72,25 @@ public class BiomeSoundEffectsHandler extends EffectHandlerBase {
 	private void getBiomeSounds(@Nonnull final Object2FloatOpenHashMap<SoundEffect> result) {
 		// Need to collect sounds from all the applicable biomes
 		// along with their weights.
-		this.biomes.getBiomes().reference2FloatEntrySet()
-				.forEach(e -> e.getKey().findSoundMatches().forEach(fx -> result.addTo(fx, e.getFloatValue())));
+		final ObjectArray<SoundEffect> found = this.biomeSounds;
+		found.clear();
+		final int count = this.biomes.getBiomeCount();
+		for (int i = 0; i < count; i++) {
+			final float weight = this.biomes.getWeight(i);
+			final SoundEffect[] matches = this.biomes.getBiome(i).getSoundMatches();
+			for (int j = 0; j < matches.length; j++) {
+				final SoundEffect fx = matches[j];
+				if (result.addTo(fx, weight) == 0F)
+					found.add(fx);
+			}
+		}
 
 		// Scale the volumes in the resulting list based on the weights
 		final float area = this.biomes.getBiomeArea();
-		result.replaceAll((fx, v) -> 0.1F + 0.9F * (v / area));
+		for (int i = 0; i < found.size(); i++) {
+			final SoundEffect fx = found.get(i);
+			result.put(fx, 0.1F + 0.9F * (result.getFloat(fx) / area));
+		}
 	}
 
 	@Override
@@ -78,7 +98,8 @@ public class BiomeSoundEffectsHandler extends EffectHandlerBase {
 
 		this.biomes.update();
 
-		final Object2FloatOpenHashMap<SoundEffect> sounds = new Object2FloatOpenHashMap<>();
+		final Object2FloatOpenHashMap<SoundEffect> sounds = this.sounds;
+		sounds.clear();
 		sounds.defaultReturnValue(0);
 
 		// Only gather data if the player is alive. If the player is dead the biome
@@ -88,13 +109,15 @@ public class BiomeSoundEffectsHandler extends EffectHandlerBase {
 			if (doBiomeSounds())
 				getBiomeSounds(sounds);
 
-			final ObjectArray<SoundEffect> playerSounds = new ObjectArray<>();
+			final ObjectArray<SoundEffect> playerSounds = this.playerSounds;
+			playerSounds.clear();
 			RegistryManager.BIOME.PLAYER_INFO.findSoundMatches(playerSounds);
 			RegistryManager.BIOME.BATTLE_MUSIC_INFO.findSoundMatches(playerSounds);
 			if (EnvironState.inVillage())
 				RegistryManager.BIOME.VILLAGE_INFO.findSoundMatches(playerSounds);
 
-			playerSounds.forEach(fx -> sounds.put(fx, 1.0F));
+			for (int i = 0; i < playerSounds.size(); i++)
+				sounds.put(playerSounds.get(i), 1.0F);
 
 			if (doBiomeSounds()) {
 				final BiomeInfo playerBiome = EnvironState.getPlayerBiome();
@@ -111,4 +134,10 @@ public class BiomeSoundEffectsHandler extends EffectHandlerBase {
 		SoundEffectHandler.INSTANCE.queueAmbientSounds(sounds);
 	}
 
+	@SubscribeEvent
+	public void diagnostic(@Nonnull final DiagnosticEvent.Gather event) {
+		event.output.add(String.format("Biome Survey: %d biomes, %d columns visited", this.biomes.getBiomeCount(),
+				this.biomes.getColumnsVisited()));
+	}
+
 }
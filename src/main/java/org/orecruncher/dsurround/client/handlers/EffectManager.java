@@ -31,6 +31,7 @@ import javax.annotation.Nonnull;
 import org.orecruncher.dsurround.ModBase;
 import org.orecruncher.dsurround.ModInfo;
 import org.orecruncher.dsurround.ModOptions;
+import org.orecruncher.dsurround.client.footsteps.PendingSoundQueue;
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.orecruncher.lib.collections.ObjectArray;
 import org.orecruncher.lib.compat.EntityLivingBaseUtil;
@@ -100,6 +101,7 @@ public class EffectManager {
 		MinecraftForge.EVENT_BUS.unregister(this);
 		for (final EffectHandlerBase h : this.effectHandlers)
 			h.disconnect0();
+		PendingSoundQueue.INSTANCE.clear();
 	}
 
 	@SuppressWarnings("unchecked")
@@ -164,6 +166,8 @@ public class EffectManager {
 
 		final int tick = EnvironState.getTickCounter();
 
+		PendingSoundQueue.INSTANCE.process(tick);
+
 		for (int i = 0; i < this.effectHandlers.size(); i++) {
 			final EffectHandlerBase handler = this.effectHandlers.get(i);
 			final long mark = System.nanoTime();
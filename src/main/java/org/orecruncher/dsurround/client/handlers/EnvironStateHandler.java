@@ -41,6 +41,7 @@ import org.orecruncher.dsurround.client.handlers.scanners.CeilingCoverage;
 import org.orecruncher.dsurround.client.weather.Weather;
 import org.orecruncher.dsurround.event.DiagnosticEvent;
 import org.orecruncher.dsurround.expression.ExpressionEngine;
+import org.orecruncher.dsurround.expression.VariableSnapshot;
 import org.orecruncher.dsurround.registry.RegistryManager;
 import org.orecruncher.dsurround.registry.biome.BiomeInfo;
 import org.orecruncher.dsurround.registry.biome.BiomeRegistry;
@@ -58,6 +59,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.text.TextFormatting;
 import net.minecraft.world.EnumSkyBlock;
 import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.relauncher.Side;
@@ -270,6 +272,9 @@ public class EnvironStateHandler extends EffectHandlerBase {
 	}
 
 	protected final CeilingCoverage ceiling = new CeilingCoverage();
+	// Set on connect so the event driven script variables are refreshed once
+	// the first tick has gathered the state of the new world
+	protected boolean refreshVariables = true;
 
 	public EnvironStateHandler() {
 		super("State Handler");
@@ -295,6 +300,7 @@ public class EnvironStateHandler extends EffectHandlerBase {
 		data.battle.update(player);
 		
 		// Gather frequently accessed info
+		final int lastDimensionId = data.dimensionId;
 		data.dimInfo = CapabilityDimensionInfo.getCapability(world);
 		data.playerBiome = biomes.getPlayerBiome(player, false);
 		data.dimensionId = world.provider.getDimension();
@@ -326,6 +332,13 @@ public class EnvironStateHandler extends EffectHandlerBase {
 
 		data.dayCycle = DiurnalUtils.getCycle(world);
 
+		// Event driven script variables need to be refreshed when the player
+		// connects or changes dimension
+		if (this.refreshVariables || lastDimensionId != data.dimensionId) {
+			ExpressionEngine.instance().getSnapshot().invalidate();
+			this.refreshVariables = false;
+		}
+
 		// Resets cached script variables so they are updated
 		ExpressionEngine.instance().reset();
 	}
@@ -337,14 +350,20 @@ public class EnvironStateHandler extends EffectHandlerBase {
 	@Override
 	public void onConnect() {
 		this.reset();
+		MinecraftForge.EVENT_BUS.register(this.ceiling);
 		
-		// Ensures we have an expression instance up
-		ExpressionEngine.instance();
+		// Ensures we have an expression instance up, and that the script
+		// variables do not carry over from a prior session. The dimension of the
+		// new world can match the reset state so a refresh is forced on the
+		// first tick rather than waiting for the dimension id to change.
+		ExpressionEngine.instance().getSnapshot().invalidate();
+		this.refreshVariables = true;
 	}
 
 	@Override
 	public void onDisconnect() {
 		this.reset();
+		MinecraftForge.EVENT_BUS.unregister(this.ceiling);
 	}
 
 	// Use the new scripting system to pull out data to display
@@ -370,6 +389,10 @@ public class EnvironStateHandler extends EffectHandlerBase {
 			event.output.add(TextFormatting.YELLOW + result);
 		}
 
+		final VariableSnapshot snapshot = ExpressionEngine.instance().getSnapshot();
+		event.output.add(TextFormatting.YELLOW
+				+ String.format("Script variables: %d sampled/tick of %d", snapshot.getSampleCount(), snapshot.size()));
+
 		final List<String> badScripts = ExpressionEngine.instance().getNaughtyList();
 		for (final String s : badScripts) {
 			event.output.add("BAD SCRIPT: " + s);
@@ -24,18 +24,23 @@
 package org.orecruncher.dsurround.client.handlers;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 import javax.annotation.Nonnull;
 
 import org.orecruncher.dsurround.ModOptions;
 import org.orecruncher.dsurround.capabilities.CapabilityEntityFXData;
 import org.orecruncher.dsurround.capabilities.entityfx.IEntityFX;
+import org.orecruncher.dsurround.client.effects.EntityEffect;
 import org.orecruncher.dsurround.client.effects.EntityEffectHandler;
 import org.orecruncher.dsurround.client.effects.EntityEffectLibrary;
 import org.orecruncher.dsurround.client.effects.EventEffectLibrary;
 import org.orecruncher.dsurround.client.effects.IParticleHelper;
 import org.orecruncher.dsurround.client.effects.ISoundHelper;
+import org.orecruncher.dsurround.client.footsteps.PendingSoundQueue;
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.orecruncher.dsurround.client.handlers.effects.BreathEffect;
 import org.orecruncher.dsurround.client.handlers.effects.CraftingSoundEffect;
@@ -51,16 +56,22 @@ import org.orecruncher.dsurround.event.DiagnosticEvent;
 import org.orecruncher.dsurround.lib.OutOfBandTimerEMA;
 import org.orecruncher.dsurround.registry.RegistryDataEvent;
 import org.orecruncher.dsurround.registry.effect.EffectRegistry;
+import org.orecruncher.lib.collections.ObjectArray;
 import org.orecruncher.lib.gfx.ParticleHelper;
 import org.orecruncher.lib.math.TimerEMA;
 
 import com.google.common.collect.ImmutableList;
 
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.client.entity.EntityPlayerSP;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
 import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.event.entity.living.LivingEvent.LivingUpdateEvent;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
@@ -102,14 +113,165 @@ public class FxHandler extends EffectHandlerBase {
 	private final TimerEMA compute = new OutOfBandTimerEMA("Entity Effect Updates");
 	private long nanos;
 
+	// Number of passes an entity can go without being ticked by the world before
+	// batched mode considers it gone
+	private static final int STALE_PASSES = 2;
+
+	/**
+	 * An entity being tracked for batched updates. The world increments
+	 * ticksExisted each time it updates an entity, so when it stops changing the
+	 * entity has left the world.
+	 */
+	private static final class TrackedEntity {
+		public final Entity entity;
+		public int lastTicks;
+		public int stalePasses;
+
+		public TrackedEntity(@Nonnull final Entity entity) {
+			this.entity = entity;
+			this.lastTicks = entity.ticksExisted;
+		}
+
+		public boolean isStale() {
+			if (this.entity.ticksExisted != this.lastTicks) {
+				this.lastTicks = this.entity.ticksExisted;
+				this.stalePasses = 0;
+				return false;
+			}
+			return ++this.stalePasses >= STALE_PASSES;
+		}
+	}
+
+	/**
+	 * The effects of a single type that are to run this tick, along with their
+	 * subjects.
+	 */
+	private static final class EffectBatch {
+		public final TimerEMA timer;
+		public final ObjectArrayList<EntityEffect> effects = new ObjectArrayList<>();
+		public final ObjectArrayList<Entity> subjects = new ObjectArrayList<>();
+		public int lastCount;
+
+		public EffectBatch(@Nonnull final String name) {
+			this.timer = new TimerEMA(name);
+		}
+
+		public void run() {
+			final long start = System.nanoTime();
+			for (int i = 0; i < this.effects.size(); i++)
+				this.effects.get(i).update(this.subjects.get(i));
+			this.timer.update(System.nanoTime() - start);
+			this.lastCount = this.effects.size();
+			this.effects.clear();
+			this.subjects.clear();
+		}
+	}
+
+	private final ObjectArrayList<TrackedEntity> tracked = new ObjectArrayList<>();
+	private final Set<Entity> trackedSet = new ReferenceOpenHashSet<>();
+	private final ObjectArray<EffectBatch> batches = new ObjectArray<>();
+	private final Map<Class<?>, EffectBatch> batchLookup = new Reference2ObjectOpenHashMap<>();
+	private final BiConsumer<EntityEffect, Entity> batchSink = this::addToBatch;
+	private boolean batching;
+
 	public FxHandler() {
 		super("Special Effects");
 	}
 
 	@Override
 	public void process(@Nonnull final EntityPlayer player) {
+		if (ModOptions.effects.batchEntityEffects) {
+			if (!this.batching) {
+				this.batching = true;
+				seedTracked(player.getEntityWorld());
+			}
+			updateBatched(player);
+		} else if (this.batching) {
+			this.batching = false;
+			clearTracked();
+		}
+
 		this.compute.update(this.nanos);
 		this.nanos = 0;
+		EntityFootprintEffect.rollTierCounts();
+	}
+
+	/**
+	 * Batched mode: runs through the tracked entities creating, clearing and
+	 * updating handlers the same way onLivingUpdate() does, but collects the
+	 * effects by type and runs each type as a group. The time is charged to this
+	 * handler's own timer rather than the out of band one.
+	 */
+	protected void updateBatched(@Nonnull final EntityPlayer player) {
+		final World world = player.getEntityWorld();
+		final double distanceThreshold = ModOptions.effects.specialEffectRange
+				* ModOptions.effects.specialEffectRange;
+
+		for (int i = this.tracked.size() - 1; i >= 0; i--) {
+			final TrackedEntity t = this.tracked.get(i);
+			final Entity entity = t.entity;
+			final IEntityFX cap = CapabilityEntityFXData.getCapability(entity);
+			if (cap == null || entity.getEntityWorld() != world || t.isStale()) {
+				if (cap != null) {
+					// Effects that asked for it get one more run before the
+					// handler goes away
+					final EntityEffectHandler handler = cap.get();
+					if (handler != null)
+						handler.collectLastCall(this.batchSink);
+					cap.clear();
+				}
+				untrack(i);
+				continue;
+			}
+
+			final boolean inRange = entity.getDistanceSq(player) <= distanceThreshold;
+			final EntityEffectHandler handler = cap.get();
+			if (handler != null && !inRange) {
+				cap.clear();
+			} else if (handler == null && inRange && entity.isEntityAlive()) {
+				library.create(entity).ifPresent(cap::set);
+			} else if (handler != null) {
+				handler.collect(this.batchSink);
+			}
+		}
+
+		for (int i = 0; i < this.batches.size(); i++)
+			this.batches.get(i).run();
+	}
+
+	private void addToBatch(@Nonnull final EntityEffect effect, @Nonnull final Entity subject) {
+		EffectBatch batch = this.batchLookup.get(effect.getClass());
+		if (batch == null) {
+			batch = new EffectBatch(effect.name());
+			this.batchLookup.put(effect.getClass(), batch);
+			this.batches.add(batch);
+		}
+		batch.effects.add(effect);
+		batch.subjects.add(subject);
+	}
+
+	private void track(@Nonnull final Entity entity) {
+		if (entity instanceof EntityLivingBase && CapabilityEntityFXData.getCapability(entity) != null
+				&& this.trackedSet.add(entity))
+			this.tracked.add(new TrackedEntity(entity));
+	}
+
+	private void untrack(final int index) {
+		final int last = this.tracked.size() - 1;
+		this.trackedSet.remove(this.tracked.get(index).entity);
+		this.tracked.set(index, this.tracked.get(last));
+		this.tracked.remove(last);
+	}
+
+	private void seedTracked(@Nonnull final World world) {
+		clearTracked();
+		for (final Entity entity : world.getLoadedEntityList())
+			track(entity);
+	}
+
+	private void clearTracked() {
+		this.tracked.clear();
+		this.trackedSet.clear();
 	}
 
 	/**
@@ -138,6 +300,10 @@ public class FxHandler extends EffectHandlerBase {
 		if (entity == null || !entity.getEntityWorld().isRemote)
 			return;
 
+		// Handled by the batched pass
+		if (this.batching)
+			return;
+
 		final long start = System.nanoTime();
 		final IEntityFX cap = CapabilityEntityFXData.getCapability(entity);
 		if (cap != null) {
@@ -173,8 +339,15 @@ public class FxHandler extends EffectHandlerBase {
 	 */
 	@SubscribeEvent(priority = EventPriority.HIGHEST)
 	public void onEntityJoin(@Nonnull final EntityJoinWorldEvent event) {
-		if (event.getWorld().isRemote && event.getEntity() instanceof EntityPlayerSP)
+		if (!event.getWorld().isRemote)
+			return;
+		if (event.getEntity() instanceof EntityPlayerSP) {
 			clearHandlers();
+			if (this.batching)
+				seedTracked(event.getWorld());
+		}
+		if (this.batching)
+			track(event.getEntity());
 	}
 
 	/**
@@ -196,6 +369,8 @@ public class FxHandler extends EffectHandlerBase {
 	@Override
 	public void onDisconnect() {
 		this.eventLibrary.cleanup();
+		clearTracked();
+		this.batching = false;
 	}
 
 	@SubscribeEvent
@@ -208,6 +383,20 @@ public class FxHandler extends EffectHandlerBase {
 		final int count = EnvironState.getWorld().getEntitiesWithinAABBExcludingEntity(EnvironState.getPlayer(), box)
 				.size() + 1;
 		event.output.add("Effected Entities: " + count);
+		event.output.add(String.format("Mob Footsteps: %d full, %d reduced, %d edge",
+				EntityFootprintEffect.getTierCount(EntityFootprintEffect.TIER_FULL),
+				EntityFootprintEffect.getTierCount(EntityFootprintEffect.TIER_REDUCED),
+				EntityFootprintEffect.getTierCount(EntityFootprintEffect.TIER_EDGE)));
+		if (this.batching) {
+			event.output.add(String.format("Batched Entities: %d", this.tracked.size()));
+			for (int i = 0; i < this.batches.size(); i++) {
+				final EffectBatch batch = this.batches.get(i);
+				event.output.add(String.format("  %s (%d)", batch.timer.toString(), batch.lastCount));
+			}
+		}
+		event.output.add(String.format("Delayed Footsteps: %d pending, %d late, %d dropped",
+				PendingSoundQueue.INSTANCE.size(), PendingSoundQueue.INSTANCE.getLate(),
+				PendingSoundQueue.INSTANCE.getDropped()));
 	}
 
 }
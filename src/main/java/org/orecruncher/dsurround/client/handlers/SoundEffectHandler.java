@@ -24,23 +24,34 @@
 
 package org.orecruncher.dsurround.client.handlers;
 
+import java.util.Arrays;
+import java.util.function.Consumer;
+
 import javax.annotation.Nonnull;
 
 import org.orecruncher.dsurround.ModBase;
+import org.orecruncher.dsurround.ModOptions;
+import org.orecruncher.dsurround.ModOptions.Trace;
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.orecruncher.dsurround.client.sound.*;
 import org.orecruncher.dsurround.event.DiagnosticEvent;
+import org.orecruncher.dsurround.lib.TimingWheel;
 import org.orecruncher.dsurround.registry.RegistryDataEvent;
 import org.orecruncher.dsurround.registry.sound.SoundRegistry;
 import org.orecruncher.lib.ReflectedField.IntegerField;
-import org.orecruncher.lib.collections.ObjectArray;
 
 import it.unimi.dsi.fastutil.objects.Object2FloatOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.audio.ISound;
+import net.minecraft.client.audio.ITickableSound;
 import net.minecraft.client.multiplayer.WorldClient;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.EnumSkyBlock;
 import net.minecraftforge.event.entity.EntityJoinWorldEvent;
@@ -62,28 +73,20 @@ public class SoundEffectHandler extends EffectHandlerBase {
 	
 	public static final SoundEffectHandler INSTANCE = new SoundEffectHandler();
 
-	private final static class PendingSound {
-
-		private final int timeMark;
-		private final ISoundInstance sound;
-
-		public PendingSound(@Nonnull final ISoundInstance sound, final int delay) {
-			this.timeMark = EnvironState.getTickCounter() + delay;
-			this.sound = sound;
-		}
-
-		public int getTickAge() {
-			return EnvironState.getTickCounter() - this.timeMark;
-		}
-
-		@Nonnull
-		public ISoundInstance getSound() {
-			return this.sound;
-		}
-	}
+	// How long a finished ambient emitter is kept around for reuse
+	private static final int EMITTER_GRACE_TICKS = 600;
+	private static final int TICKS_PER_MINUTE = 1200;
 
 	private final Object2ObjectOpenHashMap<SoundEffect, Emitter> emitters = new Object2ObjectOpenHashMap<>();
-	private final ObjectArray<PendingSound> pending = new ObjectArray<>();
+	private final Object2ObjectOpenHashMap<SoundEffect, Emitter> parked = new Object2ObjectOpenHashMap<>();
+	private final Object2IntOpenHashMap<SoundEffect> parkedAt = new Object2IntOpenHashMap<>();
+	private int emitterAllocations;
+	private int emitterAllocationsPerMinute;
+	private int emittersRevived;
+	private final TimingWheel<ISoundInstance> pending = new TimingWheel<>(64);
+	private final Consumer<ISoundInstance> playPending = this::playSound0;
+	private final int[] culled = new int[SoundCategory.values().length];
+	private final SoundCoalescer coalescer = new SoundCoalescer();
 
 	private SoundEffectHandler() {
 		super("Sound Effects");
@@ -92,35 +95,59 @@ public class SoundEffectHandler extends EffectHandlerBase {
 	@Override
 	public void process(@Nonnull final EntityPlayer player) {
 		this.emitters.values().forEach(Emitter::update);
+		this.coalescer.flush(EnvironState.getTickCounter());
+		this.pending.advance(EnvironState.getTickCounter(), this.playPending);
 
-		//@formatter:off
-		this.pending.stream()
-			.filter(s -> s.getTickAge() >= 0)
-			.forEach(s -> INSTANCE.playSound(s.getSound()));
-		this.pending.removeIf(s -> s.getTickAge() >= 0);
-		//@formatter:on
+		final int tick = EnvironState.getTickCounter();
+		if (tick % TICKS_PER_MINUTE == 0) {
+			this.emitterAllocationsPerMinute = this.emitterAllocations;
+			this.emitterAllocations = 0;
+		}
+		if (tick % 20 == 0)
+			expireParked(tick);
 
 		doMoodProcessing();
 	}
 
+	private void expireParked(final int tick) {
+		final ObjectIterator<Object2IntMap.Entry<SoundEffect>> itr = this.parkedAt.object2IntEntrySet().fastIterator();
+		while (itr.hasNext()) {
+			final Object2IntMap.Entry<SoundEffect> entry = itr.next();
+			if (tick - entry.getIntValue() >= EMITTER_GRACE_TICKS) {
+				this.parked.remove(entry.getKey());
+				itr.remove();
+			}
+		}
+	}
+
 	@Override
 	public void onConnect() {
 		clearSounds();
+		if (ModBase.log().testTrace(Trace.SOUND_RECORD) && !SoundRecorder.isRecording())
+			SoundRecorder.start();
 	}
 
 	@Override
 	public void onDisconnect() {
 		clearSounds();
+		SoundEngine.instance().onDisconnect();
+		SoundRecorder.stop();
 	}
 
 	public void clearSounds() {
 		this.emitters.values().forEach(Emitter::stop);
 		this.emitters.clear();
+		this.parked.clear();
+		this.parkedAt.clear();
 		this.pending.clear();
+		this.coalescer.clear();
+		Arrays.fill(this.culled, 0);
 		SoundEngine.instance().stopAllSounds();
 	}
 
 	public void queueAmbientSounds(@Nonnull final Object2FloatOpenHashMap<SoundEffect> sounds) {
+		SoundRecorder.recordAmbient(sounds);
+
 		// Iterate through the existing emitters:
 		// * If done, remove
 		// * If not in the incoming list, fade
@@ -128,6 +155,9 @@ public class SoundEffectHandler extends EffectHandlerBase {
 		this.emitters.object2ObjectEntrySet().removeIf(entry -> {
 			final Emitter emitter = entry.getValue();
 			if (emitter.isDonePlaying()) {
+				// Keep it warm in case the sound comes back shortly
+				this.parked.put(entry.getKey(), emitter);
+				this.parkedAt.put(entry.getKey(), EnvironState.getTickCounter());
 				return true;
 			}
 			final float volume = sounds.getFloat(entry.getKey());
@@ -145,7 +175,15 @@ public class SoundEffectHandler extends EffectHandlerBase {
 		// Any sounds left in the list are new and need an emitter created.
 		//@formatter:off
 		sounds.forEach((fx, volume) -> {
-			final Emitter e = new EntityEmitter(EnvironState.getPlayer(), fx);
+			Emitter e = this.parked.remove(fx);
+			this.parkedAt.removeInt(fx);
+			if (e instanceof EntityEmitter && ((EntityEmitter) e).isAttachedTo(EnvironState.getPlayer())) {
+				e.revive();
+				this.emittersRevived++;
+			} else {
+				e = new EntityEmitter(EnvironState.getPlayer(), fx);
+				this.emitterAllocations++;
+			}
 			e.setVolumeThrottle(volume);
 			this.emitters.put(fx, e);
 		});
@@ -157,7 +195,33 @@ public class SoundEffectHandler extends EffectHandlerBase {
 	}
 
 	public boolean playSound(@Nonnull final ISoundInstance sound) {
-		return sound.canSoundBeHeard() && SoundEngine.instance().playSound(sound);
+		SoundRecorder.recordPlay(sound, 0);
+		return playSound0(sound);
+	}
+
+	private boolean playSound0(@Nonnull final ISoundInstance sound) {
+		if (!sound.canSoundBeHeard() || cullSound(sound))
+			return false;
+		// Sounds the coalescer takes are folded into one that is already playing
+		if (this.coalescer.offer(sound, EnvironState.getTickCounter()))
+			return false;
+		return SoundEngine.instance().playSound(sound);
+	}
+
+	/**
+	 * Determines if the sound would be too quiet at the listener to be worth a
+	 * sound channel.
+	 */
+	private boolean cullSound(@Nonnull final ISoundInstance sound) {
+		final float threshold = ModOptions.sound.audibilityThreshold;
+		if (threshold <= 0 || !SoundPriority.canCull(sound instanceof ITickableSound, sound.canRepeat(),
+				sound.getAttenuationType() != ISound.AttenuationType.NONE))
+			return false;
+		if (SoundPriority.getEstimatedGain(sound) >= threshold)
+			return false;
+		final SoundCategory category = sound.getCategory();
+		this.culled[category != null ? category.ordinal() : SoundCategory.MASTER.ordinal()]++;
+		return true;
 	}
 
 	public void playSoundAtPlayer(@Nonnull final EntityPlayer player, @Nonnull final SoundEffect sound) {
@@ -170,8 +234,9 @@ public class SoundEffectHandler extends EffectHandlerBase {
 		if (tickDelay == 0)
 			return playSound(s);
 
+		SoundRecorder.recordPlay(s, tickDelay);
 		s.setState(SoundState.DELAYED);
-		this.pending.add(new PendingSound(s, tickDelay));
+		this.pending.schedule(s, EnvironState.getTickCounter() + tickDelay);
 		return false;
 	}
 
@@ -234,9 +299,23 @@ public class SoundEffectHandler extends EffectHandlerBase {
 		if (EnvironState.getWorld() instanceof WorldClient) {
 			event.output.add(String.format("Ambiance Timer: %d", ambienceTicks.get(EnvironState.getWorld())));
 		}
+		event.output.add(String.format("Emitters: %d active, %d parked, %d allocated/min, %d revived",
+				this.emitters.size(), this.parked.size(), this.emitterAllocationsPerMinute, this.emittersRevived));
 		this.emitters.values().forEach(emitter -> event.output.add("EMITTER: " + emitter.toString()));
-		this.pending.forEach(effect -> event.output
-				.add((effect.getTickAge() < 0 ? "DELAYED: " : "PENDING: ") + effect.getSound().toString()));
+		final int tick = EnvironState.getTickCounter();
+		this.pending.forEach((sound, due) -> event.output
+				.add((due > tick ? "DELAYED: " : "PENDING: ") + sound.toString()));
+
+		final StringBuilder builder = new StringBuilder();
+		for (final SoundCategory category : SoundCategory.values()) {
+			final int count = this.culled[category.ordinal()];
+			if (count > 0)
+				builder.append(' ').append(category.getName()).append('=').append(count);
+		}
+		if (builder.length() > 0)
+			event.output.add("Inaudible Culled:" + builder.toString());
+		event.output.add(String.format("Coalesced: %d pending, %d merged", this.coalescer.getPendingCount(),
+				this.coalescer.getMergedCount()));
 	}
 
 }
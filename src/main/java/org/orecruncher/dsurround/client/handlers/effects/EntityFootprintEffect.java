@@ -23,6 +23,7 @@
  */
 package org.orecruncher.dsurround.client.handlers.effects;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -34,6 +35,7 @@ import org.orecruncher.dsurround.client.effects.IEntityEffectFactory;
 import org.orecruncher.dsurround.client.effects.IEntityEffectFactoryFilter;
 import org.orecruncher.dsurround.client.effects.IEntityEffectHandlerState;
 import org.orecruncher.dsurround.client.footsteps.Generator;
+import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.orecruncher.dsurround.registry.RegistryManager;
 import org.orecruncher.dsurround.registry.effect.EntityEffectInfo;
 import org.orecruncher.lib.random.XorShiftRandom;
@@ -51,7 +53,23 @@ public class EntityFootprintEffect extends EntityEffect {
 
 	protected static final Random RANDOM = XorShiftRandom.current();
 
+	// Level of detail tiers for mob footsteps, nearest the player first
+	public static final int TIER_FULL = 0;
+	public static final int TIER_REDUCED = 1;
+	public static final int TIER_EDGE = 2;
+
+	// Ticks between stride simulations in the reduced tier, and between
+	// representative steps in the edge tier
+	protected static final int REDUCED_INTERVAL = 2;
+	protected static final int EDGE_INTERVAL = 30;
+
+	private static final int[] tierCounts = new int[3];
+	private static final int[] lastTierCounts = new int[3];
+
 	protected Generator generator;
+	// Randomly seeded so entities in the same tier do not all step on the
+	// same tick
+	protected int ticks = RANDOM.nextInt(EDGE_INTERVAL);
 
 	@Nonnull
 	@Override
@@ -67,8 +85,54 @@ public class EntityFootprintEffect extends EntityEffect {
 
 	@Override
 	public void update(@Nonnull final Entity subject) {
-		if (this.generator != null)
-			this.generator.generateFootsteps((EntityLivingBase) subject);
+		if (this.generator == null)
+			return;
+
+		final EntityLivingBase entity = (EntityLivingBase) subject;
+		final int tier = getTier(entity);
+		tierCounts[tier]++;
+		this.ticks++;
+
+		switch (tier) {
+		case TIER_FULL:
+			this.generator.generateFootsteps(entity);
+			break;
+		case TIER_REDUCED:
+			if (this.ticks % REDUCED_INTERVAL == 0)
+				this.generator.generateReducedFootsteps(entity);
+			break;
+		default:
+			if (this.ticks % EDGE_INTERVAL == 0)
+				this.generator.generateRepresentativeStep(entity);
+			break;
+		}
+	}
+
+	protected static int getTier(@Nonnull final EntityLivingBase entity) {
+		final double distanceSq = entity.getDistanceSq(EnvironState.getPlayer());
+		final int full = ModOptions.sound.footstepFullRange;
+		if (distanceSq <= full * full)
+			return TIER_FULL;
+		final int reduced = ModOptions.sound.footstepReducedRange;
+		if (distanceSq <= reduced * reduced)
+			return TIER_REDUCED;
+		return TIER_EDGE;
+	}
+
+	/**
+	 * Called once per tick to capture the number of entities that were updated in
+	 * each tier.
+	 */
+	public static void rollTierCounts() {
+		System.arraycopy(tierCounts, 0, lastTierCounts, 0, tierCounts.length);
+		Arrays.fill(tierCounts, 0);
+	}
+
+	/**
+	 * Number of entities updated in the tier during the last tick.
+	 */
+	public static int getTierCount(final int tier) {
+		return lastTierCounts[tier];
 	}
 
 	@Override
@@ -114,7 +178,9 @@ public class EntityFootprintEffect extends EntityEffect {
 				this.generator = RegistryManager.FOOTSTEPS.createGenerator((EntityLivingBase) subject);
 				this.lastStyle = ModOptions.effects.footprintStyle;
 			}
-			super.update(subject);
+			// Players are always generated at full detail
+			if (this.generator != null)
+				this.generator.generateFootsteps((EntityLivingBase) subject);
 		}
 
 	}
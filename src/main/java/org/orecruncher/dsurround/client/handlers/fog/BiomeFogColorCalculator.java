@@ -27,9 +27,9 @@ import javax.annotation.Nonnull;
 
 import net.minecraft.potion.PotionEffect;
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
+import org.orecruncher.dsurround.client.handlers.scanners.ColumnCache;
 import org.orecruncher.dsurround.client.weather.Weather;
 import org.orecruncher.dsurround.registry.biome.BiomeInfo;
-import org.orecruncher.dsurround.registry.biome.BiomeUtil;
 import org.orecruncher.lib.Color;
 import org.orecruncher.lib.chunk.ClientChunkCache;
 import org.orecruncher.lib.chunk.IBlockAccessEx;
@@ -93,7 +93,7 @@ public class BiomeFogColorCalculator extends VanillaFogColorCalculator {
 					// If the chunk is not available doScan will be set true. This will force
 					// another scan on the next tick.
 					this.doScan = this.doScan | !provider.isAvailable(pos);
-					final BiomeInfo biome = BiomeUtil.getBiomeData(provider.getBiome(pos));
+					final BiomeInfo biome = ColumnCache.getBiomeInfo(pos.getX(), pos.getZ());
 					final Color color;
 
 					// Fetch the color we are dealing with.
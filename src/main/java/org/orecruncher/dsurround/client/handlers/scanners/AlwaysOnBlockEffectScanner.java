@@ -61,6 +61,11 @@ public class AlwaysOnBlockEffectScanner extends CuboidScanner {
 		return BlockStateUtil.getStateData(state).hasAlwaysOnEffects();
 	}
 
+	@Override
+	protected boolean interestingStateId(final int stateId) {
+		return BlockStateUtil.hasAlwaysOnEffects(stateId);
+	}
+
 	@Override
 	public void blockScan(@Nonnull final IBlockState state, @Nonnull final BlockPos pos, @Nonnull final Random rand) {
 		final IBlockAccessEx provider = this.locus.getWorld();
@@ -25,76 +25,240 @@ package org.orecruncher.dsurround.client.handlers.scanners;
 
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.orecruncher.dsurround.registry.biome.BiomeInfo;
-import org.orecruncher.dsurround.registry.biome.BiomeUtil;
-import org.orecruncher.lib.chunk.ClientChunkCache;
-import org.orecruncher.lib.chunk.IBlockAccessEx;
 
+import it.unimi.dsi.fastutil.objects.Reference2FloatMap;
+import it.unimi.dsi.fastutil.objects.Reference2FloatMaps;
 import it.unimi.dsi.fastutil.objects.Reference2FloatOpenHashMap;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.biome.Biome;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 /**
  * Performs an area scan around the to calculate the relative weights of the
  * biomes in the local area.
+ *
+ * The survey is maintained as a sliding window. When the player moves along
+ * X/Z only the columns that enter and leave the window are queried, and a
+ * change in Y has no effect. Biome lookups are served by the shared
+ * {@link ColumnCache}.
  */
 @SideOnly(Side.CLIENT)
 public final class BiomeScanner implements ITickable {
 
+	/**
+	 * Where the scanner gets the biome of a column. The client reads the shared
+	 * {@link ColumnCache}; the benchmarks plug in a synthetic world.
+	 */
+	interface ColumnSource {
+		boolean isColumnLoaded(final int x, final int z);
+
+		BiomeInfo getBiomeInfo(final int x, final int z);
+	}
+
+	private static final ColumnSource CLIENT = new ColumnSource() {
+		@Override
+		public boolean isColumnLoaded(final int x, final int z) {
+			return ColumnCache.isColumnLoaded(x, z);
+		}
+
+		@Override
+		public BiomeInfo getBiomeInfo(final int x, final int z) {
+			return ColumnCache.getBiomeInfo(x, z);
+		}
+	};
+
 	private static final int BIOME_SURVEY_RANGE = 20;
 	private static final int MAX_BIOME_AREA = (int) Math.pow(BIOME_SURVEY_RANGE * 2 + 1, 2);
 
-	private final BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
-
 	private int biomeArea;
-	private Reference2FloatOpenHashMap<BiomeInfo> weights = new Reference2FloatOpenHashMap<>();
+	private final Reference2FloatOpenHashMap<BiomeInfo> weights = new Reference2FloatOpenHashMap<>();
+
+	// Flattened copy of the weights so callers can walk them with an index
+	// rather than an iterator. Rebuilt only when the weights change.
+	private BiomeInfo[] biomeList = new BiomeInfo[0];
+	private float[] weightList = new float[0];
+	private int biomeCount;
+	private boolean listDirty;
 
 	// "Finger print" of the last area survey.
-	private BiomeInfo surveyedBiome = null;
+	private boolean surveyValid = false;
+	private boolean surveyComplete = false;
 	private int surveyedDimension = 0;
-	private BlockPos surveyedPosition = BlockPos.ORIGIN;
+	private int surveyedX = 0;
+	private int surveyedZ = 0;
+
+	// Statistics for the diagnostic display
+	private int columnsVisited;
+
+	private final ColumnSource source;
+
+	public BiomeScanner() {
+		this(CLIENT);
+	}
+
+	BiomeScanner(final ColumnSource source) {
+		this.source = source;
+	}
 
 	@Override
 	public void update() {
+		final BiomeInfo playerBiome = EnvironState.getPlayerBiome();
+		if (playerBiome.isFake()) {
+			this.columnsVisited = 0;
+			if (this.surveyValid || this.weights.size() != 1 || !this.weights.containsKey(playerBiome)) {
+				this.surveyValid = false;
+				this.weights.clear();
+				this.weights.put(playerBiome, 1);
+				this.biomeArea = 1;
+				rebuildList();
+			}
+			return;
+		}
+
 		final BlockPos position = EnvironState.getPlayerPosition();
+		scan(EnvironState.getDimensionId(), position.getX(), position.getZ());
+	}
 
-		if (this.surveyedBiome != EnvironState.getPlayerBiome()
-				|| this.surveyedDimension != EnvironState.getDimensionId()
-				|| this.surveyedPosition.compareTo(position) != 0) {
+	/**
+	 * Brings the survey up to date for a player standing in the column x/z.
+	 */
+	void scan(final int dimension, final int x, final int z) {
+		this.columnsVisited = 0;
 
-			this.surveyedBiome = EnvironState.getPlayerBiome();
-			this.surveyedDimension = EnvironState.getDimensionId();
-			this.surveyedPosition = position;
+		if (!this.surveyValid || !this.surveyComplete || this.surveyedDimension != dimension) {
+			survey(dimension, x, z);
+		} else if (x != this.surveyedX || z != this.surveyedZ) {
+			final int dX = x - this.surveyedX;
+			final int dZ = z - this.surveyedZ;
+			if (Math.abs(dX) > BIOME_SURVEY_RANGE || Math.abs(dZ) > BIOME_SURVEY_RANGE)
+				survey(dimension, x, z);
+			else
+				slide(x, z);
+		}
 
-			this.biomeArea = 0;
-			this.weights = new Reference2FloatOpenHashMap<>();
+		if (this.listDirty)
+			rebuildList();
+	}
 
-			if (EnvironState.getPlayerBiome().isFake()) {
-				this.biomeArea = 1;
-				this.weights.put(EnvironState.getPlayerBiome(), 1);
-			} else {
-				final IBlockAccessEx provider = ClientChunkCache.instance();
-				for (int dX = -BIOME_SURVEY_RANGE; dX <= BIOME_SURVEY_RANGE; dX++)
-					for (int dZ = -BIOME_SURVEY_RANGE; dZ <= BIOME_SURVEY_RANGE; dZ++) {
-						this.mutable.setPos(this.surveyedPosition.getX() + dX, 0, this.surveyedPosition.getZ() + dZ);
-						final Biome biome = provider.getBiome(this.mutable);
-						final BiomeInfo info = BiomeUtil.getBiomeData(biome);
-						this.weights.addTo(info, 1F);
-					}
-
-				this.biomeArea = MAX_BIOME_AREA;
-			}
+	/**
+	 * Forces a full survey on the next scan.
+	 */
+	void invalidate() {
+		this.surveyValid = false;
+	}
+
+	/**
+	 * Full survey of the area around the point.
+	 */
+	private void survey(final int dimension, final int x, final int z) {
+		this.surveyValid = true;
+		this.surveyComplete = true;
+		this.surveyedDimension = dimension;
+		this.surveyedX = x;
+		this.surveyedZ = z;
+
+		this.weights.clear();
+
+		for (int dX = -BIOME_SURVEY_RANGE; dX <= BIOME_SURVEY_RANGE; dX++)
+			for (int dZ = -BIOME_SURVEY_RANGE; dZ <= BIOME_SURVEY_RANGE; dZ++)
+				this.weights.addTo(getBiome(x + dX, z + dZ), 1F);
+
+		this.biomeArea = MAX_BIOME_AREA;
+		this.listDirty = true;
+	}
+
+	/**
+	 * Moves the window to the new center. The columns that are in the old window
+	 * but not the new are removed from the weights, and the columns in the new
+	 * window that were not in the old are added.
+	 */
+	private void slide(final int x, final int z) {
+		final int oldX = this.surveyedX;
+		final int oldZ = this.surveyedZ;
+		this.surveyedX = x;
+		this.surveyedZ = z;
+		this.listDirty = true;
+
+		// Leaving columns
+		for (int cX = oldX - BIOME_SURVEY_RANGE; cX <= oldX + BIOME_SURVEY_RANGE; cX++) {
+			final boolean xInside = Math.abs(cX - x) <= BIOME_SURVEY_RANGE;
+			for (int cZ = oldZ - BIOME_SURVEY_RANGE; cZ <= oldZ + BIOME_SURVEY_RANGE; cZ++)
+				if (!xInside || Math.abs(cZ - z) > BIOME_SURVEY_RANGE)
+					remove(getBiome(cX, cZ));
+		}
+
+		// Entering columns
+		for (int cX = x - BIOME_SURVEY_RANGE; cX <= x + BIOME_SURVEY_RANGE; cX++) {
+			final boolean xInside = Math.abs(cX - oldX) <= BIOME_SURVEY_RANGE;
+			for (int cZ = z - BIOME_SURVEY_RANGE; cZ <= z + BIOME_SURVEY_RANGE; cZ++)
+				if (!xInside || Math.abs(cZ - oldZ) > BIOME_SURVEY_RANGE)
+					this.weights.addTo(getBiome(cX, cZ), 1F);
 		}
+
+	}
+
+	private void remove(final BiomeInfo info) {
+		// Biomes that drop out of the window have to be removed rather than left
+		// with a zero weight since the sound handler treats any entry as present.
+		if (this.weights.addTo(info, -1F) <= 1F)
+			this.weights.removeFloat(info);
+	}
+
+	private BiomeInfo getBiome(final int x, final int z) {
+		this.columnsVisited++;
+		// Columns in chunks that have yet to arrive from the server report a
+		// default biome. Resurvey until they show up.
+		if (!this.source.isColumnLoaded(x, z))
+			this.surveyComplete = false;
+		return this.source.getBiomeInfo(x, z);
+	}
+
+	private void rebuildList() {
+		this.listDirty = false;
+		final int count = this.weights.size();
+		if (this.biomeList.length < count) {
+			this.biomeList = new BiomeInfo[count];
+			this.weightList = new float[count];
+		}
+		int idx = 0;
+		for (final Reference2FloatMap.Entry<BiomeInfo> e : Reference2FloatMaps.fastIterable(this.weights)) {
+			this.biomeList[idx] = e.getKey();
+			this.weightList[idx] = e.getFloatValue();
+			idx++;
+		}
+		for (int i = count; i < this.biomeCount; i++)
+			this.biomeList[i] = null;
+		this.biomeCount = count;
 	}
 
 	public int getBiomeArea() {
 		return this.biomeArea;
 	}
 
-	public Reference2FloatOpenHashMap<BiomeInfo> getBiomes() {
-		return this.weights;
+	/**
+	 * Number of distinct biomes in the survey area.
+	 */
+	public int getBiomeCount() {
+		return this.biomeCount;
+	}
+
+	public BiomeInfo getBiome(final int idx) {
+		return this.biomeList[idx];
+	}
+
+	/**
+	 * Number of columns in the survey area that are of the biome at idx.
+	 */
+	public float getWeight(final int idx) {
+		return this.weightList[idx];
+	}
+
+	/**
+	 * Number of biome columns that were visited during the last update.
+	 */
+	public int getColumnsVisited() {
+		return this.columnsVisited;
 	}
 
 }
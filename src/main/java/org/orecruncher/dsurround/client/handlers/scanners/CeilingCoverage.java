@@ -30,20 +30,34 @@ import java.util.List;
 import javax.annotation.Nonnull;
 
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
+import org.orecruncher.dsurround.event.BlockRangeUpdateEvent;
+import org.orecruncher.dsurround.event.BlockUpdateEvent;
 import org.orecruncher.lib.chunk.ClientChunkCache;
 import org.orecruncher.lib.math.MathStuff;
 
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Vec3i;
 import net.minecraft.world.World;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 /**
  * Performs area scanning around the player to determine area ceiling coverage.
  * Used to determine if the player is "inside" or "outside".
+ *
+ * For each column the highest cover block below the precipitation height is
+ * remembered, along with how far down the column has been examined. A column
+ * is only scanned again if it receives a block update (or range refresh) or the player drops
+ * below the part that has been examined. Needs to be registered on the event
+ * bus to receive block updates.
  */
 @SideOnly(Side.CLIENT)
 public final class CeilingCoverage implements ITickable {
@@ -54,6 +68,9 @@ public final class CeilingCoverage implements ITickable {
 	private static final Cell[] cells;
 	private static final float TOTAL_POINTS;
 
+	private static final long UNKNOWN = Long.MIN_VALUE;
+	private static final int NO_COVER = Integer.MIN_VALUE;
+
 	static {
 
 		final List<Cell> cellList = new ArrayList<>();
@@ -72,8 +89,21 @@ public final class CeilingCoverage implements ITickable {
 		TOTAL_POINTS = totalPoints;
 	}
 
+	private final BlockPos.MutableBlockPos working = new BlockPos.MutableBlockPos();
+
+	// Per column cover height (high 32 bits) and lowest Y examined (low 32 bits)
+	private final Long2LongOpenHashMap columns = new Long2LongOpenHashMap();
+
+	private World world;
+	private int lastX;
+	private int lastZ;
+
 	private boolean reallyInside = false;
 
+	public CeilingCoverage() {
+		this.columns.defaultReturnValue(UNKNOWN);
+	}
+
 	@Override
 	public void update() {
 		if (EnvironState.getTickCounter() % SURVEY_INTERVAL == 0) {
@@ -81,9 +111,27 @@ public final class CeilingCoverage implements ITickable {
 			if (EnvironState.getDimensionId() == -1 || EnvironState.getDimensionInfo().alwaysOutside()) {
 				this.reallyInside = false;
 			} else {
+				final World w = EnvironState.getWorld();
+				if (w != this.world) {
+					this.world = w;
+					this.columns.clear();
+				}
+
 				final BlockPos pos = EnvironState.getPlayerPosition();
+				final int playerX = pos.getX();
+				final int playerZ = pos.getZ();
+				final int playerHeight = Math.max(pos.getY() + 1, 0);
+
+				if (playerX != this.lastX || playerZ != this.lastZ) {
+					this.lastX = playerX;
+					this.lastZ = playerZ;
+					evict();
+				}
+
 				float score = 0.0F;
-				for (Cell cell : cells) score += cell.score(pos);
+				for (final Cell cell : cells)
+					if (!isCovered(playerX + cell.offset.getX(), playerZ + cell.offset.getZ(), playerHeight))
+						score += cell.potentialPoints();
 				ceilingCoverageRatio = 1.0F - (score / TOTAL_POINTS);
 				this.reallyInside = ceilingCoverageRatio > INSIDE_THRESHOLD;
 			}
@@ -94,11 +142,104 @@ public final class CeilingCoverage implements ITickable {
 		return this.reallyInside;
 	}
 
+	private static long columnKey(final int x, final int z) {
+		return ChunkPos.asLong(x, z);
+	}
+
+	/**
+	 * Determines if there is a cover block between the player's head and the
+	 * precipitation height of the column.
+	 */
+	private boolean isCovered(final int x, final int z, final int playerHeight) {
+		final long key = columnKey(x, z);
+		final long entry = this.columns.get(key);
+
+		int cover;
+		int scannedTo;
+		if (entry == UNKNOWN) {
+			cover = NO_COVER;
+			scannedTo = ColumnCache.getPrecipitationHeight(x, z) + 1;
+		} else {
+			cover = (int) (entry >> 32);
+			scannedTo = (int) entry;
+		}
+
+		if (cover == NO_COVER && scannedTo > playerHeight + 1) {
+			// Scan down looking for blocks that are considered "cover"
+			int y = scannedTo - 1;
+			for (; y > playerHeight; y--) {
+				if (isCover(this.working.setPos(x, y, z))) {
+					cover = y;
+					break;
+				}
+			}
+			scannedTo = cover == NO_COVER ? playerHeight + 1 : cover;
+
+			// Columns in chunks that have yet to arrive read as air
+			if (ColumnCache.isColumnLoaded(x, z))
+				this.columns.put(key, ((long) cover << 32) | (scannedTo & 0xFFFFFFFFL));
+		}
+
+		return cover != NO_COVER && cover > playerHeight;
+	}
+
+	private boolean isCover(@Nonnull final BlockPos pos) {
+		final IBlockState state = ClientChunkCache.instance().getBlockState(pos);
+		//@formatter:off
+		return state.getMaterial().blocksMovement()
+			&& !state.getBlock().isLeaves(state, this.world, pos)
+			&& !state.getBlock().isFoliage(this.world, pos);
+		//@formatter:on
+	}
+
+	private void evict() {
+		final ObjectIterator<Long2LongMap.Entry> itr = this.columns.long2LongEntrySet().fastIterator();
+		while (itr.hasNext()) {
+			final long key = itr.next().getLongKey();
+			final int x = (int) key;
+			final int z = (int) (key >> 32);
+			if (Math.abs(x - this.lastX) > INSIDE_SURVEY_RANGE || Math.abs(z - this.lastZ) > INSIDE_SURVEY_RANGE)
+				itr.remove();
+		}
+	}
+
+	@SubscribeEvent
+	public void onBlockUpdate(@Nonnull final BlockUpdateEvent event) {
+		this.columns.remove(columnKey(event.pos.getX(), event.pos.getZ()));
+	}
+
+	@SubscribeEvent
+	public void onBlockRangeUpdate(@Nonnull final BlockRangeUpdateEvent event) {
+		if (event.world != this.world)
+			return;
+		final ObjectIterator<Long2LongMap.Entry> itr = this.columns.long2LongEntrySet().fastIterator();
+		while (itr.hasNext()) {
+			final long key = itr.next().getLongKey();
+			final int x = (int) key;
+			final int z = (int) (key >> 32);
+			if (x >= event.minX && x <= event.maxX && z >= event.minZ && z <= event.maxZ)
+				itr.remove();
+		}
+	}
+
+	@SubscribeEvent
+	public void onChunkLoad(@Nonnull final ChunkEvent.Load event) {
+		if (event.getWorld() != this.world)
+			return;
+		final int cX = event.getChunk().x;
+		final int cZ = event.getChunk().z;
+		final ObjectIterator<Long2LongMap.Entry> itr = this.columns.long2LongEntrySet().fastIterator();
+		while (itr.hasNext()) {
+			final long key = itr.next().getLongKey();
+			if (((int) key) >> 4 == cX && ((int) (key >> 32)) >> 4 == cZ)
+				itr.remove();
+		}
+	}
+
 	private static final class Cell implements Comparable<Cell> {
 
 		private final Vec3i offset;
 		private final float points;
-		private final BlockPos.MutableBlockPos working;
 
 		public Cell(@Nonnull final Vec3i offset, final int range) {
 			this.offset = offset;
@@ -106,49 +247,12 @@ public final class CeilingCoverage implements ITickable {
 			final float zV = range - MathStuff.abs(offset.getZ()) + 1;
 			final float candidate = Math.min(xV, zV);
 			this.points = candidate * candidate;
-			this.working = new BlockPos.MutableBlockPos();
 		}
 
 		public float potentialPoints() {
 			return this.points;
 		}
 
-		public float score(@Nonnull final BlockPos playerPos) {
-			//@formatter:off
-			this.working.setPos(
-					playerPos.getX() + this.offset.getX(),
-					playerPos.getY() + this.offset.getY(),
-					playerPos.getZ() + this.offset.getZ()
-				);
-			//@formatter:on
-
-			final World world = EnvironState.getWorld();
-			final int playerHeight = Math.max(playerPos.getY() + 1, 0);
-
-			// Get the precipitation height
-			this.working.setPos(ClientChunkCache.instance().getPrecipitationHeight(this.working));
-
-			// Scan down looking for blocks that are considered "cover"
-			while (this.working.getY() > playerHeight) {
-
-				final IBlockState state = ClientChunkCache.instance().getBlockState(this.working);
-
-				//@formatter:off
-	            if (state.getMaterial().blocksMovement()
-	            	&& !state.getBlock().isLeaves(state, world, this.working)
-	            	&& !state.getBlock().isFoliage(world, this.working)) {
-	            	// Cover block - no points for you!
-	                return 0;
-	            }
-	            //@formatter:on
-
-				this.working.setY(this.working.getY() - 1);
-			}
-
-			// Scanned down to the players head and found nothing. So give the points.
-			return this.points;
-		}
-
 		@Override
 		public int compareTo(@Nonnull final Cell cell) {
 			// Want big scores first in the list
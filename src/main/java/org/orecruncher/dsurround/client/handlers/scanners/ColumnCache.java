@@ -0,0 +1,274 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.client.handlers.scanners;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+
+import org.orecruncher.dsurround.ModInfo;
+import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
+import org.orecruncher.dsurround.event.BlockRangeUpdateEvent;
+import org.orecruncher.dsurround.event.BlockUpdateEvent;
+import org.orecruncher.dsurround.event.DiagnosticEvent;
+import org.orecruncher.dsurround.registry.RegistryDataEvent;
+import org.orecruncher.dsurround.registry.biome.BiomeInfo;
+import org.orecruncher.dsurround.registry.biome.BiomeRegistry;
+import org.orecruncher.dsurround.registry.biome.BiomeUtil;
+import org.orecruncher.lib.chunk.ClientChunkCache;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Client side cache of per column information for the area around the player.
+ * Several subsystems query the biome and precipitation height of the same X/Z
+ * columns each tick or frame, so the results are remembered per chunk until
+ * a block changes within the column, the server refreshes part of the chunk,
+ * or the chunk is reloaded. Columns in chunks that have not arrived from the
+ * server are never cached.
+ *
+ * The cache is meant for the client thread; it holds no shared scratch state
+ * so reentrant calls are safe.
+ */
+@SideOnly(Side.CLIENT)
+@EventBusSubscriber(modid = ModInfo.MOD_ID, value = Side.CLIENT)
+public final class ColumnCache {
+
+	private static final int UNKNOWN = Integer.MIN_VALUE;
+
+	private static final Long2ObjectOpenHashMap<Columns> chunks = new Long2ObjectOpenHashMap<>();
+
+	private static World cachedWorld;
+
+	// Statistics for the diagnostic display. The counts of the tick in progress
+	// are rolled over into the last tick's at the start of each client tick.
+	private static int hits;
+	private static int misses;
+	private static int lastHits;
+	private static int lastMisses;
+
+	private ColumnCache() {
+
+	}
+
+	@Nonnull
+	public static BiomeInfo getBiomeInfo(final int x, final int z) {
+		final Columns columns = getColumns(x, z);
+		if (columns != null) {
+			final int idx = index(x, z);
+			BiomeInfo info = columns.biomes[idx];
+			if (info == null) {
+				misses++;
+				info = columns.biomes[idx] = queryBiome(x, z);
+			} else {
+				hits++;
+			}
+			return info;
+		}
+		misses++;
+		return queryBiome(x, z);
+	}
+
+	public static int getPrecipitationHeight(final int x, final int z) {
+		final Columns columns = getColumns(x, z);
+		if (columns != null) {
+			final int idx = index(x, z);
+			int y = columns.precipHeight[idx];
+			if (y == UNKNOWN) {
+				misses++;
+				y = columns.precipHeight[idx] = queryPrecipitationHeight(x, z);
+			} else {
+				hits++;
+			}
+			return y;
+		}
+		misses++;
+		return queryPrecipitationHeight(x, z);
+	}
+
+	public static int getTopSolidHeight(final int x, final int z) {
+		final Columns columns = getColumns(x, z);
+		if (columns != null) {
+			final int idx = index(x, z);
+			int y = columns.topSolid[idx];
+			if (y == UNKNOWN) {
+				misses++;
+				y = columns.topSolid[idx] = queryTopSolidHeight(x, z);
+			} else {
+				hits++;
+			}
+			return y;
+		}
+		misses++;
+		return queryTopSolidHeight(x, z);
+	}
+
+	/**
+	 * Indicates whether the chunk containing the column has been received from
+	 * the server. Information for columns in chunks that are not loaded is
+	 * provisional.
+	 */
+	public static boolean isColumnLoaded(final int x, final int z) {
+		final World world = EnvironState.getWorld();
+		if (world == null)
+			return false;
+		// Same test as World.isBlockLoaded(pos, false) without needing a BlockPos
+		final Chunk chunk = world.getChunkProvider().getLoadedChunk(x >> 4, z >> 4);
+		return chunk != null && !chunk.isEmpty();
+	}
+
+	private static int index(final int x, final int z) {
+		return ((z & 15) << 4) | (x & 15);
+	}
+
+	private static Columns getColumns(final int x, final int z) {
+		final World world = EnvironState.getWorld();
+		if (world != cachedWorld) {
+			chunks.clear();
+			cachedWorld = world;
+		}
+
+		final long key = ChunkPos.asLong(x >> 4, z >> 4);
+		Columns columns = chunks.get(key);
+		if (columns == null && isColumnLoaded(x, z)) {
+			columns = new Columns();
+			chunks.put(key, columns);
+		}
+		return columns;
+	}
+
+	@Nonnull
+	private static BiomeInfo queryBiome(final int x, final int z) {
+		return BiomeUtil.getBiomeData(ClientChunkCache.instance().getBiome(new BlockPos(x, 0, z)));
+	}
+
+	private static int queryPrecipitationHeight(final int x, final int z) {
+		return ClientChunkCache.instance().getPrecipitationHeight(new BlockPos(x, 0, z)).getY();
+	}
+
+	private static int queryTopSolidHeight(final int x, final int z) {
+		final World world = EnvironState.getWorld();
+		return world == null ? 0 : world.getTopSolidOrLiquidBlock(new BlockPos(x, 0, z)).getY();
+	}
+
+	private static void invalidate(final int chunkX, final int chunkZ) {
+		chunks.remove(ChunkPos.asLong(chunkX, chunkZ));
+	}
+
+	@SubscribeEvent
+	public static void onBlockUpdate(@Nonnull final BlockUpdateEvent event) {
+		if (event.world != cachedWorld)
+			return;
+		final BlockPos pos = event.pos;
+		final Columns columns = chunks.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+		if (columns != null) {
+			final int idx = index(pos.getX(), pos.getZ());
+			columns.precipHeight[idx] = UNKNOWN;
+			columns.topSolid[idx] = UNKNOWN;
+		}
+	}
+
+	@SubscribeEvent
+	public static void onBlockRangeUpdate(@Nonnull final BlockRangeUpdateEvent event) {
+		if (event.world != cachedWorld)
+			return;
+		for (int x = event.minX; x <= event.maxX; x++)
+			for (int z = event.minZ; z <= event.maxZ; z++) {
+				final Columns columns = chunks.get(ChunkPos.asLong(x >> 4, z >> 4));
+				if (columns != null) {
+					final int idx = index(x, z);
+					columns.precipHeight[idx] = UNKNOWN;
+					columns.topSolid[idx] = UNKNOWN;
+				}
+			}
+	}
+
+	@SubscribeEvent
+	public static void onChunkLoad(@Nonnull final ChunkEvent.Load event) {
+		if (event.getWorld().isRemote)
+			invalidate(event.getChunk().x, event.getChunk().z);
+	}
+
+	@SubscribeEvent
+	public static void onChunkUnload(@Nonnull final ChunkEvent.Unload event) {
+		if (event.getWorld().isRemote)
+			invalidate(event.getChunk().x, event.getChunk().z);
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnload(@Nonnull final WorldEvent.Unload event) {
+		if (event.getWorld().isRemote) {
+			chunks.clear();
+			cachedWorld = null;
+		}
+	}
+
+	@SubscribeEvent
+	public static void registryReload(@Nonnull final RegistryDataEvent.Reload event) {
+		if (event.reg instanceof BiomeRegistry)
+			chunks.clear();
+	}
+
+	@SubscribeEvent
+	public static void clientTick(@Nonnull final TickEvent.ClientTickEvent event) {
+		if (event.phase == Phase.START) {
+			lastHits = hits;
+			lastMisses = misses;
+			hits = 0;
+			misses = 0;
+		}
+	}
+
+	@SubscribeEvent
+	public static void diagnostic(@Nonnull final DiagnosticEvent.Gather event) {
+		event.output.add(String.format("Column Cache: %d chunks, %d hits, %d misses", chunks.size(), lastHits,
+				lastMisses));
+	}
+
+	private static final class Columns {
+
+		public final BiomeInfo[] biomes = new BiomeInfo[256];
+		public final int[] precipHeight = new int[256];
+		public final int[] topSolid = new int[256];
+
+		public Columns() {
+			Arrays.fill(this.precipHeight, UNKNOWN);
+			Arrays.fill(this.topSolid, UNKNOWN);
+		}
+	}
+
+}
@@ -70,6 +70,11 @@ public class RandomBlockEffectScanner extends RandomScanner {
 		return BlockStateUtil.getStateData(state).hasSoundsOrEffects();
 	}
 
+	@Override
+	protected boolean interestingStateId(final int stateId) {
+		return BlockStateUtil.hasSoundsOrEffects(stateId);
+	}
+
 	@Override
 	public void blockScan(@Nonnull final IBlockState state, @Nonnull final BlockPos pos, @Nonnull final Random rand) {
 		final IBlockAccessEx provider = this.locus.getWorld();
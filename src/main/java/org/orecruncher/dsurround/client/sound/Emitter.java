@@ -88,6 +88,26 @@ public abstract class Emitter {
 
 	protected abstract SoundInstance createSound();
 
+	/**
+	 * Gets a finished sound ready to be played again when the emitter is revived.
+	 *
+	 * @param sound The sound that was last played by the emitter
+	 * @return true if the sound can be used again, false if a new one is needed
+	 */
+	protected boolean recycleSound(@Nonnull final SoundInstance sound) {
+		return false;
+	}
+
+	/**
+	 * Brings an emitter that has finished playing back into service.
+	 */
+	public void revive() {
+		this.done = false;
+		this.errorDelayTicks = 0;
+		if (this.activeSound != null && !recycleSound(this.activeSound))
+			this.activeSound = null;
+	}
+
 	public void update() {
 		if (this.titleEmitter != null)
 			this.titleEmitter.update();
@@ -24,7 +24,9 @@
 package org.orecruncher.dsurround.client.sound;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
@@ -45,4 +47,17 @@ public class EntityEmitter extends Emitter {
 		return this.effect.createTrackingSound(this.entity, true);
 	}
 
+	@Override
+	protected boolean recycleSound(@Nonnull final SoundInstance sound) {
+		if (sound instanceof TrackingSoundInstance && sound.getState().isTerminal() && this.entity.isEntityAlive()) {
+			((TrackingSoundInstance) sound).reset(true);
+			return true;
+		}
+		return false;
+	}
+
+	public boolean isAttachedTo(@Nullable final Entity entity) {
+		return this.entity == entity;
+	}
+
 }
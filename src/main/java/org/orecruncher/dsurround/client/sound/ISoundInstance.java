@@ -44,4 +44,13 @@ public interface ISoundInstance extends ISound {
 		return true;
 	}
 
+	/**
+	 * Volume the sound is working towards. Differs from getVolume() while the
+	 * sound is fading in, and is what decisions about the sound's importance
+	 * should be based on.
+	 */
+	default float getTargetVolume() {
+		return getVolume();
+	}
+
 }
@@ -0,0 +1,253 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.client.sound;
+
+import javax.annotation.Nonnull;
+
+import it.unimi.dsi.fastutil.objects.ObjectHeapPriorityQueue;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Decides which sounds get a sound channel when the channels run short: the
+ * channel pools, voice stealing, and the priority ordered wait queues. The
+ * SoundEngine runs it against the SoundManager and the SoundReplay tool runs
+ * the same code against its model of the channels.
+ *
+ * @param <T> Type of sound being handled
+ */
+@SideOnly(Side.CLIENT)
+final class SoundAdmission<T> {
+
+	/**
+	 * The channels the sounds are played on.
+	 */
+	interface IChannels<T> {
+
+		boolean isStreaming(@Nonnull T sound);
+
+		/**
+		 * Number of channels in use in a pool. May run high between recounts.
+		 */
+		int getInUse(boolean streaming);
+
+		/**
+		 * Number of channels in a pool that can be handed out.
+		 */
+		int getLimit(boolean streaming);
+
+		/**
+		 * Recounts the channels in use if the counts could be stale.
+		 *
+		 * @return true if a recount was done
+		 */
+		boolean recount();
+
+		/**
+		 * The sounds that are playing or waiting for a channel.
+		 */
+		@Nonnull
+		Iterable<T> getActive();
+
+		boolean isPlaying(@Nonnull T sound);
+
+		boolean isWaiting(@Nonnull T sound);
+
+		float getPriority(@Nonnull T sound);
+
+		/**
+		 * Starts the sound on a free channel.
+		 */
+		void start(@Nonnull T sound);
+
+		/**
+		 * Stops a playing sound so its channel can be used by another.
+		 */
+		void stop(@Nonnull T sound);
+	}
+
+	public enum Result {
+		PLAY, WAIT, DROP
+	}
+
+	// A playing sound is only stopped for one that is at least this many times
+	// more important. Keeps two similar sounds from taking turns.
+	static final float STEAL_RATIO = 2.0F;
+
+	private final IChannels<T> channels;
+
+	// Sounds waiting for a channel, highest priority first. Kept per channel
+	// pool so a full stream pool does not hold up normal sounds.
+	private final ObjectHeapPriorityQueue<Waiting<T>> waitingNormal = new ObjectHeapPriorityQueue<>();
+	private final ObjectHeapPriorityQueue<Waiting<T>> waitingStreaming = new ObjectHeapPriorityQueue<>();
+	private long waitingSequence = 0;
+
+	private boolean voiceStealing = true;
+	private int dropped = 0;
+	private int stolen = 0;
+
+	SoundAdmission(@Nonnull final IChannels<T> channels) {
+		this.channels = channels;
+	}
+
+	public void setVoiceStealing(final boolean flag) {
+		this.voiceStealing = flag;
+	}
+
+	public boolean isVoiceStealing() {
+		return this.voiceStealing;
+	}
+
+	public int getDropped() {
+		return this.dropped;
+	}
+
+	public int getStolen() {
+		return this.stolen;
+	}
+
+	public int getWaiting() {
+		return this.waitingNormal.size() + this.waitingStreaming.size();
+	}
+
+	public boolean hasCapacity(final boolean streaming) {
+		return this.channels.getInUse(streaming) < this.channels.getLimit(streaming);
+	}
+
+	public boolean canFit(@Nonnull final T sound) {
+		final boolean streaming = this.channels.isStreaming(sound);
+		if (hasCapacity(streaming))
+			return true;
+		// The counts may be stale so recount before turning the sound away
+		return this.channels.recount() && hasCapacity(streaming);
+	}
+
+	/**
+	 * Stops the least important playing sound in the same channel pool if the
+	 * new sound is sufficiently more important.
+	 *
+	 * @param sound    The sound that needs a channel
+	 * @param priority Priority of the sound
+	 * @return true if a channel was freed up for the sound
+	 */
+	public boolean stealVoice(@Nonnull final T sound, final float priority) {
+		if (!this.voiceStealing)
+			return false;
+
+		final boolean streaming = this.channels.isStreaming(sound);
+		T victim = null;
+		float victimPriority = priority / STEAL_RATIO;
+		for (final T s : this.channels.getActive()) {
+			if (this.channels.isPlaying(s) && this.channels.isStreaming(s) == streaming) {
+				final float p = this.channels.getPriority(s);
+				if (p < victimPriority) {
+					victim = s;
+					victimPriority = p;
+				}
+			}
+		}
+
+		if (victim == null)
+			return false;
+
+		this.channels.stop(victim);
+		this.stolen++;
+		return hasCapacity(streaming);
+	}
+
+	/**
+	 * Decides what happens to a sound that is new to the engine. A sound that has
+	 * to wait is placed in the wait queue of its pool.
+	 *
+	 * @param sound    The sound to be played
+	 * @param canQueue Whether the sound can wait for a channel
+	 * @return What should be done with the sound
+	 */
+	@Nonnull
+	public Result admit(@Nonnull final T sound, final boolean canQueue) {
+		if (canFit(sound))
+			return Result.PLAY;
+		final float priority = this.channels.getPriority(sound);
+		if (stealVoice(sound, priority))
+			return Result.PLAY;
+		if (canQueue) {
+			final Waiting<T> w = new Waiting<>(sound, priority, this.waitingSequence++);
+			if (this.channels.isStreaming(sound))
+				this.waitingStreaming.enqueue(w);
+			else
+				this.waitingNormal.enqueue(w);
+			return Result.WAIT;
+		}
+		this.dropped++;
+		return Result.DROP;
+	}
+
+	/**
+	 * Gives any free channels to the most important waiting sounds.
+	 */
+	public void drainWaiting() {
+		drainWaiting(this.waitingNormal);
+		drainWaiting(this.waitingStreaming);
+	}
+
+	private void drainWaiting(@Nonnull final ObjectHeapPriorityQueue<Waiting<T>> waiting) {
+		while (!waiting.isEmpty()) {
+			final T sound = waiting.first().sound;
+			if (this.channels.isWaiting(sound)) {
+				if (!canFit(sound))
+					break;
+				this.channels.start(sound);
+			}
+			waiting.dequeue();
+		}
+	}
+
+	public void clear() {
+		this.waitingNormal.clear();
+		this.waitingStreaming.clear();
+	}
+
+	private static final class Waiting<T> implements Comparable<Waiting<T>> {
+
+		public final T sound;
+		public final float priority;
+		public final long sequence;
+
+		public Waiting(@Nonnull final T sound, final float priority, final long sequence) {
+			this.sound = sound;
+			this.priority = priority;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(@Nonnull final Waiting<T> w) {
+			// Highest priority first, and first come first served within the same
+			// priority
+			final int result = Float.compare(w.priority, this.priority);
+			return result != 0 ? result : Long.compare(this.sequence, w.sequence);
+		}
+	}
+
+}
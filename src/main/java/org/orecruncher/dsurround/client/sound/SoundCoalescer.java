@@ -0,0 +1,177 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.client.sound;
+
+import java.util.ArrayDeque;
+
+import javax.annotation.Nonnull;
+
+import org.orecruncher.dsurround.ModOptions;
+import org.orecruncher.dsurround.registry.RegistryManager;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.client.audio.ISound;
+import net.minecraft.client.audio.ITickableSound;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.math.MathHelper;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Merges requests for the same sound that land in the same area within a short
+ * window of time. The first request plays right away and opens the window; any
+ * others that come in before it closes are folded into it, bumping up the
+ * volume of the sound that is playing a bit.
+ * Intended for things like lava lakes, farms, and rain splashes where a lot of
+ * the same sound is requested in a short time and most of it is not going to
+ * be noticed as separate sounds.
+ */
+@SideOnly(Side.CLIENT)
+public final class SoundCoalescer {
+
+	private static final class Cluster {
+		public SoundInstance sound;
+		public long cell;
+		public int expires;
+		public int count;
+		public float volume;
+	}
+
+	private final Object2ObjectOpenHashMap<ResourceLocation, Long2ObjectOpenHashMap<Cluster>> clusters = new Object2ObjectOpenHashMap<>();
+	private final ArrayDeque<Cluster> active = new ArrayDeque<>();
+	private final ArrayDeque<Cluster> pool = new ArrayDeque<>();
+
+	private int merged = 0;
+
+	/**
+	 * Determines if the sound is a candidate for merging. Block and weather
+	 * sounds are, as are sounds that have been configured to be culled. Sounds
+	 * that are long lived or managed by an emitter are left alone.
+	 */
+	private static boolean canCoalesce(@Nonnull final ISoundInstance sound) {
+		if (!(sound instanceof SoundInstance) || sound instanceof ITickableSound || sound.canRepeat() || sound.getQueue()
+				|| sound.getAttenuationType() != ISound.AttenuationType.LINEAR)
+			return false;
+		final SoundCategory category = sound.getCategory();
+		return category == SoundCategory.BLOCKS || category == SoundCategory.WEATHER
+				|| RegistryManager.SOUND.isSoundCulled(sound.getSoundLocation());
+	}
+
+	private static long cellKey(@Nonnull final ISound sound, final int cellSize) {
+		final long x = Math.floorDiv(MathHelper.floor(sound.getXPosF()), cellSize);
+		final long y = Math.floorDiv(MathHelper.floor(sound.getYPosF()), cellSize);
+		final long z = Math.floorDiv(MathHelper.floor(sound.getZPosF()), cellSize);
+		return ((x & 0x3FFFFFF) << 38) | ((y & 0xFFF) << 26) | (z & 0x3FFFFFF);
+	}
+
+	/**
+	 * Offers the sound for merging.
+	 *
+	 * @param sound The sound that is to be played
+	 * @param tick  The current tick
+	 * @return true if the sound was merged into one that is playing, false if it
+	 *         should be played as normal
+	 */
+	public boolean offer(@Nonnull final ISoundInstance sound, final int tick) {
+		final int window = ModOptions.sound.coalesceWindow;
+		if (window <= 0 || !canCoalesce(sound))
+			return false;
+
+		final SoundInstance instance = (SoundInstance) sound;
+		final long cell = cellKey(sound, ModOptions.sound.coalesceCellSize);
+		final Long2ObjectOpenHashMap<Cluster> cells = this.clusters.computeIfAbsent(sound.getSoundLocation(),
+				k -> new Long2ObjectOpenHashMap<>());
+
+		final Cluster existing = cells.get(cell);
+		if (existing != null) {
+			final SoundInstance playing = existing.sound;
+			if (!playing.getState().isActive()) {
+				// The first sound was turned away by the engine. Let this one
+				// take its place.
+				existing.sound = instance;
+				existing.count = 1;
+				existing.volume = instance.getBaseVolume();
+				return false;
+			}
+
+			existing.count++;
+			existing.volume = Math.max(existing.volume, instance.getBaseVolume());
+
+			// Sounds of similar loudness add up as the square root of the
+			// count. Don't go past full volume unless one of the sounds was
+			// already that loud.
+			playing.setVolume(
+					Math.max(existing.volume, Math.min(1.0F, existing.volume * MathHelper.sqrt(existing.count))));
+			SoundEngine.instance().updateVolume(playing);
+
+			sound.setState(SoundState.DONE);
+			this.merged++;
+			return true;
+		}
+
+		final Cluster c = this.pool.isEmpty() ? new Cluster() : this.pool.pop();
+		c.sound = instance;
+		c.cell = cell;
+		c.expires = tick + window;
+		c.count = 1;
+		c.volume = instance.getBaseVolume();
+		cells.put(cell, c);
+		this.active.addLast(c);
+		return false;
+	}
+
+	/**
+	 * Closes the windows that have expired.
+	 *
+	 * @param tick The current tick
+	 */
+	public void flush(final int tick) {
+		// All clusters share the same window so they expire in order
+		while (!this.active.isEmpty() && this.active.peekFirst().expires <= tick) {
+			final Cluster c = this.active.pollFirst();
+			final Long2ObjectOpenHashMap<Cluster> cells = this.clusters.get(c.sound.getSoundLocation());
+			if (cells != null)
+				cells.remove(c.cell);
+			c.sound = null;
+			this.pool.push(c);
+		}
+	}
+
+	public void clear() {
+		this.active.clear();
+		this.clusters.clear();
+	}
+
+	public int getPendingCount() {
+		return this.active.size();
+	}
+
+	public int getMergedCount() {
+		return this.merged;
+	}
+
+}
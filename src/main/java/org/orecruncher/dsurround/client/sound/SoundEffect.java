@@ -33,7 +33,7 @@ import org.orecruncher.dsurround.ModInfo;
 import org.orecruncher.dsurround.client.fx.ISpecialEffect;
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.orecruncher.dsurround.client.handlers.SoundEffectHandler;
-import org.orecruncher.dsurround.expression.ExpressionEngine;
+import org.orecruncher.dsurround.expression.Condition;
 import org.orecruncher.dsurround.registry.RegistryManager;
 import org.orecruncher.dsurround.registry.config.models.SoundConfig;
 import org.orecruncher.dsurround.registry.config.models.SoundType;
@@ -68,6 +68,7 @@ public final class SoundEffect implements ISpecialEffect, IEntrySource<SoundEffe
 
 	private SoundType type;
 	private String conditions;
+	private Condition condition;
 	private SoundCategory category;
 	private float volume;
 	private float pitch;
@@ -88,6 +89,7 @@ public final class SoundEffect implements ISpecialEffect, IEntrySource<SoundEffe
 		this.volume = volume;
 		this.pitch = pitch;
 		this.conditions = StringUtils.EMPTY;
+		this.condition = Condition.TRUE;
 		this.weight = 10;
 		this.type = SoundType.SPOT;
 		this.category = MoreObjects.firstNonNull(category, SoundCategory.BLOCKS);
@@ -118,6 +120,7 @@ public final class SoundEffect implements ISpecialEffect, IEntrySource<SoundEffe
 
 	protected SoundEffect setConditions(@Nonnull final String cond) {
 		this.conditions = cond;
+		this.condition = Condition.compile(cond);
 		return this;
 	}
 
@@ -166,6 +169,11 @@ public final class SoundEffect implements ISpecialEffect, IEntrySource<SoundEffe
 		return this.type;
 	}
 
+	@Nonnull
+	public Condition getCondition() {
+		return this.condition;
+	}
+
 	protected float getVolume() {
 		return this.volume;
 	}
@@ -254,7 +262,7 @@ public final class SoundEffect implements ISpecialEffect, IEntrySource<SoundEffe
 	// IEntrySource<T>
 	@Override
 	public boolean matches() {
-		return ExpressionEngine.instance().check(this.conditions);
+		return this.condition.test();
 	}
 
 	@Override
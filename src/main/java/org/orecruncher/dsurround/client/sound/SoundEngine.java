@@ -28,7 +28,9 @@ import java.nio.IntBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -44,21 +46,30 @@ import org.orecruncher.dsurround.ModInfo;
 import org.orecruncher.dsurround.ModOptions;
 import org.orecruncher.dsurround.ModOptions.Trace;
 import org.orecruncher.dsurround.event.DiagnosticEvent;
+import org.orecruncher.dsurround.registry.RegistryDataEvent;
 import org.orecruncher.dsurround.registry.RegistryManager;
-import org.orecruncher.lib.ReflectedField.BooleanField;
 import org.orecruncher.lib.ReflectedField.ObjectField;
 import org.orecruncher.lib.ThreadGuard;
 import org.orecruncher.lib.ThreadGuard.Action;
 import org.orecruncher.lib.math.MathStuff;
 
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2FloatOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.audio.ISound;
+import net.minecraft.client.audio.ISoundEventAccessor;
+import net.minecraft.client.audio.Sound;
+import net.minecraft.client.audio.SoundEventAccessor;
+import net.minecraft.client.audio.SoundHandler;
 import net.minecraft.client.audio.SoundManager;
 import net.minecraft.client.audio.SoundRegistry;
 import net.minecraft.client.settings.GameSettings;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.text.TextFormatting;
+import net.minecraftforge.client.event.sound.PlayStreamingSourceEvent;
+import net.minecraftforge.client.event.sound.SoundLoadEvent;
 import net.minecraftforge.client.event.sound.SoundEvent.SoundSourceEvent;
 import net.minecraftforge.client.event.sound.SoundSetupEvent;
 import net.minecraftforge.common.MinecraftForge;
@@ -71,9 +82,9 @@ import net.minecraftforge.fml.relauncher.Side;
 import paulscode.sound.Library;
 import paulscode.sound.SoundSystem;
 import paulscode.sound.SoundSystemConfig;
-import paulscode.sound.Source;
 
 
+import org.orecruncher.dsurround.mixins.ISoundEventAccessorMixin;
 import org.orecruncher.dsurround.mixins.ISoundHandlerMixin;
 import org.orecruncher.dsurround.mixins.ISoundManagerMixin;
 import org.orecruncher.dsurround.mixins.ISoundSystemMixin;
@@ -89,20 +100,18 @@ public final class SoundEngine {
 				"sndSystem",
 				"field_148620_e"
 			);
-	private static final BooleanField<Source> removed =
-			new BooleanField<>(
-				Source.class,
-				"removed",
-				null
-			);
 	//@formatter:on
 
 	private static final float MUTE_VOLUME = 0.00001F;
 	private static final int MAX_STREAM_CHANNELS = 16;
-	private static final int SOUND_QUEUE_SLACK = 6;
+	static final int SOUND_QUEUE_SLACK = 6;
+	private static final int RECONCILE_INTERVAL = 20;
+	private static final int ORPHAN_CHECK_INTERVAL = 100;
 
-	// Maximum number of sound channels configured in the sound system
+	// Number of sound channels configured in the sound system
 	private static int maxSounds = 0;
+	private static int maxNormalSounds = 0;
+	private static int maxStreamingSounds = 0;
 	private static final SoundEngine instance_ = new SoundEngine();
 
 	public static SoundEngine instance() {
@@ -116,9 +125,28 @@ public final class SoundEngine {
 
 	private final Set<ISoundInstance> queuedSounds = new ReferenceOpenHashSet<>(256);
 
+	private final SoundAdmission<ISoundInstance> admission = new SoundAdmission<>(new Channels());
+
 	private String playedSoundId = null;
 
+	// Channels in use as seen from the play/stop hooks. Between reconciles these
+	// can run high because sounds that finish on their own are not reported.
+	private final AtomicInteger normalInUse = new AtomicInteger();
+	private final AtomicInteger streamingInUse = new AtomicInteger();
+	private int tickCount = 0;
+	private int lastReconcile = -1;
+
+	private final SoundReconciler orphans = new SoundReconciler();
+	private final SoundPreloader preloader = new SoundPreloader();
+	private final Predicate<String> soundFileInUse = this::isSoundFileInUse;
+
+	// Category volume times the configured volume scale for sounds that are
+	// in play
+	private final Reference2FloatOpenHashMap<ISound> volumeScales = new Reference2FloatOpenHashMap<>();
+	private final float[] categoryVolumes = new float[SoundCategory.values().length];
+
 	private SoundEngine() {
+		this.volumeScales.defaultReturnValue(-1F);
 		MinecraftForge.EVENT_BUS.register(this);
 	}
 
@@ -143,11 +171,69 @@ public final class SoundEngine {
 	}
 
 	private int currentSoundCount() {
-		return getPlayingSounds().size();
+		return this.normalInUse.get() + this.streamingInUse.get();
+	}
+
+	/**
+	 * Determines which channel pool the sound plays from. Once the sound has been
+	 * played the variant is known. Before that the decision is made from the
+	 * sound event without picking a variant, since the SoundManager picks its own
+	 * when the sound is played. An event with any streamed variant is treated as
+	 * streamed.
+	 */
+	static boolean isStreaming(@Nonnull final ISound sound) {
+		final Sound s = sound.getSound();
+		// SoundInstance starts out with the missing sound as a placeholder
+		if (s != null && s != SoundHandler.MISSING_SOUND)
+			return s.isStreaming();
+		final SoundEventAccessor accessor = Minecraft.getMinecraft().getSoundHandler()
+				.getAccessor(sound.getSoundLocation());
+		return accessor != null && isStreaming(accessor);
+	}
+
+	private static boolean isStreaming(@Nonnull final SoundEventAccessor accessor) {
+		for (final ISoundEventAccessor<Sound> variant : ((ISoundEventAccessorMixin) accessor).getAccessorList()) {
+			if (variant instanceof Sound) {
+				if (((Sound) variant).isStreaming())
+					return true;
+			} else if (variant instanceof SoundEventAccessor && isStreaming((SoundEventAccessor) variant)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Recounts the channels in use from the sound manager's playing list.
+	 */
+	private void reconcileChannels() {
+		int streaming = 0;
+		int normal = 0;
+		for (final ISound sound : getPlayingSounds().values()) {
+			final Sound s = sound.getSound();
+			if (s != null && s.isStreaming())
+				streaming++;
+			else
+				normal++;
+		}
+		this.normalInUse.set(normal);
+		this.streamingInUse.set(streaming);
+		this.lastReconcile = this.tickCount;
 	}
 
-	private boolean canFitSound() {
-		return currentSoundCount() < (maxSounds - SOUND_QUEUE_SLACK);
+	/**
+	 * Called by the SoundManager mixin before a sound is stopped so the channel
+	 * can be released.
+	 *
+	 * @param sound The sound that is being stopped
+	 */
+	public void onSoundStopped(@Nonnull final ISound sound) {
+		if (getPlayingSoundsInv().containsKey(sound)) {
+			final Sound s = sound.getSound();
+			final AtomicInteger counter = s != null && s.isStreaming() ? this.streamingInUse : this.normalInUse;
+			if (counter.decrementAndGet() < 0)
+				counter.set(0);
+		}
 	}
 
 	private void flushSoundQueue() {
@@ -190,12 +276,26 @@ public final class SoundEngine {
 	 * @param sound The sound to stop
 	 */
 	public void stopSound(@Nonnull final ISoundInstance sound) {
+		SoundRecorder.recordStop(sound);
 		if (sound.getState() == SoundState.QUEUED)
 			sound.setState(SoundState.DONE);
 		else
 			getSoundManager().stopSound(sound);
 	}
 
+	/**
+	 * Applies the current volume of a sound that is playing. The SoundManager
+	 * only does that for sounds that tick, so other sounds keep the volume they
+	 * started with unless it is pushed through here.
+	 *
+	 * @param sound The sound whose volume changed
+	 */
+	public void updateVolume(@Nonnull final ISoundInstance sound) {
+		final String id = getPlayingSoundsInv().get(sound);
+		if (id != null)
+			getSoundSystem().setVolume(id, getClampedVolume(sound));
+	}
+
 	/**
 	 * Stops all playing and pending sounds. All lists and queues are dumped.
 	 */
@@ -203,8 +303,12 @@ public final class SoundEngine {
 		getSoundManager().stopAllSounds();
 		flushSoundQueue();
 		clearOrphans();
+		this.normalInUse.set(0);
+		this.streamingInUse.set(0);
 		this.queuedSounds.forEach(s -> s.setState(SoundState.DONE));
 		this.queuedSounds.clear();
+		this.admission.clear();
+		this.volumeScales.clear();
 	}
 
 	/**
@@ -222,25 +326,17 @@ public final class SoundEngine {
 		// Looks like a new sound. Assume an error state until otherwise.
 		sound.setState(SoundState.ERROR);
 
-		return playSound0(sound);
-	}
-
-	protected boolean playSound0(@Nonnull final ISoundInstance sound) {
-		if (canFitSound()) {
-			this.playedSoundId = null;
-			try {
-				getSoundManager().playSound(sound);
-				if (this.playedSoundId != null) {
-					this.queuedSounds.add(sound);
-					sound.setState(SoundState.PLAYING);
-				}
-			} catch (@Nonnull final Throwable t) {
-				final String txt = String.format("Unable to play sound [%s]", sound);
-				ModBase.log().error(txt, t);
-			}
-		} else if (sound.getQueue() && sound.getState() != SoundState.QUEUED) {
+		this.admission.setVoiceStealing(ModOptions.sound.enableVoiceStealing);
+		switch (this.admission.admit(sound, sound.getQueue())) {
+		case PLAY:
+			startSound(sound);
+			break;
+		case WAIT:
 			sound.setState(SoundState.QUEUED);
 			this.queuedSounds.add(sound);
+			break;
+		default:
+			break;
 		}
 
 		if (ModBase.log().testTrace(Trace.SOUND_PLAY)) {
@@ -255,35 +351,92 @@ public final class SoundEngine {
 		return sound.getState().isActive();
 	}
 
-	// Wipe out any orphans. Not sure exactly how this happens but it wouldn't
-	// surprise me if there is a gap in thread processing in the sound engine.
+	/**
+	 * Hands the sound to the SoundManager. A sound the SoundManager does not take
+	 * is left in the error state; nothing else is going to pick it up.
+	 */
+	private void startSound(@Nonnull final ISoundInstance sound) {
+		sound.setState(SoundState.ERROR);
+		this.playedSoundId = null;
+		try {
+			getSoundManager().playSound(sound);
+			if (this.playedSoundId != null) {
+				this.queuedSounds.add(sound);
+				sound.setState(SoundState.PLAYING);
+			}
+		} catch (@Nonnull final Throwable t) {
+			final String txt = String.format("Unable to play sound [%s]", sound);
+			ModBase.log().error(txt, t);
+		}
+	}
+
+	/**
+	 * Hands off a check for orphaned sources to the background reconciler.
+	 * Sources can be orphaned if there is a gap in thread processing in the sound
+	 * engine.
+	 */
+	private void checkOrphans() {
+		try {
+			final Set<String> playing = new ObjectOpenHashSet<>(getPlayingSounds().keySet());
+			this.orphans.submit(getSoundSystem(), getSoundLibrary(), playing);
+		} catch (@Nonnull final Throwable t) {
+			// Sound system may not be up yet
+		}
+	}
+
+	/**
+	 * Removes every orphaned source right away. Only safe when nothing is
+	 * playing, such as after all sounds have been stopped.
+	 */
 	private void clearOrphans() {
-		final Map<String, ISound> playingSounds = getPlayingSounds();
-		final SoundSystem sndSystem = getSoundSystem();
-		synchronized (SoundSystemConfig.THREAD_SYNC) {
-			final Map<String, Source> sounds = getSoundLibrary().getSources();
-			final List<String> remove = sounds.entrySet().stream()
-					.filter(e -> !playingSounds.containsKey(e.getKey()))
-					.map(e -> {
-						final Source src = e.getValue();
-						ModBase.log().debug("Killing orphaned sound [%s]",
-								src.filenameURL != null ? src.filenameURL.getFilename() : "UNKNOWN");
-						cleanupSource(src);
-						return e.getKey();
-					})
-					.collect(Collectors.toList());
-			remove.forEach(sndSystem::removeSource);
+		try {
+			this.orphans.sweep(getSoundSystem(), getSoundLibrary(), getPlayingSounds().keySet());
+		} catch (@Nonnull final Throwable t) {
+			// Sound system may not be up yet
 		}
 	}
 
-	private static void cleanupSource(@Nonnull final Source source) {
-		if (source.toStream) {
-			removed.set(source, true);
-		} else {
-			source.cleanup();
+	/**
+	 * Stops the background workers of the engine. They are started again when
+	 * needed.
+	 */
+	public void onDisconnect() {
+		this.orphans.shutdown();
+	}
+
+	private boolean isSoundFileInUse(@Nonnull final String id) {
+		for (final ISound sound : getPlayingSounds().values()) {
+			final Sound s = sound.getSound();
+			if (s != null && id.equals(s.getSoundAsOggLocation().toString()))
+				return true;
+		}
+		return false;
+	}
+
+	private void preloadSounds() {
+		try {
+			final SoundSystem sndSystem = getSoundSystem();
+			if (sndSystem != null)
+				this.preloader.process(sndSystem, getSoundRegistry(), this.orphans.getBuffers(),
+						this.soundFileInUse);
+		} catch (@Nonnull final Throwable t) {
+			ModBase.log().error("Unable to preload sounds", t);
 		}
 	}
 
+	/**
+	 * Event raised when the sound system has been loaded or reloaded.
+	 *
+	 * @param event Event that was raised
+	 */
+	@SuppressWarnings("unused")
+	@SubscribeEvent
+	public void onSoundLoad(@Nonnull final SoundLoadEvent event) {
+		// The library the reconciler was working against is gone
+		this.orphans.shutdown();
+		this.preloader.onSoundSystemLoad();
+	}
+
 	/**
 	 * Run down our active sound list checking that they are still active. If they
 	 * aren't update the state accordingly.
@@ -294,9 +447,22 @@ public final class SoundEngine {
     @SubscribeEvent(priority = EventPriority.LOW)
 	public void clientTick(@Nonnull final TickEvent.ClientTickEvent event) {
 		if (event.side == Side.CLIENT && event.phase == Phase.END) {
+			if (++this.tickCount - this.lastReconcile >= RECONCILE_INTERVAL)
+				reconcileChannels();
+			if (this.tickCount % ORPHAN_CHECK_INTERVAL == 0)
+				checkOrphans();
+			preloadSounds();
+
 			final Map<ISound, Integer> delayedSounds = getDelayedSounds();
 			final Map<ISound, String> playingInv = getPlayingSoundsInv();
 
+			checkCategoryVolumes();
+			if (this.tickCount % RECONCILE_INTERVAL == 0)
+				pruneVolumeScales(playingInv, delayedSounds);
+
+			// Give any free channels to the most important waiting sounds
+			this.admission.drainWaiting();
+
 			// Process our queued sounds to make sure the state is appropriate. A sound can
 			// move between the playing sound list and the delayed sound list based on its
 			// attributes so we need to make sure we detect that.
@@ -307,12 +473,8 @@ public final class SoundEngine {
 			this.queuedSounds.removeIf(sound -> {
 				switch (sound.getState()) {
 					case QUEUED:
-						// The sound is being held in the queue waiting for space
-						// in the Minecraft sound engine. If there is space, send
-						// it down.
-						if (canFitSound()) {
-							playSound0(sound);
-						}
+						// The sound is being held in the waiting queues for space
+						// in the Minecraft sound engine. Taken care of above.
 						break;
 					case DELAYED:
 						// The sound play is delayed. Check to see if Minecraft
@@ -388,6 +550,12 @@ public final class SoundEngine {
 	public void onSoundSourceEvent(@Nonnull final SoundSourceEvent event) {
 		this.guard.check("playSound");
 		this.playedSoundId = event.getUuid();
+		if (event instanceof PlayStreamingSourceEvent) {
+			this.streamingInUse.incrementAndGet();
+		} else {
+			this.normalInUse.incrementAndGet();
+			this.preloader.onPlay(event.getSound());
+		}
 	}
 
 	/**
@@ -400,7 +568,17 @@ public final class SoundEngine {
 	public void diagnostics(final DiagnosticEvent.Gather event) {
 
 		event.output.add(TextFormatting.AQUA + "SoundSystem: " + currentSoundCount() + "/" + maxSounds);
+		event.output.add(TextFormatting.AQUA + "Channels   : " + this.normalInUse.get() + "/" + maxNormalSounds
+				+ " normal, " + this.streamingInUse.get() + "/" + maxStreamingSounds + " streaming");
+		event.output.add(TextFormatting.AQUA + String.format("Orphans    : %d removed, %d passes, last %.3fms",
+				this.orphans.getOrphansRemoved(), this.orphans.getPasses(), this.orphans.getLastPassNanos() / 1000000D));
+		final int plays = this.preloader.getHits() + this.preloader.getMisses();
+		event.output.add(TextFormatting.AQUA + String.format("Buffers    : %d preloaded, %d resident (%dKB), %d unloaded, %.1f%% hits",
+				this.preloader.getPreloaded(), this.preloader.getResident(), this.preloader.getResidentBytes() / 1024,
+				this.preloader.getEvicted(), plays == 0 ? 0F : this.preloader.getHits() * 100F / plays));
 		event.output.add(TextFormatting.AQUA + "Tracking   : " + this.queuedSounds.size());
+		event.output.add(TextFormatting.AQUA + "Admission  : " + this.admission.getWaiting() + " waiting, "
+				+ this.admission.getDropped() + " dropped, " + this.admission.getStolen() + " stolen");
 
 		//@formatter:off
 		final List<String> results =
@@ -431,17 +609,87 @@ public final class SoundEngine {
 	// SOUND may not be initialized if Forge did not initialize Minecraft fully.
 	// That can happen if the environment does not meet its dependency
 	// requirements.
-	private static float getVolumeScale(@Nullable final ISound sound) {
-		if (sound == null)
-			return 1F;
+	private static float getRegistryScale(@Nonnull final ISound sound) {
 		try {
-			final float fade = fadeMusic(sound) ? MusicFader.getMusicScaling() : 1.0F;
-			return RegistryManager.SOUND.getVolumeScale(sound) * fade;
+			return RegistryManager.SOUND.getVolumeScale(sound);
 		} catch (final Throwable ignore) {
 		}
 		return 1F;
 	}
 
+	private static float getFade(@Nonnull final ISound sound) {
+		try {
+			return fadeMusic(sound) ? MusicFader.getMusicScaling() : 1.0F;
+		} catch (final Throwable ignore) {
+		}
+		return 1F;
+	}
+
+	/**
+	 * Obtains the combined category volume and configured volume scale for the
+	 * sound. Worked out the first time the sound is seen and held until the sound
+	 * goes away or the settings change.
+	 */
+	private float getCachedVolumeScale(@Nonnull final ISound sound) {
+		float scale = this.volumeScales.getFloat(sound);
+		if (scale < 0) {
+			scale = getVolume(sound.getCategory()) * getRegistryScale(sound);
+			this.volumeScales.put(sound, scale);
+		}
+		return scale;
+	}
+
+	/**
+	 * Called by the SoundManager mixin when a category volume is changed, before
+	 * the SoundManager works out the new volume of the sounds that are playing.
+	 * The cached scales are dropped so that it sees the new setting.
+	 *
+	 * @param category The category whose volume changed
+	 */
+	public void onCategoryVolumeChanged(@Nonnull final SoundCategory category) {
+		this.categoryVolumes[category.ordinal()] = getVolume(category);
+		this.volumeScales.clear();
+	}
+
+	// Changes made through the SoundManager are handled by
+	// onCategoryVolumeChanged(). The settings can still be changed without going
+	// through it, such as when they are reloaded, so they are checked each tick
+	// as well.
+	private void checkCategoryVolumes() {
+		boolean changed = false;
+		for (final SoundCategory category : SoundCategory.values()) {
+			final float volume = getVolume(category);
+			if (this.categoryVolumes[category.ordinal()] != volume) {
+				this.categoryVolumes[category.ordinal()] = volume;
+				changed = true;
+			}
+		}
+		if (changed)
+			this.volumeScales.clear();
+	}
+
+	private void pruneVolumeScales(@Nonnull final Map<ISound, String> playingInv,
+			@Nonnull final Map<ISound, Integer> delayedSounds) {
+		final ObjectIterator<ISound> itr = this.volumeScales.keySet().iterator();
+		while (itr.hasNext()) {
+			final ISound sound = itr.next();
+			if (!playingInv.containsKey(sound) && !delayedSounds.containsKey(sound))
+				itr.remove();
+		}
+	}
+
+	/**
+	 * Event handler for registry reloads. The sound settings may have changed.
+	 *
+	 * @param event Event that has been raised
+	 */
+	@SuppressWarnings("unused")
+	@SubscribeEvent
+	public void registryReload(@Nonnull final RegistryDataEvent.Reload event) {
+		this.volumeScales.clear();
+		this.preloader.markDirty();
+	}
+
 	/**
 	 * ASM redirects the SoundManager code to this method. Purpose is that the
 	 * volume is scaled by additional configuration information.
@@ -450,8 +698,15 @@ public final class SoundEngine {
 	 * @return Clamped volume for playing the sound
 	 */
 	public static float getClampedVolume(@Nonnull final ISound sound) {
-		final float volumeScale = getVolumeScale(sound);
-		final float volume = sound.getVolume() * getVolume(sound.getCategory()) * volumeScale;
+		return getClampedVolume(sound, sound.getVolume());
+	}
+
+	/**
+	 * Same as getClampedVolume(ISound) but with the volume of the sound supplied
+	 * by the caller.
+	 */
+	static float getClampedVolume(@Nonnull final ISound sound, final float soundVolume) {
+		final float volume = soundVolume * instance_.getCachedVolumeScale(sound) * getFade(sound);
 		return MathStuff.clamp(volume, 0.0F, 1.0F);
 	}
 
@@ -503,7 +758,9 @@ public final class SoundEngine {
 		SoundSystemConfig.setNumberNormalChannels(normalChannelCount);
 		SoundSystemConfig.setNumberStreamingChannels(streamChannelCount);
 
-		maxSounds = SoundSystemConfig.getNumberNormalChannels() + SoundSystemConfig.getNumberStreamingChannels();
+		maxNormalSounds = SoundSystemConfig.getNumberNormalChannels();
+		maxStreamingSounds = SoundSystemConfig.getNumberStreamingChannels();
+		maxSounds = maxNormalSounds + maxStreamingSounds;
 
 		// Setup sound buffering
 		if (ModOptions.sound.streamBufferCount != 0)
@@ -514,4 +771,69 @@ public final class SoundEngine {
 				SoundSystemConfig.getStreamingBufferSize());
 	}
 
+	/**
+	 * The channels of the SoundManager as seen by the admission rules.
+	 */
+	private final class Channels implements SoundAdmission.IChannels<ISoundInstance> {
+
+		@Override
+		public boolean isStreaming(@Nonnull final ISoundInstance sound) {
+			return SoundEngine.isStreaming(sound);
+		}
+
+		@Override
+		public int getInUse(final boolean streaming) {
+			return streaming ? streamingInUse.get() : normalInUse.get();
+		}
+
+		@Override
+		public int getLimit(final boolean streaming) {
+			return streaming ? maxStreamingSounds : maxNormalSounds - SOUND_QUEUE_SLACK;
+		}
+
+		@Override
+		public boolean recount() {
+			// Only done once a tick to keep a full engine from walking the maps
+			// repeatedly
+			if (lastReconcile == tickCount)
+				return false;
+			reconcileChannels();
+			return true;
+		}
+
+		@Override
+		@Nonnull
+		public Iterable<ISoundInstance> getActive() {
+			return queuedSounds;
+		}
+
+		@Override
+		public boolean isPlaying(@Nonnull final ISoundInstance sound) {
+			return sound.getState() == SoundState.PLAYING;
+		}
+
+		@Override
+		public boolean isWaiting(@Nonnull final ISoundInstance sound) {
+			return sound.getState() == SoundState.QUEUED;
+		}
+
+		@Override
+		public float getPriority(@Nonnull final ISoundInstance sound) {
+			return SoundPriority.getPriority(sound);
+		}
+
+		@Override
+		public void start(@Nonnull final ISoundInstance sound) {
+			startSound(sound);
+		}
+
+		@Override
+		public void stop(@Nonnull final ISoundInstance sound) {
+			if (ModBase.log().testTrace(Trace.SOUND_PLAY))
+				ModBase.log().debug("> STOLEN: [%s]", sound);
+			getSoundManager().stopSound(sound);
+			sound.setState(SoundState.DONE);
+		}
+	}
+
 }
@@ -93,6 +93,13 @@ public class SoundInstance extends PositionedSound implements ISoundInstance {
 		return this;
 	}
 
+	/**
+	 * Volume of the instance before the sound variant and throttle are applied.
+	 */
+	public float getBaseVolume() {
+		return this.volume;
+	}
+
 	public SoundInstance setPitch(final float p) {
 		this.pitch = p;
 		return this;
@@ -0,0 +1,349 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.client.sound;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.orecruncher.dsurround.ModBase;
+import org.orecruncher.dsurround.registry.RegistryManager;
+import org.orecruncher.lib.ReflectedField.ObjectField;
+
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMaps;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.audio.ISound;
+import net.minecraft.client.audio.ISoundEventAccessor;
+import net.minecraft.client.audio.Sound;
+import net.minecraft.client.audio.SoundEventAccessor;
+import net.minecraft.client.audio.SoundRegistry;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.SoundEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import paulscode.sound.SoundSystem;
+
+/**
+ * Loads the sound files used by the acoustic and block state registries into
+ * the sound library ahead of time. The library holds on to the decoded data of
+ * a non-streamed sound once it has been loaded, so this avoids having the
+ * first play of each footstep or block sound wait on the decode. Streamed
+ * sounds are skipped as they are the long ones. Loads are spread out over a
+ * number of ticks.
+ *
+ * The library never lets go of decoded data on its own. Once it holds more
+ * than MAX_BUFFER_BYTES the sounds that have gone the longest without being
+ * played are unloaded, as long as they are not playing.
+ *
+ * What the library holds is taken from its buffer map as of the last pass of
+ * the reconciler, plus whatever has been loaded or unloaded since. That is
+ * also what decides whether a play found its data already resident.
+ */
+@SideOnly(Side.CLIENT)
+final class SoundPreloader {
+
+	//@formatter:off
+	private static final ObjectField<SoundEventAccessor, List<ISoundEventAccessor<Sound>>> accessorList =
+			new ObjectField<>(
+				SoundEventAccessor.class,
+				"accessorList",
+				"field_188716_a"
+			);
+	//@formatter:on
+
+	// Upper bound on the number of sound files queued for preload each tick
+	private static final int PRELOAD_PER_TICK = 32;
+	// Decoded sound data the library can hold before sounds are unloaded. The
+	// non-streamed sounds shipped with the mod come to about 70MB.
+	static final long MAX_BUFFER_BYTES = 96L * 1024L * 1024L;
+	// Ticks a sound has to go without being played before it can be unloaded
+	private static final int EVICT_AFTER_TICKS = 30 * 20;
+
+	private static final URLStreamHandler HANDLER = new URLStreamHandler() {
+		@Override
+		protected URLConnection openConnection(@Nonnull final URL url) {
+			return new URLConnection(url) {
+				@Override
+				public void connect() {
+				}
+
+				@Override
+				public InputStream getInputStream() throws IOException {
+					// Same form as the SoundManager: mcsounddomain:<namespace>:<path>
+					final String[] parts = url.toString().split(":", 3);
+					final ResourceLocation res = new ResourceLocation(parts[1], parts[2]);
+					return Minecraft.getMinecraft().getResourceManager().getResource(res).getInputStream();
+				}
+			};
+		}
+	};
+
+	// Sound files still to be queued for preload
+	private final ObjectArrayList<ResourceLocation> pending = new ObjectArrayList<>();
+	private int pendingIdx = 0;
+
+	// Identifiers and sizes of the buffers the library holds. Sizes are only
+	// known for buffers that were in the map at the last reconciler pass.
+	private final Object2IntOpenHashMap<String> resident = new Object2IntOpenHashMap<>();
+	private long residentBytes = 0;
+	private Object2IntMap<String> lastBuffers;
+
+	// Tick each sound was last played or preloaded, least recent first
+	private final Object2IntLinkedOpenHashMap<String> lastUsed = new Object2IntLinkedOpenHashMap<>();
+	private int tick = 0;
+
+	private boolean dirty = true;
+	// Set from the sound system loader thread
+	private volatile boolean reloaded = false;
+	private int preloaded = 0;
+	private int evicted = 0;
+	private int hits = 0;
+	private int misses = 0;
+
+	public void markDirty() {
+		this.dirty = true;
+	}
+
+	/**
+	 * Called when the sound system has been (re)loaded. Whatever the library was
+	 * holding is gone.
+	 */
+	public void onSoundSystemLoad() {
+		this.reloaded = true;
+	}
+
+	/**
+	 * Called once a tick. Picks up the latest view of the library, unloads
+	 * sounds if it is holding too much, and queues up the next batch of
+	 * preloads. Loads and unloads are handled by the sound system command
+	 * thread.
+	 *
+	 * @param sndSystem The sound system
+	 * @param registry  The sound registry of the SoundHandler
+	 * @param buffers   Buffers the library held at the last reconciler pass, or
+	 *                      null if there has not been one
+	 * @param inUse     Tests whether a sound file is being played
+	 */
+	public void process(@Nonnull final SoundSystem sndSystem, @Nonnull final SoundRegistry registry,
+			@Nullable final Object2IntMap<String> buffers, @Nonnull final Predicate<String> inUse) {
+		this.tick++;
+
+		if (this.reloaded) {
+			this.reloaded = false;
+			this.resident.clear();
+			this.residentBytes = 0;
+			this.lastBuffers = null;
+			this.lastUsed.clear();
+			this.dirty = true;
+		}
+
+		if (buffers != null && buffers != this.lastBuffers) {
+			this.lastBuffers = buffers;
+			this.resident.clear();
+			this.resident.putAll(buffers);
+			long bytes = 0;
+			for (final Object2IntMap.Entry<String> e : Object2IntMaps.fastIterable(buffers))
+				bytes += e.getIntValue();
+			this.residentBytes = bytes;
+			evict(sndSystem, inUse);
+		}
+
+		if (this.dirty && RegistryManager.ACOUSTICS != null && RegistryManager.BLOCK != null) {
+			this.dirty = false;
+			final Set<Sound> sounds = new ReferenceOpenHashSet<>();
+			gather(registry, RegistryManager.ACOUSTICS.getReferencedSounds(), sounds);
+			gather(registry, RegistryManager.BLOCK.getReferencedSounds(), sounds);
+			this.pending.clear();
+			this.pendingIdx = 0;
+			for (final Sound s : sounds)
+				this.pending.add(s.getSoundAsOggLocation());
+		}
+
+		int count = 0;
+		while (this.pendingIdx < this.pending.size() && count < PRELOAD_PER_TICK) {
+			final ResourceLocation res = this.pending.get(this.pendingIdx++);
+			final String id = res.toString();
+			if (!this.resident.containsKey(id)) {
+				final URL url = getURL(res);
+				if (url != null) {
+					sndSystem.loadSound(url, id);
+					// The command thread loads it before any source that is
+					// created after this point needs it
+					this.resident.put(id, 0);
+					if (!this.lastUsed.containsKey(id))
+						this.lastUsed.put(id, this.tick);
+					count++;
+				}
+			}
+		}
+
+		if (this.pendingIdx >= this.pending.size() && !this.pending.isEmpty()) {
+			this.pending.clear();
+			this.pendingIdx = 0;
+		}
+
+		if (count > 0) {
+			this.preloaded += count;
+			ModBase.log().debug("Queued %d sound files for preload", count);
+		}
+	}
+
+	/**
+	 * Unloads sounds until the library is back within budget. Sounds the
+	 * library picked up that have not been played since the last reload go
+	 * first, then the ones played longest ago.
+	 */
+	private void evict(@Nonnull final SoundSystem sndSystem, @Nonnull final Predicate<String> inUse) {
+		long bytes = this.residentBytes;
+		if (bytes <= MAX_BUFFER_BYTES)
+			return;
+
+		final ObjectArrayList<String> victims = new ObjectArrayList<>();
+		for (final Object2IntMap.Entry<String> e : Object2IntMaps.fastIterable(this.resident)) {
+			if (bytes <= MAX_BUFFER_BYTES)
+				break;
+			final String id = e.getKey();
+			if (!this.lastUsed.containsKey(id) && !inUse.test(id)) {
+				victims.add(id);
+				bytes -= e.getIntValue();
+			}
+		}
+
+		// Iterates in the order of last use
+		for (final Object2IntMap.Entry<String> e : Object2IntMaps.fastIterable(this.lastUsed)) {
+			if (bytes <= MAX_BUFFER_BYTES || this.tick - e.getIntValue() < EVICT_AFTER_TICKS)
+				break;
+			final String id = e.getKey();
+			if (this.resident.containsKey(id) && !inUse.test(id)) {
+				victims.add(id);
+				bytes -= this.resident.getInt(id);
+			}
+		}
+
+		for (final String id : victims) {
+			sndSystem.unloadSound(id);
+			this.resident.removeInt(id);
+			this.lastUsed.removeInt(id);
+		}
+
+		this.residentBytes = bytes;
+		this.evicted += victims.size();
+		ModBase.log().debug("Unloaded %d sound files", victims.size());
+	}
+
+	private static void gather(@Nonnull final SoundRegistry registry, @Nonnull final Collection<SoundEvent> events,
+			@Nonnull final Set<Sound> sounds) {
+		for (final SoundEvent evt : events) {
+			final SoundEventAccessor accessor = registry.getObject(evt.getSoundName());
+			if (accessor != null)
+				gather(accessor, sounds, 0);
+		}
+	}
+
+	private static void gather(@Nonnull final SoundEventAccessor accessor, @Nonnull final Set<Sound> sounds,
+			final int depth) {
+		final List<ISoundEventAccessor<Sound>> list = accessorList.get(accessor);
+		if (list == null || depth > 4)
+			return;
+		for (final ISoundEventAccessor<Sound> entry : list) {
+			if (entry instanceof Sound) {
+				final Sound s = (Sound) entry;
+				if (!s.isStreaming())
+					sounds.add(s);
+			} else if (entry instanceof SoundEventAccessor) {
+				gather((SoundEventAccessor) entry, sounds, depth + 1);
+			}
+		}
+	}
+
+	@Nullable
+	private static URL getURL(@Nonnull final ResourceLocation res) {
+		final String spec = String.format("mcsounddomain:%s:%s", res.getNamespace(), res.getPath());
+		try {
+			return new URL(null, spec, HANDLER);
+		} catch (@Nonnull final MalformedURLException e) {
+			ModBase.log().warn("Unable to create URL for sound [%s]", spec);
+		}
+		return null;
+	}
+
+	/**
+	 * Called when a sound source is created for a non-streamed sound. The library
+	 * loads the data on first use and keeps it, so after that it is resident.
+	 */
+	public void onPlay(@Nonnull final ISound sound) {
+		final Sound s = sound.getSound();
+		if (s == null)
+			return;
+		final String id = s.getSoundAsOggLocation().toString();
+		if (this.resident.containsKey(id)) {
+			this.hits++;
+		} else {
+			this.misses++;
+			this.resident.put(id, 0);
+		}
+		this.lastUsed.putAndMoveToLast(id, this.tick);
+	}
+
+	public int getPreloaded() {
+		return this.preloaded;
+	}
+
+	public int getResident() {
+		return this.resident.size();
+	}
+
+	public long getResidentBytes() {
+		return this.residentBytes;
+	}
+
+	public int getEvicted() {
+		return this.evicted;
+	}
+
+	public int getHits() {
+		return this.hits;
+	}
+
+	public int getMisses() {
+		return this.misses;
+	}
+
+}
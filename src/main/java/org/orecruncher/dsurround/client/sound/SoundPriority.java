@@ -0,0 +1,195 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.client.sound;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
+
+import net.minecraft.client.audio.ISound;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Estimates how loud a sound will be at the listener and how important it is
+ * to give it a sound channel. Used by the SoundEngine when deciding which
+ * sounds get played when the channels run short.
+ */
+@SideOnly(Side.CLIENT)
+public final class SoundPriority {
+
+	// Distance at which a sound at volume 1 fades to nothing. Matches the
+	// linear roll off the SoundManager sets up for a source.
+	private static final float ATTENUATION_DISTANCE = 16.0F;
+	private static final float STREAMING_BOOST = 2.0F;
+	private static final float REPEAT_BOOST = 1.5F;
+
+	private SoundPriority() {
+
+	}
+
+	/**
+	 * Relative importance of a sound category. Music and player generated sounds
+	 * are the most noticeable when missing.
+	 */
+	public static float getCategoryWeight(@Nullable final SoundCategory category) {
+		if (category == null)
+			return 1.0F;
+		switch (category) {
+		case MASTER:
+		case MUSIC:
+		case RECORDS:
+			return 4.0F;
+		case PLAYERS:
+			return 3.0F;
+		case HOSTILE:
+			return 2.5F;
+		case NEUTRAL:
+		case WEATHER:
+			return 1.5F;
+		default:
+			return 1.0F;
+		}
+	}
+
+	/**
+	 * Volume the sound is working towards. A sound that is fading in is judged by
+	 * the volume it will reach rather than the near silent volume it starts at.
+	 *
+	 * @param sound The sound to evaluate
+	 * @return Target volume of the sound
+	 */
+	public static float getTargetVolume(@Nonnull final ISound sound) {
+		return sound instanceof ISoundInstance ? ((ISoundInstance) sound).getTargetVolume() : sound.getVolume();
+	}
+
+	/**
+	 * Linear distance attenuation of the sound at the listener position.
+	 *
+	 * @param sound The sound to evaluate
+	 * @return Attenuation factor in the range 0 - 1
+	 */
+	public static float getAttenuation(@Nonnull final ISound sound) {
+		return getAttenuation(sound, getTargetVolume(sound));
+	}
+
+	private static float getAttenuation(@Nonnull final ISound sound, final float volume) {
+		if (sound.getAttenuationType() == ISound.AttenuationType.NONE)
+			return 1.0F;
+		final EntityPlayer player = EnvironState.getPlayer();
+		if (player == null)
+			return 1.0F;
+		final double dX = sound.getXPosF() - player.posX;
+		final double dY = sound.getYPosF() - (player.posY + player.getEyeHeight());
+		final double dZ = sound.getZPosF() - player.posZ;
+		return getAttenuation(dX * dX + dY * dY + dZ * dZ, volume);
+	}
+
+	/**
+	 * Linear distance attenuation of a sound of the given volume heard from the
+	 * given distance.
+	 *
+	 * @param distSq Squared distance between the sound and the listener
+	 * @param volume Volume of the sound
+	 * @return Attenuation factor in the range 0 - 1
+	 */
+	public static float getAttenuation(final double distSq, final float volume) {
+		final float range = ATTENUATION_DISTANCE * Math.max(volume, 1.0F);
+		if (distSq >= range * range)
+			return 0.0F;
+		return 1.0F - (float) (Math.sqrt(distSq) / range);
+	}
+
+	/**
+	 * Estimates the gain of the sound at the listener. Takes into account the
+	 * category volume, the configured volume scale of the sound, and distance.
+	 * The target volume of the sound is used so a sound that is fading in is not
+	 * mistaken for a quiet one.
+	 *
+	 * @param sound The sound to evaluate
+	 * @return Estimated gain in the range 0 - 1
+	 */
+	public static float getEstimatedGain(@Nonnull final ISound sound) {
+		// The variant is picked when the sound is played. Until then the estimate
+		// uses the placeholder SoundInstance starts out with.
+		if (sound.getSound() == null)
+			return 0.0F;
+		final float volume = getTargetVolume(sound);
+		return SoundEngine.getClampedVolume(sound, volume) * getAttenuation(sound, volume);
+	}
+
+	/**
+	 * Determines if a sound can be culled when it is too quiet at the listener.
+	 * Sounds that update themselves or repeat can become audible later on so
+	 * they are always let through, as are sounds that are not attenuated by
+	 * distance.
+	 *
+	 * @param tickable   Whether the sound updates itself each tick
+	 * @param repeat     Whether the sound repeats
+	 * @param attenuated Whether the sound fades with distance
+	 * @return true if the sound can be culled
+	 */
+	public static boolean canCull(final boolean tickable, final boolean repeat, final boolean attenuated) {
+		return !tickable && !repeat && attenuated;
+	}
+
+	/**
+	 * Computes the playback priority of a sound. Higher values are more
+	 * important.
+	 *
+	 * @param sound The sound to evaluate
+	 * @return Priority of the sound
+	 */
+	public static float getPriority(@Nonnull final ISound sound) {
+		return getPriority(getEstimatedGain(sound), sound.getCategory(), SoundEngine.isStreaming(sound),
+				sound.canRepeat());
+	}
+
+	/**
+	 * Computes the playback priority of a sound from its estimated gain and
+	 * characteristics.
+	 *
+	 * @param gain      Estimated gain of the sound at the listener
+	 * @param category  Category of the sound
+	 * @param streaming Whether the sound is streamed
+	 * @param repeat    Whether the sound repeats
+	 * @return Priority of the sound
+	 */
+	public static float getPriority(final float gain, @Nullable final SoundCategory category,
+			final boolean streaming, final boolean repeat) {
+		float priority = gain * getCategoryWeight(category);
+		// Streams and repeating sounds are long lived and cutting them off is far
+		// more noticeable than missing a one off
+		if (streaming)
+			priority *= STREAMING_BOOST;
+		if (repeat)
+			priority *= REPEAT_BOOST;
+		return priority;
+	}
+
+}
@@ -0,0 +1,246 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.client.sound;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.orecruncher.dsurround.ModBase;
+import org.orecruncher.lib.ReflectedField.BooleanField;
+import org.orecruncher.lib.ReflectedField.ObjectField;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import paulscode.sound.Library;
+import paulscode.sound.SoundBuffer;
+import paulscode.sound.SoundSystem;
+import paulscode.sound.SoundSystemConfig;
+import paulscode.sound.Source;
+
+/**
+ * Looks for sources in the sound library that the SoundManager no longer knows
+ * about and gets rid of them. The work is done on a background thread so the
+ * client thread never has to wait on the sound system lock. The client thread
+ * hands over a copy of the playing sound IDs and the reconciler compares that
+ * against the library sources.
+ *
+ * A source has to show up as an orphan in two passes before it is removed. A
+ * sound that was started after the ID snapshot was taken could already have a
+ * source in the library, but will be in the snapshot of the next pass.
+ *
+ * Sources are only ever cleaned up by the sound system command thread as part
+ * of removing them. When all sounds are stopped the client thread sweeps the
+ * library itself so nothing is left over for the next world.
+ */
+@SideOnly(Side.CLIENT)
+final class SoundReconciler {
+
+	//@formatter:off
+	private static final BooleanField<Source> removed =
+			new BooleanField<>(
+				Source.class,
+				"removed",
+				null
+			);
+	private static final ObjectField<Library, Map<String, SoundBuffer>> bufferMap =
+			new ObjectField<>(
+				Library.class,
+				"bufferMap",
+				null
+			);
+	//@formatter:on
+
+	private final AtomicBoolean running = new AtomicBoolean();
+	private ExecutorService executor;
+
+	// Only touched by the reconciler thread
+	private Set<String> candidates = new ObjectOpenHashSet<>();
+	private Set<String> working = new ObjectOpenHashSet<>();
+
+	private volatile long lastPassNanos = 0;
+	// Added to by both the client thread and the reconciler thread
+	private final AtomicInteger orphansRemoved = new AtomicInteger();
+	private volatile int passes = 0;
+	// Size of each buffer in the library as of the last pass. Replaced as a
+	// whole each pass, never changed after it is published.
+	private volatile Object2IntMap<String> buffers;
+
+	/**
+	 * Hands off a reconcile pass to the background thread. If a pass is still
+	 * running the request is ignored.
+	 *
+	 * @param sndSystem The sound system
+	 * @param library   The sound library of the sound system
+	 * @param playing   Snapshot of the IDs of the sounds the SoundManager is
+	 *                      playing. Ownership passes to the reconciler.
+	 */
+	public void submit(@Nonnull final SoundSystem sndSystem, @Nonnull final Library library,
+			@Nonnull final Set<String> playing) {
+		if (!this.running.compareAndSet(false, true))
+			return;
+		if (this.executor == null)
+			this.executor = Executors.newSingleThreadExecutor(
+					new ThreadFactoryBuilder().setNameFormat("DSurround Sound Reconciler").setDaemon(true).build());
+		this.executor.execute(() -> {
+			try {
+				reconcile(sndSystem, library, playing);
+			} catch (@Nonnull final Throwable t) {
+				ModBase.log().error("Error reconciling sound sources", t);
+			} finally {
+				this.running.set(false);
+			}
+		});
+	}
+
+	public boolean isRunning() {
+		return this.running.get();
+	}
+
+	/**
+	 * Removes every source that is not in the playing set right away, on the
+	 * calling thread. Used when all sounds have been stopped and there is no
+	 * chance of a new sound racing the check.
+	 *
+	 * @param sndSystem The sound system
+	 * @param library   The sound library of the sound system
+	 * @param playing   IDs of the sounds the SoundManager is playing
+	 */
+	public void sweep(@Nonnull final SoundSystem sndSystem, @Nonnull final Library library,
+			@Nonnull final Set<String> playing) {
+		final ObjectArrayList<String> orphans = new ObjectArrayList<>();
+		synchronized (SoundSystemConfig.THREAD_SYNC) {
+			for (final Map.Entry<String, Source> e : library.getSources().entrySet()) {
+				if (!playing.contains(e.getKey())) {
+					markRemoved(e.getValue());
+					orphans.add(e.getKey());
+				}
+			}
+		}
+		orphans.forEach(sndSystem::removeSource);
+		this.orphansRemoved.addAndGet(orphans.size());
+	}
+
+	/**
+	 * Stops the background thread. A new one is started by the next submit().
+	 */
+	public void shutdown() {
+		this.buffers = null;
+		if (this.executor != null) {
+			this.executor.shutdown();
+			this.executor = null;
+		}
+	}
+
+	private void reconcile(@Nonnull final SoundSystem sndSystem, @Nonnull final Library library,
+			@Nonnull final Set<String> playing) {
+		final long start = System.nanoTime();
+		final ObjectArrayList<String> orphans = new ObjectArrayList<>();
+
+		synchronized (SoundSystemConfig.THREAD_SYNC) {
+			final Map<String, Source> sources = library.getSources();
+			for (final Map.Entry<String, Source> e : sources.entrySet()) {
+				final String id = e.getKey();
+				if (playing.contains(id))
+					continue;
+				if (this.candidates.contains(id)) {
+					final Source src = e.getValue();
+					ModBase.log().debug("Killing orphaned sound [%s]",
+							src.filenameURL != null ? src.filenameURL.getFilename() : "UNKNOWN");
+					markRemoved(src);
+					orphans.add(id);
+				} else {
+					this.working.add(id);
+				}
+			}
+
+			// While we have the lock see how much sound data the library is holding
+			final Map<String, SoundBuffer> buffers = bufferMap.get(library);
+			if (buffers != null) {
+				final Object2IntOpenHashMap<String> sizes = new Object2IntOpenHashMap<>(buffers.size());
+				for (final Map.Entry<String, SoundBuffer> e : buffers.entrySet()) {
+					final SoundBuffer b = e.getValue();
+					sizes.put(e.getKey(), b != null && b.audioData != null ? b.audioData.length : 0);
+				}
+				this.buffers = sizes;
+			}
+		}
+
+		// Removal, and with it the cleanup of the source, is queued to the sound
+		// system command thread
+		orphans.forEach(sndSystem::removeSource);
+
+		final Set<String> t = this.candidates;
+		this.candidates = this.working;
+		this.working = t;
+		this.working.clear();
+
+		this.orphansRemoved.addAndGet(orphans.size());
+		this.passes++;
+		this.lastPassNanos = System.nanoTime() - start;
+	}
+
+	// A streaming source is also tracked by the stream thread. Flag it so that
+	// thread lets go of it as well.
+	private static void markRemoved(@Nonnull final Source source) {
+		if (source.toStream)
+			removed.set(source, true);
+	}
+
+	public long getLastPassNanos() {
+		return this.lastPassNanos;
+	}
+
+	public int getOrphansRemoved() {
+		return this.orphansRemoved.get();
+	}
+
+	public int getPasses() {
+		return this.passes;
+	}
+
+	/**
+	 * The identifiers and sizes of the buffers the sound library held as of the
+	 * last pass, or null if there has not been one. The map is not to be
+	 * modified.
+	 */
+	@Nullable
+	public Object2IntMap<String> getBuffers() {
+		return this.buffers;
+	}
+
+}
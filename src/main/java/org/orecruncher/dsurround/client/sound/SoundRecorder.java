@@ -0,0 +1,304 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.client.sound;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nonnull;
+
+import org.orecruncher.dsurround.ModBase;
+import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
+
+import it.unimi.dsi.fastutil.objects.Object2FloatMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.client.audio.ISound;
+import net.minecraft.client.audio.ITickableSound;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Records the sound requests made of the sound handler and engine so that the
+ * load can be looked at outside of the game. Turned on with the SOUND_RECORD
+ * debug flag; a file is written to the mod data directory for each session.
+ *
+ * The file is a gzip stream of records. Each record starts with a type byte:
+ * <ul>
+ * <li>DEFINE: short id, UTF name - assigns an id to a sound name</li>
+ * <li>TICK: int tick, float x, y, z - following records happened during this
+ * tick, with the listener at the given position</li>
+ * <li>PLAY: short id, byte category, byte flags, float x, y, z, float volume,
+ * float pitch, short delay</li>
+ * <li>AMBIENT: short count, then count times short id, float volume</li>
+ * <li>STOP: short id, float x, y, z</li>
+ * </ul>
+ * Ids, counts and delays are unsigned shorts. Recording stops if the sound
+ * names run past what an id can hold.
+ */
+@SideOnly(Side.CLIENT)
+public final class SoundRecorder {
+
+	private static final int MAGIC = 0x44535357; // DSSW
+	private static final int VERSION = 3;
+
+	public static final byte DEFINE = 0;
+	public static final byte TICK = 1;
+	public static final byte PLAY = 2;
+	public static final byte AMBIENT = 3;
+	public static final byte STOP = 4;
+
+	public static final int FLAG_ATTENUATION = 0x1;
+	public static final int FLAG_REPEAT = 0x2;
+	public static final int FLAG_STREAMING = 0x4;
+	public static final int FLAG_QUEUE = 0x8;
+	public static final int FLAG_TICKABLE = 0x10;
+
+	// Ids are written as unsigned shorts
+	private static final int MAX_ID = 0xFFFF;
+
+	private static DataOutputStream out;
+	private static final Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>();
+	private static int lastTick;
+
+	private SoundRecorder() {
+
+	}
+
+	public static boolean isRecording() {
+		return out != null;
+	}
+
+	public static void start() {
+		stop();
+		final String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+		final File file = new File(ModBase.dataDirectory(), "soundworkload-" + stamp + ".bin");
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			ids.clear();
+			lastTick = Integer.MIN_VALUE;
+			ModBase.log().info("Recording sound workload to %s", file.getAbsolutePath());
+		} catch (@Nonnull final IOException e) {
+			ModBase.log().error("Unable to start sound workload recording", e);
+			out = null;
+		}
+	}
+
+	public static void stop() {
+		if (out != null) {
+			try {
+				out.close();
+			} catch (@Nonnull final IOException e) {
+				ModBase.log().error("Error closing sound workload recording", e);
+			}
+			out = null;
+		}
+	}
+
+	private static int id(@Nonnull final String name) throws IOException {
+		int id = ids.getInt(name);
+		if (id == 0) {
+			if (ids.size() >= MAX_ID)
+				throw new IOException("Too many sound names to record");
+			id = ids.size() + 1;
+			ids.put(name, id);
+			out.writeByte(DEFINE);
+			out.writeShort(id);
+			out.writeUTF(name);
+		}
+		return id;
+	}
+
+	private static void tick() throws IOException {
+		final int tick = EnvironState.getTickCounter();
+		if (tick != lastTick) {
+			lastTick = tick;
+			final EntityPlayer player = EnvironState.getPlayer();
+			out.writeByte(TICK);
+			out.writeInt(tick);
+			out.writeFloat(player != null ? (float) player.posX : 0F);
+			out.writeFloat(player != null ? (float) (player.posY + player.getEyeHeight()) : 0F);
+			out.writeFloat(player != null ? (float) player.posZ : 0F);
+		}
+	}
+
+	private static void failed(@Nonnull final IOException e) {
+		ModBase.log().error("Error writing sound workload recording", e);
+		stop();
+	}
+
+	public static void recordPlay(@Nonnull final ISound sound, final int delay) {
+		if (out == null)
+			return;
+		try {
+			final int id = id(sound.getSoundLocation().toString());
+			tick();
+			int flags = 0;
+			if (sound.getAttenuationType() != ISound.AttenuationType.NONE)
+				flags |= FLAG_ATTENUATION;
+			if (sound.canRepeat())
+				flags |= FLAG_REPEAT;
+			if (SoundEngine.isStreaming(sound))
+				flags |= FLAG_STREAMING;
+			if (sound instanceof ISoundInstance && ((ISoundInstance) sound).getQueue())
+				flags |= FLAG_QUEUE;
+			if (sound instanceof ITickableSound)
+				flags |= FLAG_TICKABLE;
+			out.writeByte(PLAY);
+			out.writeShort(id);
+			out.writeByte(sound.getCategory() != null ? sound.getCategory().ordinal() : 0);
+			out.writeByte(flags);
+			out.writeFloat(sound.getXPosF());
+			out.writeFloat(sound.getYPosF());
+			out.writeFloat(sound.getZPosF());
+			// The underlying sound may not have been resolved yet
+			out.writeFloat(sound instanceof SoundInstance ? ((SoundInstance) sound).getBaseVolume() : 1F);
+			out.writeFloat(sound.getSound() != null ? sound.getPitch() : 1F);
+			out.writeShort(Math.min(delay, MAX_ID));
+		} catch (@Nonnull final IOException e) {
+			failed(e);
+		}
+	}
+
+	public static void recordAmbient(@Nonnull final Object2FloatMap<SoundEffect> sounds) {
+		if (out == null)
+			return;
+		try {
+			final ObjectArrayList<Object2FloatMap.Entry<SoundEffect>> entries = new ObjectArrayList<>();
+			for (final Object2FloatMap.Entry<SoundEffect> e : sounds.object2FloatEntrySet())
+				if (e.getKey().getSound() != null)
+					entries.add(e);
+			final int[] idList = new int[Math.min(entries.size(), MAX_ID)];
+			for (int i = 0; i < idList.length; i++)
+				idList[i] = id(entries.get(i).getKey().getSound().getSoundName().toString());
+			tick();
+			out.writeByte(AMBIENT);
+			out.writeShort(idList.length);
+			for (int i = 0; i < idList.length; i++) {
+				out.writeShort(idList[i]);
+				out.writeFloat(entries.get(i).getFloatValue());
+			}
+		} catch (@Nonnull final IOException e) {
+			failed(e);
+		}
+	}
+
+	public static void recordStop(@Nonnull final ISound sound) {
+		if (out == null)
+			return;
+		try {
+			final int id = id(sound.getSoundLocation().toString());
+			tick();
+			out.writeByte(STOP);
+			out.writeShort(id);
+			out.writeFloat(sound.getXPosF());
+			out.writeFloat(sound.getYPosF());
+			out.writeFloat(sound.getZPosF());
+		} catch (@Nonnull final IOException e) {
+			failed(e);
+		}
+	}
+
+	/**
+	 * Receives the records read back from a recording.
+	 */
+	public interface IListener {
+		void define(int id, @Nonnull String name);
+
+		void tick(int tick, float x, float y, float z);
+
+		void play(int id, int category, int flags, float x, float y, float z, float volume, float pitch, int delay);
+
+		void ambient(@Nonnull int[] ids, @Nonnull float[] volumes);
+
+		void stop(int id, float x, float y, float z);
+	}
+
+	/**
+	 * Reads back a recording, handing each record to the listener in order.
+	 *
+	 * @param file     The recording to read
+	 * @param listener Receives the records
+	 * @throws IOException If the file could not be read or is not a recording
+	 */
+	public static void read(@Nonnull final File file, @Nonnull final IListener listener) throws IOException {
+		try (final DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION)
+				throw new IOException("Not a sound workload recording: " + file.getName());
+			while (true) {
+				final int type;
+				try {
+					type = in.readByte();
+				} catch (@Nonnull final EOFException e) {
+					break;
+				}
+				switch (type) {
+				case DEFINE:
+					listener.define(in.readUnsignedShort(), in.readUTF());
+					break;
+				case TICK:
+					listener.tick(in.readInt(), in.readFloat(), in.readFloat(), in.readFloat());
+					break;
+				case PLAY:
+					listener.play(in.readUnsignedShort(), in.readUnsignedByte(), in.readUnsignedByte(), in.readFloat(),
+							in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat(), in.readUnsignedShort());
+					break;
+				case AMBIENT: {
+					final int count = in.readUnsignedShort();
+					final int[] idList = new int[count];
+					final float[] volumes = new float[count];
+					for (int i = 0; i < count; i++) {
+						idList[i] = in.readUnsignedShort();
+						volumes[i] = in.readFloat();
+					}
+					listener.ambient(idList, volumes);
+					break;
+				}
+				case STOP:
+					listener.stop(in.readUnsignedShort(), in.readFloat(), in.readFloat(), in.readFloat());
+					break;
+				default:
+					throw new IOException("Unknown record type " + type + " in " + file.getName());
+				}
+			}
+		}
+	}
+
+}
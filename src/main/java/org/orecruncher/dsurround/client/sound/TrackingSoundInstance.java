@@ -142,6 +142,30 @@ public class TrackingSoundInstance extends SoundInstance implements ITickableSou
 		}
 	}
 
+	/**
+	 * Puts the sound back into its initial state so it can be played again. Only
+	 * valid once the sound engine is finished with it.
+	 *
+	 * @param fadeIn Whether the sound should fade in
+	 */
+	void reset(final boolean fadeIn) {
+		this.isFading = false;
+		this.isDonePlaying = false;
+		this.maxVolume = this.effect.getVolume();
+		this.volume = fadeIn ? DONE_VOLUME_THRESHOLD * 2 : this.maxVolume;
+		this.pitch = this.effect.getPitch(RANDOM);
+		this.lastTick = EnvironState.getTickCounter() - 1;
+		this.volumeThrottle = 1.0F;
+		setState(SoundState.NONE);
+		updateLocation();
+	}
+
+	@Override
+	public float getTargetVolume() {
+		// A sound fading out is on its way to nothing
+		return this.isFading ? getVolume() : this.maxVolume * this.volumeThrottle;
+	}
+
 	@Override
 	public TrackingSoundInstance setVolume(final float volume) {
 		if (volume < this.maxVolume || !this.isFading)
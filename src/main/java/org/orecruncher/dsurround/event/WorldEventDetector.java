@@ -74,7 +74,10 @@ public class WorldEventDetector implements IWorldEventListener {
 
 	@Override
 	public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {
-
+		if (this.world.provider.getDimension() == EnvironState.getDimensionId()) {
+			final BlockRangeUpdateEvent event = new BlockRangeUpdateEvent(this.world, x1, y1, z1, x2, y2, z2);
+			MinecraftForge.EVENT_BUS.post(event);
+		}
 	}
 
 	@Override
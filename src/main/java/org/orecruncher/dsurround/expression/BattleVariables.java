@@ -22,18 +22,18 @@
  */
 package org.orecruncher.dsurround.expression;
 
+import javax.annotation.Nonnull;
+
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
-import org.orecruncher.lib.expression.Dynamic;
-import org.orecruncher.lib.expression.DynamicVariantList;
 
-public class BattleVariables extends DynamicVariantList {
+public class BattleVariables extends SampledVariantList {
 
-	public BattleVariables() {
-		add(new Dynamic.DynamicBoolean("battle.inBattle", () -> EnvironState.getBattleScanner().inBattle()));
-		add(new Dynamic.DynamicBoolean("battle.isBoss", () -> EnvironState.getBattleScanner().isBoss()));
-		add(new Dynamic.DynamicBoolean("battle.isWither", () -> EnvironState.getBattleScanner().isWither()));
-		add(new Dynamic.DynamicBoolean("battle.isDragon", () -> EnvironState.getBattleScanner().isDragon()));
-		add(new Dynamic.DynamicNumber("battle.hostileCount",
-				() -> (float) EnvironState.getBattleScanner().hostileCount()));
+	public BattleVariables(@Nonnull final VariableSnapshot snapshot) {
+		super(snapshot);
+		addBoolean("battle.inBattle", () -> EnvironState.getBattleScanner().inBattle());
+		addBoolean("battle.isBoss", () -> EnvironState.getBattleScanner().isBoss());
+		addBoolean("battle.isWither", () -> EnvironState.getBattleScanner().isWither());
+		addBoolean("battle.isDragon", () -> EnvironState.getBattleScanner().isDragon());
+		addNumber("battle.hostileCount", () -> (float) EnvironState.getBattleScanner().hostileCount());
 	}
 }
@@ -24,20 +24,20 @@ package org.orecruncher.dsurround.expression;
 
 import java.util.Set;
 
+import javax.annotation.Nonnull;
+
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.orecruncher.dsurround.registry.biome.BiomeUtil;
-import org.orecruncher.lib.expression.Dynamic;
-import org.orecruncher.lib.expression.DynamicVariantList;
 
 import net.minecraftforge.common.BiomeDictionary;
 
-public class BiomeTypeVariables extends DynamicVariantList {
+public class BiomeTypeVariables extends SampledVariantList {
 
-	public BiomeTypeVariables() {
+	public BiomeTypeVariables(@Nonnull final VariableSnapshot snapshot) {
+		super(snapshot);
 		// Scan the BiomeDictionary adding the the types
 		final Set<BiomeDictionary.Type> types = BiomeUtil.getBiomeTypes();
 		for (final BiomeDictionary.Type t : types)
-			add(new Dynamic.DynamicBoolean("biome.is" + t.getName(),
-					() -> EnvironState.getTruePlayerBiome().isBiomeType(t)));
+			addBoolean("biome.is" + t.getName(), () -> EnvironState.getTruePlayerBiome().isBiomeType(t));
 	}
 }
@@ -22,19 +22,20 @@
  */
 package org.orecruncher.dsurround.expression;
 
+import javax.annotation.Nonnull;
+
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
-import org.orecruncher.lib.expression.Dynamic;
-import org.orecruncher.lib.expression.DynamicVariantList;
 
-public class BiomeVariables extends DynamicVariantList {
+public class BiomeVariables extends SampledVariantList {
 
-	public BiomeVariables() {
-		add(new Dynamic.DynamicString("biome.name", () -> EnvironState.getBiomeName()));
-		add(new Dynamic.DynamicString("biome.id", () -> EnvironState.getPlayerBiome().getKey().toString()));
-		add(new Dynamic.DynamicString("biome.modid", () -> EnvironState.getPlayerBiome().getKey().getNamespace()));
-		add(new Dynamic.DynamicString("biome.temperature", () -> EnvironState.getBiomeTemperature().getValue()));
-		add(new Dynamic.DynamicNumber("biome.rainfall", () -> EnvironState.getPlayerBiome().getRainfall()));
-		add(new Dynamic.DynamicNumber("biome.temperatureValue", () -> EnvironState.getPlayerBiome().getTemperature()));
-		add(new Dynamic.DynamicString("biome.traits", () -> EnvironState.getPlayerBiome().getBiomeTraits()));
+	public BiomeVariables(@Nonnull final VariableSnapshot snapshot) {
+		super(snapshot);
+		addString("biome.name", () -> EnvironState.getBiomeName());
+		addString("biome.id", () -> EnvironState.getPlayerBiome().getKey().toString());
+		addString("biome.modid", () -> EnvironState.getPlayerBiome().getKey().getNamespace());
+		addString("biome.temperature", () -> EnvironState.getBiomeTemperature().getValue());
+		addNumber("biome.rainfall", () -> EnvironState.getPlayerBiome().getRainfall());
+		addNumber("biome.temperatureValue", () -> EnvironState.getPlayerBiome().getTemperature());
+		addString("biome.traits", () -> EnvironState.getPlayerBiome().getBiomeTraits());
 	}
 }
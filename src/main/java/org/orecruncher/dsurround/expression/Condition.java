@@ -0,0 +1,126 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.expression;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang3.StringUtils;
+
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * A script condition that has been compiled once when the owning effect was
+ * loaded from configuration. Evaluation reads the bound script variables
+ * directly rather than going through the expression cache by string, so a test
+ * does not hash the script text or allocate.
+ */
+@SideOnly(Side.CLIENT)
+public abstract class Condition {
+
+	private static final SampledVariable[] NO_VARIABLES = {};
+
+	public static final Condition TRUE = new Constant(StringUtils.EMPTY, true);
+	public static final Condition FALSE = new Constant("FALSE", false);
+
+	private final String source;
+
+	protected Condition(@Nonnull final String source) {
+		this.source = source;
+	}
+
+	/**
+	 * Compiles the script text into a condition. Empty text always evaluates to
+	 * true.
+	 */
+	@Nonnull
+	public static Condition compile(@Nullable final String source) {
+		if (StringUtils.isEmpty(source))
+			return TRUE;
+		return ExpressionEngine.instance().compile(source);
+	}
+
+	/**
+	 * Evaluates the condition against the current state of the script variables.
+	 * Implementations may return the previous result if none of the variables
+	 * they read have changed version since.
+	 */
+	public abstract boolean test();
+
+	/**
+	 * Indicates whether the condition folded down to a fixed value during
+	 * compilation.
+	 */
+	public boolean isConstant() {
+		return false;
+	}
+
+	/**
+	 * The script variables the condition reads. A null return means the
+	 * dependencies are not known, as is the case for scripts that could not be
+	 * compiled and are evaluated through the expression cache.
+	 */
+	@Nullable
+	public SampledVariable[] getVariables() {
+		return NO_VARIABLES;
+	}
+
+	@Nonnull
+	static Condition constant(@Nonnull final String source, final boolean value) {
+		return new Constant(source, value);
+	}
+
+	@Nonnull
+	public String getSource() {
+		return this.source;
+	}
+
+	@Override
+	@Nonnull
+	public String toString() {
+		return this.source;
+	}
+
+	private static final class Constant extends Condition {
+
+		private final boolean value;
+
+		Constant(@Nonnull final String source, final boolean value) {
+			super(source);
+			this.value = value;
+		}
+
+		@Override
+		public boolean test() {
+			return this.value;
+		}
+
+		@Override
+		public boolean isConstant() {
+			return true;
+		}
+	}
+}
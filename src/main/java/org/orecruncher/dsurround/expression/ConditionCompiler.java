@@ -0,0 +1,684 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.expression;
+
+import javax.annotation.Nonnull;
+
+import org.orecruncher.dsurround.expression.SampledVariable.SampledBoolean;
+import org.orecruncher.dsurround.expression.SampledVariable.SampledNumber;
+import org.orecruncher.dsurround.expression.SampledVariable.SampledString;
+import org.orecruncher.lib.collections.ObjectArray;
+import org.orecruncher.lib.expression.ExpressionCache;
+
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Compiles condition scripts into a tree of typed nodes bound directly to the
+ * sampled script variables. Only the subset of the script language that conditions
+ * actually use is understood: literals, variables, the boolean, comparison and
+ * arithmetic operators, and parenthesis. Anything else (function calls, string
+ * concatenation, unknown names) causes the script to be handed back to the
+ * expression cache so behavior is never changed by compilation.
+ */
+@SideOnly(Side.CLIENT)
+final class ConditionCompiler {
+
+	private enum Kind {
+		BOOLEAN, NUMBER, STRING
+	}
+
+	private final VariableSnapshot snapshot;
+	private final ExpressionCache cache;
+
+	ConditionCompiler(@Nonnull final VariableSnapshot snapshot, @Nonnull final ExpressionCache cache) {
+		this.snapshot = snapshot;
+		this.cache = cache;
+	}
+
+	@Nonnull
+	Condition compile(@Nonnull final String source) {
+		final Parser parser = new Parser(source);
+		try {
+			final Node root = parser.parse();
+			if (root.isConstant())
+				return Condition.constant(source, root.asBoolean());
+			final SampledVariable[] deps = parser.dependencies.toArray(new SampledVariable[0]);
+			return new Compiled(source, root, deps);
+		} catch (@Nonnull final CompileException ex) {
+			return interpret(source);
+		}
+	}
+
+	/**
+	 * Wraps the script in a condition that is always evaluated through the
+	 * expression cache.
+	 */
+	@Nonnull
+	Condition interpret(@Nonnull final String source) {
+		return new Interpreted(source, this.cache);
+	}
+
+	/**
+	 * Indicates whether the condition was compiled into a node tree, as opposed
+	 * to folded into a constant or left to the expression cache.
+	 */
+	static boolean isCompiled(@Nonnull final Condition condition) {
+		return condition instanceof Compiled;
+	}
+
+	/**
+	 * Condition backed by a compiled node tree. The result of the last evaluation
+	 * is reused until one of the variables it reads changes version.
+	 */
+	private static final class Compiled extends Condition {
+
+		private final Node root;
+		private final SampledVariable[] dependencies;
+		private final int[] versions;
+		private boolean evaluated;
+		private boolean result;
+
+		Compiled(@Nonnull final String source, @Nonnull final Node root,
+				@Nonnull final SampledVariable[] dependencies) {
+			super(source);
+			this.root = root;
+			this.dependencies = dependencies;
+			this.versions = new int[dependencies.length];
+		}
+
+		@Override
+		public boolean test() {
+			boolean changed = !this.evaluated;
+			for (int i = 0; i < this.dependencies.length; i++) {
+				final int v = this.dependencies[i].getVersion();
+				if (v != this.versions[i]) {
+					this.versions[i] = v;
+					changed = true;
+				}
+			}
+			if (changed) {
+				this.result = this.root.asBoolean();
+				this.evaluated = true;
+			}
+			return this.result;
+		}
+
+		@Override
+		public SampledVariable[] getVariables() {
+			return this.dependencies;
+		}
+	}
+
+	/**
+	 * Condition that could not be compiled and is evaluated through the
+	 * expression cache like before.
+	 */
+	private static final class Interpreted extends Condition {
+
+		private final ExpressionCache cache;
+
+		Interpreted(@Nonnull final String source, @Nonnull final ExpressionCache cache) {
+			super(source);
+			this.cache = cache;
+		}
+
+		@Override
+		public boolean test() {
+			return this.cache.check(getSource());
+		}
+
+		@Override
+		public SampledVariable[] getVariables() {
+			return null;
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static final class CompileException extends Exception {
+		CompileException() {
+			super(null, null, false, false);
+		}
+	}
+
+	private static final CompileException UNSUPPORTED = new CompileException();
+
+	//////////////////////////////
+	//
+	// Parsing
+	//
+	//////////////////////////////
+
+	private final class Parser {
+
+		private final String text;
+		private final ObjectArray<SampledVariable> dependencies = new ObjectArray<>();
+		private int pos;
+
+		Parser(@Nonnull final String text) {
+			this.text = text;
+		}
+
+		Node parse() throws CompileException {
+			final Node node = or();
+			skipWhitespace();
+			if (this.pos != this.text.length())
+				throw UNSUPPORTED;
+			return node;
+		}
+
+		private void skipWhitespace() {
+			while (this.pos < this.text.length() && Character.isWhitespace(this.text.charAt(this.pos)))
+				this.pos++;
+		}
+
+		private boolean accept(@Nonnull final String token) {
+			skipWhitespace();
+			if (this.text.startsWith(token, this.pos)) {
+				this.pos += token.length();
+				return true;
+			}
+			return false;
+		}
+
+		private boolean peek(final char c) {
+			skipWhitespace();
+			return this.pos < this.text.length() && this.text.charAt(this.pos) == c;
+		}
+
+		private Node or() throws CompileException {
+			Node node = and();
+			while (accept("||"))
+				node = fold(Logical.or(node, and()));
+			return node;
+		}
+
+		private Node and() throws CompileException {
+			Node node = comparison();
+			while (accept("&&"))
+				node = fold(Logical.and(node, comparison()));
+			return node;
+		}
+
+		private Node comparison() throws CompileException {
+			Node node = additive();
+			for (;;) {
+				final Compare.Op op;
+				if (accept("=="))
+					op = Compare.Op.EQ;
+				else if (accept("!=") || accept("<>"))
+					op = Compare.Op.NE;
+				else if (accept("<="))
+					op = Compare.Op.LE;
+				else if (accept(">="))
+					op = Compare.Op.GE;
+				else if (accept("<"))
+					op = Compare.Op.LT;
+				else if (accept(">"))
+					op = Compare.Op.GT;
+				else if (accept("="))
+					op = Compare.Op.EQ;
+				else
+					return node;
+				node = fold(new Compare(op, node, additive()));
+			}
+		}
+
+		private Node additive() throws CompileException {
+			Node node = multiplicative();
+			for (;;) {
+				if (accept("+"))
+					node = fold(new Arithmetic('+', node, multiplicative()));
+				else if (accept("-"))
+					node = fold(new Arithmetic('-', node, multiplicative()));
+				else
+					return node;
+			}
+		}
+
+		private Node multiplicative() throws CompileException {
+			Node node = unary();
+			for (;;) {
+				if (accept("*"))
+					node = fold(new Arithmetic('*', node, unary()));
+				else if (accept("/"))
+					node = fold(new Arithmetic('/', node, unary()));
+				else if (accept("%"))
+					node = fold(new Arithmetic('%', node, unary()));
+				else
+					return node;
+			}
+		}
+
+		private Node unary() throws CompileException {
+			// Make sure != is not taken as a not
+			if (peek('!') && !this.text.startsWith("!=", this.pos)) {
+				this.pos++;
+				return fold(new Not(unary()));
+			}
+			if (accept("-"))
+				return fold(new Arithmetic('-', Const.ZERO, unary()));
+			if (accept("+"))
+				return fold(new Arithmetic('+', Const.ZERO, unary()));
+			return primary();
+		}
+
+		private Node primary() throws CompileException {
+			skipWhitespace();
+			if (this.pos >= this.text.length())
+				throw UNSUPPORTED;
+
+			final char c = this.text.charAt(this.pos);
+			if (c == '(') {
+				this.pos++;
+				final Node node = or();
+				if (!accept(")"))
+					throw UNSUPPORTED;
+				return node;
+			}
+
+			if (c == '\'' || c == '"') {
+				final int end = this.text.indexOf(c, this.pos + 1);
+				if (end < 0)
+					throw UNSUPPORTED;
+				final String value = this.text.substring(this.pos + 1, end);
+				this.pos = end + 1;
+				return new Const(value);
+			}
+
+			if (Character.isDigit(c) || c == '.') {
+				final int start = this.pos;
+				while (this.pos < this.text.length()
+						&& (Character.isDigit(this.text.charAt(this.pos)) || this.text.charAt(this.pos) == '.'))
+					this.pos++;
+				try {
+					return new Const(Float.parseFloat(this.text.substring(start, this.pos)));
+				} catch (@Nonnull final NumberFormatException ex) {
+					throw UNSUPPORTED;
+				}
+			}
+
+			if (Character.isLetter(c) || c == '_') {
+				final int start = this.pos;
+				while (this.pos < this.text.length() && isNameChar(this.text.charAt(this.pos)))
+					this.pos++;
+				final String name = this.text.substring(start, this.pos);
+
+				// Function calls are left to the expression engine
+				if (peek('('))
+					throw UNSUPPORTED;
+
+				if ("true".equalsIgnoreCase(name))
+					return Const.TRUE;
+				if ("false".equalsIgnoreCase(name))
+					return Const.FALSE;
+
+				return variable(name);
+			}
+
+			throw UNSUPPORTED;
+		}
+
+		private Node variable(@Nonnull final String name) throws CompileException {
+			final SampledVariable v = ConditionCompiler.this.snapshot.get(name);
+			if (v == null)
+				throw UNSUPPORTED;
+
+			final Kind kind;
+			if (v instanceof SampledBoolean)
+				kind = Kind.BOOLEAN;
+			else if (v instanceof SampledNumber)
+				kind = Kind.NUMBER;
+			else if (v instanceof SampledString)
+				kind = Kind.STRING;
+			else
+				throw UNSUPPORTED;
+
+			if (!this.dependencies.contains(v))
+				this.dependencies.add(v);
+			return new Variable(kind, v);
+		}
+
+		private boolean isNameChar(final char c) {
+			return Character.isLetterOrDigit(c) || c == '_' || c == '.';
+		}
+
+		/**
+		 * Collapses a node whose inputs are all constant into a literal.
+		 */
+		private Node fold(@Nonnull final Node node) {
+			if (!node.isConstant() || node instanceof Const)
+				return node;
+			switch (node.kind) {
+			case BOOLEAN:
+				return node.asBoolean() ? Const.TRUE : Const.FALSE;
+			case NUMBER:
+				return new Const(node.asNumber());
+			default:
+				return new Const(node.asString());
+			}
+		}
+	}
+
+	//////////////////////////////
+	//
+	// Nodes
+	//
+	//////////////////////////////
+
+	private static abstract class Node {
+
+		protected final Kind kind;
+
+		Node(@Nonnull final Kind kind) {
+			this.kind = kind;
+		}
+
+		abstract boolean isConstant();
+
+		boolean asBoolean() {
+			return this.kind == Kind.NUMBER && asNumber() != 0F;
+		}
+
+		float asNumber() {
+			return asBoolean() ? 1F : 0F;
+		}
+
+		String asString() {
+			return this.kind == Kind.NUMBER ? Float.toString(asNumber()) : Boolean.toString(asBoolean());
+		}
+
+		Node requireLogical() throws CompileException {
+			// How a string converts to a boolean is up to the expression engine
+			if (this.kind == Kind.STRING)
+				throw UNSUPPORTED;
+			return this;
+		}
+
+		Node requireNumber() throws CompileException {
+			if (this.kind != Kind.NUMBER)
+				throw UNSUPPORTED;
+			return this;
+		}
+	}
+
+	private static final class Const extends Node {
+
+		static final Const TRUE = new Const(true);
+		static final Const FALSE = new Const(false);
+		static final Const ZERO = new Const(0F);
+
+		private final boolean bool;
+		private final float number;
+		private final String string;
+
+		private Const(final boolean value) {
+			super(Kind.BOOLEAN);
+			this.bool = value;
+			this.number = value ? 1F : 0F;
+			this.string = Boolean.toString(value);
+		}
+
+		Const(final float value) {
+			super(Kind.NUMBER);
+			this.bool = value != 0F;
+			this.number = value;
+			this.string = Float.toString(value);
+		}
+
+		Const(@Nonnull final String value) {
+			super(Kind.STRING);
+			this.bool = false;
+			this.number = 0F;
+			this.string = value;
+		}
+
+		@Override
+		boolean isConstant() {
+			return true;
+		}
+
+		@Override
+		boolean asBoolean() {
+			return this.bool;
+		}
+
+		@Override
+		float asNumber() {
+			return this.number;
+		}
+
+		@Override
+		String asString() {
+			return this.string;
+		}
+	}
+
+	private static final class Variable extends Node {
+
+		private final SampledVariable variant;
+
+		Variable(@Nonnull final Kind kind, @Nonnull final SampledVariable variant) {
+			super(kind);
+			this.variant = variant;
+		}
+
+		@Override
+		boolean isConstant() {
+			return false;
+		}
+
+		@Override
+		boolean asBoolean() {
+			return this.variant.asBoolean();
+		}
+
+		@Override
+		float asNumber() {
+			return this.variant.asNumber();
+		}
+
+		@Override
+		String asString() {
+			return this.variant.asString();
+		}
+	}
+
+	private static final class Not extends Node {
+
+		private final Node operand;
+
+		Not(@Nonnull final Node operand) throws CompileException {
+			super(Kind.BOOLEAN);
+			this.operand = operand.requireLogical();
+		}
+
+		@Override
+		boolean isConstant() {
+			return this.operand.isConstant();
+		}
+
+		@Override
+		boolean asBoolean() {
+			return !this.operand.asBoolean();
+		}
+	}
+
+	private static final class Logical extends Node {
+
+		private final boolean isAnd;
+		private final Node left;
+		private final Node right;
+
+		private Logical(final boolean isAnd, @Nonnull final Node left, @Nonnull final Node right) {
+			super(Kind.BOOLEAN);
+			this.isAnd = isAnd;
+			this.left = left;
+			this.right = right;
+		}
+
+		static Node and(@Nonnull final Node left, @Nonnull final Node right) throws CompileException {
+			left.requireLogical();
+			right.requireLogical();
+			// A constant on either side decides or drops out. Variables have no side
+			// effects so the order of evaluation does not matter.
+			if (left.isConstant())
+				return left.asBoolean() ? asLogical(right) : Const.FALSE;
+			if (right.isConstant())
+				return right.asBoolean() ? asLogical(left) : Const.FALSE;
+			return new Logical(true, left, right);
+		}
+
+		static Node or(@Nonnull final Node left, @Nonnull final Node right) throws CompileException {
+			left.requireLogical();
+			right.requireLogical();
+			if (left.isConstant())
+				return left.asBoolean() ? Const.TRUE : asLogical(right);
+			if (right.isConstant())
+				return right.asBoolean() ? Const.TRUE : asLogical(left);
+			return new Logical(false, left, right);
+		}
+
+		private static Node asLogical(@Nonnull final Node node) throws CompileException {
+			return node.kind == Kind.BOOLEAN ? node : new Not(new Not(node));
+		}
+
+		@Override
+		boolean isConstant() {
+			return this.left.isConstant() && this.right.isConstant();
+		}
+
+		@Override
+		boolean asBoolean() {
+			if (this.isAnd)
+				return this.left.asBoolean() && this.right.asBoolean();
+			return this.left.asBoolean() || this.right.asBoolean();
+		}
+	}
+
+	private static final class Compare extends Node {
+
+		enum Op {
+			EQ, NE, LT, LE, GT, GE
+		}
+
+		private final Op op;
+		private final Node left;
+		private final Node right;
+		private final Kind compareAs;
+
+		Compare(@Nonnull final Op op, @Nonnull final Node left, @Nonnull final Node right)
+				throws CompileException {
+			super(Kind.BOOLEAN);
+			// Comparing text with something other than text is left to the expression
+			// engine
+			if ((left.kind == Kind.STRING) != (right.kind == Kind.STRING))
+				throw UNSUPPORTED;
+			this.op = op;
+			this.left = left;
+			this.right = right;
+			// Like the expression engine the left hand side decides how the values
+			// compare, unless it is a literal being compared to a variable.
+			this.compareAs = left instanceof Const && !(right instanceof Const) ? right.kind : left.kind;
+		}
+
+		@Override
+		boolean isConstant() {
+			return this.left.isConstant() && this.right.isConstant();
+		}
+
+		@Override
+		boolean asBoolean() {
+			final int result;
+			switch (this.compareAs) {
+			case BOOLEAN:
+				result = Boolean.compare(this.left.asBoolean(), this.right.asBoolean());
+				break;
+			case NUMBER:
+				result = Float.compare(this.left.asNumber(), this.right.asNumber());
+				break;
+			default:
+				result = this.left.asString().compareTo(this.right.asString());
+				break;
+			}
+
+			switch (this.op) {
+			case EQ:
+				return result == 0;
+			case NE:
+				return result != 0;
+			case LT:
+				return result < 0;
+			case LE:
+				return result <= 0;
+			case GT:
+				return result > 0;
+			default:
+				return result >= 0;
+			}
+		}
+	}
+
+	private static final class Arithmetic extends Node {
+
+		private final char op;
+		private final Node left;
+		private final Node right;
+
+		Arithmetic(final char op, @Nonnull final Node left, @Nonnull final Node right) throws CompileException {
+			super(Kind.NUMBER);
+			this.op = op;
+			// String concatenation is left to the expression engine
+			this.left = left.requireNumber();
+			this.right = right.requireNumber();
+			// Leave the error reporting of a divide by zero to the expression engine
+			if ((op == '/' || op == '%') && right.isConstant() && right.asNumber() == 0F)
+				throw UNSUPPORTED;
+		}
+
+		@Override
+		boolean isConstant() {
+			return this.left.isConstant() && this.right.isConstant();
+		}
+
+		@Override
+		float asNumber() {
+			final float l = this.left.asNumber();
+			final float r = this.right.asNumber();
+			switch (this.op) {
+			case '+':
+				return l + r;
+			case '-':
+				return l - r;
+			case '*':
+				return l * r;
+			case '/':
+				return l / r;
+			default:
+				return l % r;
+			}
+		}
+	}
+}
@@ -22,20 +22,22 @@
  */
 package org.orecruncher.dsurround.expression;
 
+import javax.annotation.Nonnull;
+
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
-import org.orecruncher.lib.expression.Dynamic;
-import org.orecruncher.lib.expression.DynamicVariantList;
 
 import net.minecraft.world.World;
 
-public class DimensionVariables extends DynamicVariantList {
+public class DimensionVariables extends SampledVariantList {
 
-	public DimensionVariables() {
-		add(new Dynamic.DynamicNumber("dim.id", () -> (float) EnvironState.getDimensionId()));
-		add(new Dynamic.DynamicString("dim.name", () -> EnvironState.getDimensionName()));
-		add(new Dynamic.DynamicBoolean("dim.hasSky", () -> {
+	public DimensionVariables(@Nonnull final VariableSnapshot snapshot) {
+		super(snapshot);
+		// Only changes when the player changes worlds
+		addNumber("dim.id", SampledVariable.ON_EVENT, () -> (float) EnvironState.getDimensionId());
+		addString("dim.name", SampledVariable.ON_EVENT, () -> EnvironState.getDimensionName());
+		addBoolean("dim.hasSky", SampledVariable.ON_EVENT, () -> {
 			final World world = EnvironState.getWorld();
 			return world != null && world.provider.hasSkyLight();
-		}));
+		});
 	}
 }
\ No newline at end of file
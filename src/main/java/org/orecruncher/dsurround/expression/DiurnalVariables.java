@@ -22,23 +22,25 @@
  */
 package org.orecruncher.dsurround.expression;
 
+import javax.annotation.Nonnull;
+
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.orecruncher.lib.DiurnalUtils;
 import org.orecruncher.lib.DiurnalUtils.DayCycle;
-import org.orecruncher.lib.expression.Dynamic;
-import org.orecruncher.lib.expression.DynamicVariantList;
 
-public class DiurnalVariables extends DynamicVariantList {
+public class DiurnalVariables extends SampledVariantList {
 
-	public DiurnalVariables() {
-		add(new Dynamic.DynamicBoolean("diurnal.isDay", () -> EnvironState.getDayCycle() == DayCycle.DAYTIME));
-		add(new Dynamic.DynamicBoolean("diurnal.isNight", () -> EnvironState.getDayCycle() == DayCycle.NIGHTTIME));
-		add(new Dynamic.DynamicBoolean("diurnal.isSunrise", () -> EnvironState.getDayCycle() == DayCycle.SUNRISE));
-		add(new Dynamic.DynamicBoolean("diurnal.isSunset", () -> EnvironState.getDayCycle() == DayCycle.SUNSET));
-		add(new Dynamic.DynamicBoolean("diurnal.isAuroraVisible", () -> EnvironState.getDayCycle() == DayCycle.SUNRISE
-				|| EnvironState.getDayCycle() == DayCycle.DAYTIME));
-		add(new Dynamic.DynamicNumber("diurnal.moonPhaseFactor",
-				() -> DiurnalUtils.getMoonPhaseFactor(EnvironState.getWorld())));
-		add(new Dynamic.DynamicNumber("diurnal.celestialAngle", () -> EnvironState.getWorld().getCelestialAngle(0)));
+	public DiurnalVariables(@Nonnull final VariableSnapshot snapshot) {
+		super(snapshot);
+		addBoolean("diurnal.isDay", () -> EnvironState.getDayCycle() == DayCycle.DAYTIME);
+		addBoolean("diurnal.isNight", () -> EnvironState.getDayCycle() == DayCycle.NIGHTTIME);
+		addBoolean("diurnal.isSunrise", () -> EnvironState.getDayCycle() == DayCycle.SUNRISE);
+		addBoolean("diurnal.isSunset", () -> EnvironState.getDayCycle() == DayCycle.SUNSET);
+		addBoolean("diurnal.isAuroraVisible", () -> EnvironState.getDayCycle() == DayCycle.SUNRISE
+				|| EnvironState.getDayCycle() == DayCycle.DAYTIME);
+		// Moon phase only changes once a day
+		addNumber("diurnal.moonPhaseFactor", 20,
+				() -> DiurnalUtils.getMoonPhaseFactor(EnvironState.getWorld()));
+		addNumber("diurnal.celestialAngle", () -> EnvironState.getWorld().getCelestialAngle(0));
 	}
 }
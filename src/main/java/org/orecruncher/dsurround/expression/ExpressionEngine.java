@@ -24,6 +24,8 @@ package org.orecruncher.dsurround.expression;
 
 import java.util.List;
 
+import javax.annotation.Nonnull;
+
 import org.orecruncher.dsurround.ModBase;
 import org.orecruncher.lib.expression.ExpressionCache;
 import org.orecruncher.lib.expression.IDynamicVariant;
@@ -40,20 +42,34 @@ public final class ExpressionEngine {
 	}
 
 	private final ExpressionCache cache = new ExpressionCache(ModBase.log());
+	private final VariableSnapshot snapshot = new VariableSnapshot();
+	private final ConditionCompiler compiler;
 
 	private ExpressionEngine() {
-		this.cache.add(new BattleVariables());
-		this.cache.add(new BiomeTypeVariables());
-		this.cache.add(new BiomeVariables());
-		this.cache.add(new DimensionVariables());
-		this.cache.add(new DiurnalVariables());
-		this.cache.add(new PlayerVariables());
-		this.cache.add(new SeasonVariables());
-		this.cache.add(new WeatherVariables());
+		this.cache.add(new BattleVariables(this.snapshot));
+		this.cache.add(new BiomeTypeVariables(this.snapshot));
+		this.cache.add(new BiomeVariables(this.snapshot));
+		this.cache.add(new DimensionVariables(this.snapshot));
+		this.cache.add(new DiurnalVariables(this.snapshot));
+		this.cache.add(new PlayerVariables(this.snapshot));
+		this.cache.add(new SeasonVariables(this.snapshot));
+		this.cache.add(new WeatherVariables(this.snapshot));
+
+		this.compiler = new ConditionCompiler(this.snapshot, this.cache);
 	}
 
+	/**
+	 * Called once a tick to advance the variable snapshot. Variables that are
+	 * due are resampled the next time they are read.
+	 */
 	public void reset() {
 		this.cache.reset();
+		this.snapshot.tick();
+	}
+
+	@Nonnull
+	public VariableSnapshot getSnapshot() {
+		return this.snapshot;
 	}
 
 	public List<IDynamicVariant> getVariables() {
@@ -72,4 +88,14 @@ public final class ExpressionEngine {
 		return this.cache.check(exp);
 	}
 
+	/**
+	 * Compiles the script into a condition that can be evaluated without going
+	 * through the expression cache. Use Condition.compile() when the script may
+	 * be empty.
+	 */
+	@Nonnull
+	public Condition compile(@Nonnull final String exp) {
+		return this.compiler.compile(exp);
+	}
+
 }
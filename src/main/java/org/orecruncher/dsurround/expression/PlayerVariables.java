@@ -22,9 +22,10 @@
  */
 package org.orecruncher.dsurround.expression;
 
+import javax.annotation.Nonnull;
+
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
-import org.orecruncher.lib.expression.Dynamic;
-import org.orecruncher.lib.expression.DynamicVariantList;
+import org.orecruncher.dsurround.client.handlers.scanners.ColumnCache;
 
 import net.minecraft.block.material.Material;
 import net.minecraft.entity.item.EntityBoat;
@@ -32,91 +33,95 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
-public class PlayerVariables extends DynamicVariantList {
+public class PlayerVariables extends SampledVariantList {
 
-	public PlayerVariables() {
-		add(new Dynamic.DynamicBoolean("player.isHurt", () -> EnvironState.isPlayerHurt()));
-		add(new Dynamic.DynamicBoolean("player.isHungry", () -> EnvironState.isPlayerHungry()));
-		add(new Dynamic.DynamicBoolean("player.isBurning", () -> EnvironState.isPlayerBurning()));
-		add(new Dynamic.DynamicBoolean("player.isSuffocating", () -> EnvironState.isPlayerSuffocating()));
-		add(new Dynamic.DynamicBoolean("player.isFlying", () -> EnvironState.isPlayerFlying()));
-		add(new Dynamic.DynamicBoolean("player.isSprinting", () -> EnvironState.isPlayerSprinting()));
-		add(new Dynamic.DynamicBoolean("player.isInLava", () -> EnvironState.isPlayerInLava()));
-		add(new Dynamic.DynamicBoolean("player.isInvisible", () -> EnvironState.isPlayerInvisible()));
-		add(new Dynamic.DynamicBoolean("player.isBlind", () -> EnvironState.isPlayerBlind()));
-		add(new Dynamic.DynamicBoolean("player.isInWater", () -> EnvironState.isPlayerInWater()));
-		add(new Dynamic.DynamicBoolean("player.isMoving", () -> EnvironState.isPlayerMoving()));
-		add(new Dynamic.DynamicBoolean("player.isInside", () -> EnvironState.isPlayerInside()));
-		add(new Dynamic.DynamicBoolean("player.isUnderground", () -> EnvironState.isPlayerUnderground()));
-		add(new Dynamic.DynamicBoolean("player.isInSpace", () -> EnvironState.isPlayerInSpace()));
-		add(new Dynamic.DynamicBoolean("player.isInClouds", () -> EnvironState.isPlayerInClouds()));
-		add(new Dynamic.DynamicString("player.temperature", () -> EnvironState.getPlayerTemperature().getValue()));
-		add(new Dynamic.DynamicBoolean("player.inVillage", () -> EnvironState.inVillage()));
-		add(new Dynamic.DynamicNumber("player.X", () -> (float) EnvironState.getPlayerPosition().getX()));
-		add(new Dynamic.DynamicNumber("player.Y", () -> (float) EnvironState.getPlayerPosition().getY()));
-		add(new Dynamic.DynamicNumber("player.Z", () -> (float) EnvironState.getPlayerPosition().getZ()));
-		add(new Dynamic.DynamicNumber("player.lightLevel", () -> (float) EnvironState.getLightLevel()));
+	public PlayerVariables(@Nonnull final VariableSnapshot snapshot) {
+		super(snapshot);
+		addBoolean("player.isHurt", () -> EnvironState.isPlayerHurt());
+		addBoolean("player.isHungry", () -> EnvironState.isPlayerHungry());
+		addBoolean("player.isBurning", () -> EnvironState.isPlayerBurning());
+		addBoolean("player.isSuffocating", () -> EnvironState.isPlayerSuffocating());
+		addBoolean("player.isFlying", () -> EnvironState.isPlayerFlying());
+		addBoolean("player.isSprinting", () -> EnvironState.isPlayerSprinting());
+		addBoolean("player.isInLava", () -> EnvironState.isPlayerInLava());
+		addBoolean("player.isInvisible", () -> EnvironState.isPlayerInvisible());
+		addBoolean("player.isBlind", () -> EnvironState.isPlayerBlind());
+		addBoolean("player.isInWater", () -> EnvironState.isPlayerInWater());
+		addBoolean("player.isMoving", () -> EnvironState.isPlayerMoving());
+		addBoolean("player.isInside", () -> EnvironState.isPlayerInside());
+		addBoolean("player.isUnderground", () -> EnvironState.isPlayerUnderground());
+		addBoolean("player.isInSpace", () -> EnvironState.isPlayerInSpace());
+		addBoolean("player.isInClouds", () -> EnvironState.isPlayerInClouds());
+		addString("player.temperature", () -> EnvironState.getPlayerTemperature().getValue());
+		addBoolean("player.inVillage", () -> EnvironState.inVillage());
+		addNumber("player.X", () -> (float) EnvironState.getPlayerPosition().getX());
+		addNumber("player.Y", () -> (float) EnvironState.getPlayerPosition().getY());
+		addNumber("player.Z", () -> (float) EnvironState.getPlayerPosition().getZ());
+		addNumber("player.lightLevel", () -> (float) EnvironState.getLightLevel());
 
-		add(new Dynamic.DynamicBoolean("player.isDead", () -> {
+		addBoolean("player.isDead", () -> {
 			final EntityPlayer player = EnvironState.getPlayer();
 			return player != null && player.isDead;
-		}));
-		add(new Dynamic.DynamicBoolean("player.isWet", () -> {
+		});
+		addBoolean("player.isWet", () -> {
 			final EntityPlayer player = EnvironState.getPlayer();
 			return player != null && player.isWet();
-		}));
-		add(new Dynamic.DynamicBoolean("player.isUnderwater", () -> {
+		});
+		addBoolean("player.isUnderwater", () -> {
 			final EntityPlayer player = EnvironState.getPlayer();
 			return player != null && player.isInsideOfMaterial(Material.WATER);
-		}));
-		add(new Dynamic.DynamicBoolean("player.isRiding", () -> {
+		});
+		addBoolean("player.isRiding", () -> {
 			final EntityPlayer player = EnvironState.getPlayer();
 			return player != null && player.isRiding();
-		}));
-		add(new Dynamic.DynamicBoolean("player.isOnGround", () -> {
+		});
+		addBoolean("player.isOnGround", () -> {
 			final EntityPlayer player = EnvironState.getPlayer();
 			return player != null && player.onGround;
-		}));
-		add(new Dynamic.DynamicNumber("player.health", () -> {
+		});
+		addNumber("player.health", () -> {
 			final EntityPlayer player = EnvironState.getPlayer();
 			return player != null ? player.getHealth() : Integer.MAX_VALUE;
-		}));
-		add(new Dynamic.DynamicNumber("player.maxHealth", () -> {
+		});
+		addNumber("player.maxHealth", () -> {
 			final EntityPlayer player = EnvironState.getPlayer();
 			return player != null ? player.getMaxHealth() : Integer.MAX_VALUE;
-		}));
-		add(new Dynamic.DynamicNumber("player.luck", () -> {
+		});
+		addNumber("player.luck", () -> {
 			final EntityPlayer player = EnvironState.getPlayer();
 			return player != null ? player.getLuck() : 0;
-		}));
-		add(new Dynamic.DynamicNumber("player.food.saturation", () -> {
+		});
+		addNumber("player.food.saturation", () -> {
 			final EntityPlayer player = EnvironState.getPlayer();
 			return player != null ? player.getFoodStats().getSaturationLevel() : 0;
-		}));
-		add(new Dynamic.DynamicNumber("player.food.level", () -> {
+		});
+		addNumber("player.food.level", () -> {
 			final EntityPlayer player = EnvironState.getPlayer();
 			return player != null ? (float) player.getFoodStats().getFoodLevel() : 0;
-		}));
+		});
 
-		add(new Dynamic.DynamicBoolean("player.canRainOn", () -> {
+		// These query the world column above the player so are not sampled every
+		// tick
+		addBoolean("player.canRainOn", 4, () -> {
 			final World world = EnvironState.getWorld();
 			if (world != null) {
 				final BlockPos pos = EnvironState.getPlayerPosition().add(0, 2, 0);
-				return world.canBlockSeeSky(pos) && !(world.getTopSolidOrLiquidBlock(pos).getY() > pos.getY());
+				return world.canBlockSeeSky(pos)
+						&& !(ColumnCache.getTopSolidHeight(pos.getX(), pos.getZ()) > pos.getY());
 			}
 			return false;
-		}));
-		add(new Dynamic.DynamicBoolean("player.canSeeSky", () -> {
+		});
+		addBoolean("player.canSeeSky", 4, () -> {
 			final World world = EnvironState.getWorld();
 			if (world != null) {
 				final BlockPos pos = EnvironState.getPlayerPosition().add(0, 2, 0);
 				return world.canBlockSeeSky(pos);
 			}
 			return false;
-		}));
-		add(new Dynamic.DynamicBoolean("player.inBoat", () -> {
+		});
+		addBoolean("player.inBoat", () -> {
 			final EntityPlayer player = EnvironState.getPlayer();
 			return player != null && player.getRidingEntity() instanceof EntityBoat;
-		}));
+		});
 	}
 }
@@ -0,0 +1,254 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.expression;
+
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+import org.apache.commons.lang3.StringUtils;
+
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * A script variable whose value is sampled from its source at most once per
+ * tick, and only as often as its refresh interval calls for. Each time a
+ * sample yields a different value the version is bumped so consumers can tell
+ * whether anything they depend on has changed since they last looked.
+ */
+@SideOnly(Side.CLIENT)
+public abstract class SampledVariable {
+
+	/**
+	 * Sample the value once every tick.
+	 */
+	public static final int EVERY_TICK = 1;
+
+	/**
+	 * Sample the value only after the snapshot has been invalidated, such as on
+	 * connect or a dimension change.
+	 */
+	public static final int ON_EVENT = 0;
+
+	private final String name;
+	private final int interval;
+	private VariableSnapshot snapshot;
+	private int sampledTick;
+	private boolean dirty = true;
+	private int version;
+
+	protected SampledVariable(@Nonnull final String name, final int interval) {
+		this.name = name;
+		this.interval = interval;
+	}
+
+	void bind(@Nonnull final VariableSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	void invalidate() {
+		this.dirty = true;
+	}
+
+	@Nonnull
+	public String getName() {
+		return this.name;
+	}
+
+	public int getInterval() {
+		return this.interval;
+	}
+
+	/**
+	 * Version of the current value. Changes whenever a new sample differs from
+	 * the previous one.
+	 */
+	public int getVersion() {
+		refresh();
+		return this.version;
+	}
+
+	protected final void refresh() {
+		final int tick = this.snapshot.getTick();
+		if (!this.dirty) {
+			if (this.interval == ON_EVENT || tick - this.sampledTick < this.interval)
+				return;
+		}
+		this.dirty = false;
+		this.sampledTick = tick;
+		this.snapshot.sampled();
+		if (sample())
+			this.version++;
+	}
+
+	/**
+	 * Pulls a new value from the source.
+	 *
+	 * @return true if the value changed
+	 */
+	protected abstract boolean sample();
+
+	public abstract boolean asBoolean();
+
+	public abstract float asNumber();
+
+	@Nonnull
+	public abstract String asString();
+
+	@Override
+	@Nonnull
+	public String toString() {
+		return this.name + '=' + asString();
+	}
+
+	/**
+	 * Source of a number variable. Avoids boxing the value the way a
+	 * Supplier&lt;Float&gt; would.
+	 */
+	@FunctionalInterface
+	public interface FloatSupplier {
+		float getAsFloat();
+	}
+
+	/**
+	 * A true/false variable. Reads as 1 or 0 when used as a number.
+	 */
+	public static final class SampledBoolean extends SampledVariable {
+
+		private final BooleanSupplier source;
+		private boolean value;
+
+		public SampledBoolean(@Nonnull final String name, final int interval, @Nonnull final BooleanSupplier source) {
+			super(name, interval);
+			this.source = source;
+		}
+
+		@Override
+		protected boolean sample() {
+			final boolean v = this.source.getAsBoolean();
+			final boolean changed = v != this.value;
+			this.value = v;
+			return changed;
+		}
+
+		@Override
+		public boolean asBoolean() {
+			refresh();
+			return this.value;
+		}
+
+		@Override
+		public float asNumber() {
+			return asBoolean() ? 1F : 0F;
+		}
+
+		@Override
+		@Nonnull
+		public String asString() {
+			return Boolean.toString(asBoolean());
+		}
+	}
+
+	/**
+	 * A numeric variable. Reads as true when used as a boolean if it is not 0.
+	 */
+	public static final class SampledNumber extends SampledVariable {
+
+		private final FloatSupplier source;
+		private float value;
+
+		public SampledNumber(@Nonnull final String name, final int interval, @Nonnull final FloatSupplier source) {
+			super(name, interval);
+			this.source = source;
+		}
+
+		@Override
+		protected boolean sample() {
+			final float v = this.source.getAsFloat();
+			final boolean changed = Float.compare(v, this.value) != 0;
+			this.value = v;
+			return changed;
+		}
+
+		@Override
+		public boolean asBoolean() {
+			return asNumber() != 0F;
+		}
+
+		@Override
+		public float asNumber() {
+			refresh();
+			return this.value;
+		}
+
+		@Override
+		@Nonnull
+		public String asString() {
+			return Float.toString(asNumber());
+		}
+	}
+
+	/**
+	 * A text variable. A null from the source is stored as an empty string.
+	 */
+	public static final class SampledString extends SampledVariable {
+
+		private final Supplier<String> source;
+		private String value = StringUtils.EMPTY;
+
+		public SampledString(@Nonnull final String name, final int interval, @Nonnull final Supplier<String> source) {
+			super(name, interval);
+			this.source = source;
+		}
+
+		@Override
+		protected boolean sample() {
+			final String v = StringUtils.defaultString(this.source.get());
+			final boolean changed = !Objects.equals(v, this.value);
+			this.value = v;
+			return changed;
+		}
+
+		@Override
+		public boolean asBoolean() {
+			return false;
+		}
+
+		@Override
+		public float asNumber() {
+			return 0F;
+		}
+
+		@Override
+		@Nonnull
+		public String asString() {
+			refresh();
+			return this.value;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.expression;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+import org.orecruncher.dsurround.expression.SampledVariable.FloatSupplier;
+import org.orecruncher.dsurround.expression.SampledVariable.SampledBoolean;
+import org.orecruncher.dsurround.expression.SampledVariable.SampledNumber;
+import org.orecruncher.dsurround.expression.SampledVariable.SampledString;
+import org.orecruncher.lib.expression.Dynamic;
+import org.orecruncher.lib.expression.DynamicVariantList;
+
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Variant list whose variables are backed by the snapshot. The variants handed
+ * to the expression cache read through the sampled value so scripts and
+ * compiled conditions always see the same data, and the source is queried at
+ * most once per tick regardless of how many scripts reference it.
+ */
+@SideOnly(Side.CLIENT)
+public abstract class SampledVariantList extends DynamicVariantList {
+
+	private final VariableSnapshot snapshot;
+
+	protected SampledVariantList(@Nonnull final VariableSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	protected void addBoolean(@Nonnull final String name, @Nonnull final BooleanSupplier source) {
+		addBoolean(name, SampledVariable.EVERY_TICK, source);
+	}
+
+	protected void addBoolean(@Nonnull final String name, final int interval, @Nonnull final BooleanSupplier source) {
+		final SampledBoolean v = this.snapshot.register(new SampledBoolean(name, interval, source));
+		add(new Dynamic.DynamicBoolean(name, v::asBoolean));
+	}
+
+	protected void addNumber(@Nonnull final String name, @Nonnull final FloatSupplier source) {
+		addNumber(name, SampledVariable.EVERY_TICK, source);
+	}
+
+	protected void addNumber(@Nonnull final String name, final int interval, @Nonnull final FloatSupplier source) {
+		final SampledNumber v = this.snapshot.register(new SampledNumber(name, interval, source));
+		add(new Dynamic.DynamicNumber(name, v::asNumber));
+	}
+
+	protected void addString(@Nonnull final String name, @Nonnull final Supplier<String> source) {
+		addString(name, SampledVariable.EVERY_TICK, source);
+	}
+
+	protected void addString(@Nonnull final String name, final int interval, @Nonnull final Supplier<String> source) {
+		final SampledString v = this.snapshot.register(new SampledString(name, interval, source));
+		add(new Dynamic.DynamicString(name, v::asString));
+	}
+}
@@ -22,28 +22,30 @@
  */
 package org.orecruncher.dsurround.expression;
 
+import javax.annotation.Nonnull;
+
 import org.orecruncher.dsurround.capabilities.CapabilitySeasonInfo;
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
-import org.orecruncher.lib.expression.Dynamic;
-import org.orecruncher.lib.expression.DynamicVariantList;
 
 import net.minecraft.world.World;
 
-public class SeasonVariables extends DynamicVariantList {
+public class SeasonVariables extends SampledVariantList {
 
-	public SeasonVariables() {
-		add(new Dynamic.DynamicString("season.season", () -> {
+	public SeasonVariables(@Nonnull final VariableSnapshot snapshot) {
+		super(snapshot);
+		// Seasons change slowly
+		addString("season.season", 20, () -> {
 			final World world = EnvironState.getWorld();
 			return CapabilitySeasonInfo.getCapability(world).getSeasonString();
-		}));
-		add(new Dynamic.DynamicString("season.type", () -> {
+		});
+		addString("season.type", 20, () -> {
 			final World world = EnvironState.getWorld();
 			return CapabilitySeasonInfo.getCapability(world).getSeasonType().getValue();
-		}));
-		add(new Dynamic.DynamicString("season.subtype", () -> {
+		});
+		addString("season.subtype", 20, () -> {
 			final World world = EnvironState.getWorld();
 			return CapabilitySeasonInfo.getCapability(world).getSeasonSubType().getValue();
-		}));
+		});
 	}
 
 }
@@ -0,0 +1,113 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.expression;
+
+import java.util.Locale;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.orecruncher.lib.collections.ObjectArray;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Holds the sampled script variables and the tick they are sampled against.
+ * The tick is advanced once per client tick by the state handler via
+ * ExpressionEngine.reset().
+ */
+@SideOnly(Side.CLIENT)
+public final class VariableSnapshot {
+
+	private final ObjectArray<SampledVariable> variables = new ObjectArray<>();
+	private final Map<String, SampledVariable> byName = new Object2ObjectOpenHashMap<>();
+	private final Map<String, SampledVariable> byNameIgnoreCase = new Object2ObjectOpenHashMap<>();
+	private int tick;
+	private int samples;
+	private int lastSamples;
+
+	VariableSnapshot() {
+	}
+
+	@Nonnull
+	<T extends SampledVariable> T register(@Nonnull final T variable) {
+		variable.bind(this);
+		this.variables.add(variable);
+		this.byName.put(variable.getName(), variable);
+		this.byNameIgnoreCase.put(variable.getName().toLowerCase(Locale.ENGLISH), variable);
+		return variable;
+	}
+
+	/**
+	 * Looks up a variable by name. Like the expression engine an exact match is
+	 * preferred, but names are not case sensitive.
+	 */
+	@Nullable
+	public SampledVariable get(@Nonnull final String name) {
+		final SampledVariable v = this.byName.get(name);
+		return v != null ? v : this.byNameIgnoreCase.get(name.toLowerCase(Locale.ENGLISH));
+	}
+
+	int getTick() {
+		return this.tick;
+	}
+
+	void sampled() {
+		this.samples++;
+	}
+
+	/**
+	 * Advances to the next tick. Variables that are due will resample the next
+	 * time they are read.
+	 */
+	void tick() {
+		this.tick++;
+		this.lastSamples = this.samples;
+		this.samples = 0;
+	}
+
+	/**
+	 * Forces every variable to resample on next read, including those that are
+	 * only refreshed on events.
+	 */
+	public void invalidate() {
+		for (int i = 0; i < this.variables.size(); i++)
+			this.variables.get(i).invalidate();
+	}
+
+	/**
+	 * Number of variables that had to be sampled during the last complete tick.
+	 */
+	public int getSampleCount() {
+		return this.lastSamples;
+	}
+
+	public int size() {
+		return this.variables.size();
+	}
+}
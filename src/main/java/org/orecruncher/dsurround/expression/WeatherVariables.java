@@ -22,33 +22,36 @@
  */
 package org.orecruncher.dsurround.expression;
 
+import javax.annotation.Nonnull;
+
 import org.orecruncher.dsurround.capabilities.CapabilitySeasonInfo;
 import org.orecruncher.dsurround.capabilities.season.ISeasonInfo;
 import org.orecruncher.dsurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.orecruncher.dsurround.client.weather.Weather;
-import org.orecruncher.lib.expression.Dynamic;
-import org.orecruncher.lib.expression.DynamicVariantList;
 
 import net.minecraft.world.World;
 
-public class WeatherVariables extends DynamicVariantList {
+public class WeatherVariables extends SampledVariantList {
 
-	public WeatherVariables() {
-		add(new Dynamic.DynamicBoolean("weather.isRaining", () -> Weather.isRaining()));
-		add(new Dynamic.DynamicBoolean("weather.isThundering", () -> Weather.isThundering()));
-		add(new Dynamic.DynamicString("weather.temperature", () -> EnvironState.getBiomeTemperature().getValue()));
-		add(new Dynamic.DynamicBoolean("weather.isNotRaining", () -> !Weather.isRaining()));
-		add(new Dynamic.DynamicBoolean("weather.isNotThundering", () -> !Weather.isThundering()));
-		add(new Dynamic.DynamicNumber("weather.rainfall", () -> (float) Weather.getIntensityLevel()));
-		add(new Dynamic.DynamicNumber("weather.temperatureValue", () -> {
+	public WeatherVariables(@Nonnull final VariableSnapshot snapshot) {
+		super(snapshot);
+		addBoolean("weather.isRaining", () -> Weather.isRaining());
+		addBoolean("weather.isThundering", () -> Weather.isThundering());
+		addString("weather.temperature", () -> EnvironState.getBiomeTemperature().getValue());
+		addBoolean("weather.isNotRaining", () -> !Weather.isRaining());
+		addBoolean("weather.isNotThundering", () -> !Weather.isThundering());
+		addNumber("weather.rainfall", () -> (float) Weather.getIntensityLevel());
+		// Season queries hit the world so they are sampled at the biome sound scan
+		// rate rather than every tick
+		addNumber("weather.temperatureValue", 4, () -> {
 			final World world = EnvironState.getWorld();
 			final ISeasonInfo season = CapabilitySeasonInfo.getCapability(world);
 			return season.getTemperature(EnvironState.getPlayerPosition());
-		}));
-		add(new Dynamic.DynamicBoolean("weather.canWaterFreeze", () -> {
+		});
+		addBoolean("weather.canWaterFreeze", 4, () -> {
 			final World world = EnvironState.getWorld();
 			final ISeasonInfo season = CapabilitySeasonInfo.getCapability(world);
 			return season.canWaterFreeze(EnvironState.getPlayerPosition());
-		}));
+		});
 	}
 }
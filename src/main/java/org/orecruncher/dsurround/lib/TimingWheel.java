@@ -0,0 +1,194 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.lib;
+
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Hashed timing wheel for scheduling items against a tick counter. Items are
+ * placed in the slot for their due tick, and each advance only visits the
+ * slots for the ticks that have passed. Items due further out than the wheel
+ * is big simply stay in their slot until the wheel comes around to them.
+ * Nodes are pooled so scheduling does not allocate once the pool has warmed
+ * up.
+ *
+ * Not thread safe.
+ *
+ * @param <T> Type of item being scheduled
+ */
+public final class TimingWheel<T> {
+
+	private static final class Node<T> {
+		public T item;
+		public int due;
+		public Node<T> next;
+	}
+
+	private final Node<T>[] slots;
+	private final int mask;
+	private Node<T> free;
+	private int size;
+	private int processed;
+	private boolean started;
+
+	@SuppressWarnings("unchecked")
+	public TimingWheel(final int slotCount) {
+		int count = 1;
+		while (count < slotCount)
+			count <<= 1;
+		this.slots = (Node<T>[]) new Node[count];
+		this.mask = count - 1;
+	}
+
+	/**
+	 * Schedules the item to be released at the specified tick. If that tick has
+	 * already been processed the item is released on the next advance.
+	 *
+	 * @param item The item to schedule
+	 * @param due  Tick at which the item is due
+	 */
+	public void schedule(@Nonnull final T item, int due) {
+		if (this.started && due <= this.processed)
+			due = this.processed + 1;
+
+		Node<T> node = this.free;
+		if (node != null)
+			this.free = node.next;
+		else
+			node = new Node<>();
+
+		final int idx = due & this.mask;
+		node.item = item;
+		node.due = due;
+		node.next = this.slots[idx];
+		this.slots[idx] = node;
+		this.size++;
+	}
+
+	/**
+	 * Advances the wheel to the specified tick, handing every item that has come
+	 * due to the action.
+	 *
+	 * @param tick   The current tick
+	 * @param action Routine to receive the items that are due
+	 */
+	public void advance(final int tick, @Nonnull final Consumer<T> action) {
+		if (this.size == 0) {
+			this.processed = tick;
+			this.started = true;
+			return;
+		}
+
+		// If things have not been running, or there is a large gap, visit the
+		// whole wheel.
+		final int span = this.slots.length;
+		int start = this.processed + 1;
+		if (!this.started || tick - this.processed >= span || tick < this.processed)
+			start = tick - span + 1;
+
+		for (int t = start; t <= tick; t++)
+			release(t & this.mask, tick, action);
+
+		this.processed = tick;
+		this.started = true;
+	}
+
+	private void release(final int idx, final int tick, @Nonnull final Consumer<T> action) {
+		// Unlink everything that is due first. The action may very well schedule
+		// more items.
+		Node<T> ready = null;
+		Node<T> prev = null;
+		Node<T> node = this.slots[idx];
+		while (node != null) {
+			final Node<T> next = node.next;
+			if (node.due <= tick) {
+				if (prev == null)
+					this.slots[idx] = next;
+				else
+					prev.next = next;
+				node.next = ready;
+				ready = node;
+				this.size--;
+			} else {
+				prev = node;
+			}
+			node = next;
+		}
+
+		while (ready != null) {
+			final Node<T> next = ready.next;
+			final T item = ready.item;
+			recycle(ready);
+			action.accept(item);
+			ready = next;
+		}
+	}
+
+	private void recycle(@Nonnull final Node<T> node) {
+		node.item = null;
+		node.next = this.free;
+		this.free = node;
+	}
+
+	/**
+	 * Iterates over the scheduled items along with their due tick.
+	 *
+	 * @param action Routine to receive the items
+	 */
+	public void forEach(@Nonnull final ObjIntConsumer<T> action) {
+		for (final Node<T> head : this.slots)
+			for (Node<T> node = head; node != null; node = node.next)
+				action.accept(node.item, node.due);
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Drops all scheduled items. The nodes are kept for reuse.
+	 */
+	public void clear() {
+		for (int i = 0; i < this.slots.length; i++) {
+			Node<T> node = this.slots[i];
+			while (node != null) {
+				final Node<T> next = node.next;
+				recycle(node);
+				node = next;
+			}
+			this.slots[i] = null;
+		}
+		this.size = 0;
+		this.started = false;
+	}
+
+}
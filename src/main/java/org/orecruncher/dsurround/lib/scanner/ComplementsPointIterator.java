@@ -41,7 +41,6 @@ public class ComplementsPointIterator implements IPointIterator {
 
 	protected final CuboidPointIterator[] segments = new CuboidPointIterator[3];
 	protected int activeSegment = 0;
-	protected BlockPos peeked;
 
 	public ComplementsPointIterator(@Nonnull final Cuboid volume, @Nonnull final Cuboid intersect) {
 		// This function makes some important assumptions about volume and
@@ -99,15 +98,14 @@ public class ComplementsPointIterator implements IPointIterator {
 		} else {
 			this.segments[2] = CuboidPointIterator.NULL_ITERATOR;
 		}
-
-		this.peeked = next0();
 	}
 
-	protected BlockPos next0() {
+	@Nullable
+	protected CuboidPointIterator active() {
 		while (this.activeSegment < this.segments.length) {
-			final BlockPos rv = this.segments[this.activeSegment].next();
-			if (rv != null)
-				return rv;
+			final CuboidPointIterator segment = this.segments[this.activeSegment];
+			if (segment.peek() != null)
+				return segment;
 			this.activeSegment++;
 		}
 		return null;
@@ -116,15 +114,21 @@ public class ComplementsPointIterator implements IPointIterator {
 	@Override
 	@Nullable
 	public BlockPos peek() {
-		return this.peeked;
+		final CuboidPointIterator segment = active();
+		return segment != null ? segment.peek() : null;
 	}
 
 	@Override
 	@Nullable
 	public BlockPos next() {
-		final BlockPos result = this.peeked;
-		this.peeked = next0();
-		return result;
+		final CuboidPointIterator segment = active();
+		return segment != null ? segment.next() : null;
+	}
+
+	@Override
+	public int skipSection() {
+		final CuboidPointIterator segment = active();
+		return segment != null ? segment.skipSection() : 0;
 	}
 
 }
\ No newline at end of file
@@ -23,8 +23,6 @@
 
 package org.orecruncher.dsurround.lib.scanner;
 
-import java.util.Iterator;
-
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -36,28 +34,39 @@ import net.minecraft.util.math.BlockPos.MutableBlockPos;
 /**
  * Implements a "peeking" iterator. The iterator uses mutables for position so
  * they aren't safe to cache.
+ *
+ * Points are served a chunk section at a time so that the remainder of a
+ * section can be skipped.
  */
 public class CuboidPointIterator implements IPointIterator {
 
-	static final CuboidPointIterator NULL_ITERATOR = new CuboidPointIterator() {
+	static final CuboidPointIterator NULL_ITERATOR = new CuboidPointIterator();
 
-		@Override
-		public BlockPos next() {
-			return null;
-		}
+	protected final MutableBlockPos peeked = new MutableBlockPos();
+	protected final MutableBlockPos current = new MutableBlockPos();
+	protected boolean done;
 
-		@Override
-		public BlockPos peek() {
-			return null;
-		}
+	// Bounds of the cuboid
+	protected final int minX, minY, minZ;
+	protected final int maxX, maxY, maxZ;
+
+	// Bounds of the cuboid in section coordinates
+	protected final int minSX, minSY, minSZ;
+	protected final int maxSX, maxSY, maxSZ;
 
-	};
+	// Active section and the part of the cuboid within it
+	protected int sX, sY, sZ;
+	protected int secMinX, secMinY, secMinZ;
+	protected int secMaxX, secMaxY, secMaxZ;
 
-	protected final Iterator<MutableBlockPos> itr;
-	protected BlockPos peeked;
+	protected int x, y, z;
 
 	private CuboidPointIterator() {
-		this.itr = null;
+		this.minX = this.minY = this.minZ = 0;
+		this.maxX = this.maxY = this.maxZ = 0;
+		this.minSX = this.minSY = this.minSZ = 0;
+		this.maxSX = this.maxSY = this.maxSZ = 0;
+		this.done = true;
 	}
 
 	public CuboidPointIterator(@Nonnull final BlockPos[] points) {
@@ -65,24 +74,95 @@ public class CuboidPointIterator implements IPointIterator {
 	}
 
 	public CuboidPointIterator(@Nonnull final BlockPos p1, @Nonnull final BlockPos p2) {
-		// The getAllInBox() deals with figuring the min/max points
-		this.itr = BlockPosHelper.getAllInBoxMutable(p1, p2).iterator();
-		if (this.itr.hasNext())
-			this.peeked = this.itr.next();
+		final BlockPos min = BlockPosHelper.createMinPoint(p1, p2);
+		final BlockPos max = BlockPosHelper.createMaxPoint(p1, p2);
+		this.minX = min.getX();
+		this.minY = min.getY();
+		this.minZ = min.getZ();
+		this.maxX = max.getX();
+		this.maxY = max.getY();
+		this.maxZ = max.getZ();
+		this.minSX = this.minX >> 4;
+		this.minSY = this.minY >> 4;
+		this.minSZ = this.minZ >> 4;
+		this.maxSX = this.maxX >> 4;
+		this.maxSY = this.maxY >> 4;
+		this.maxSZ = this.maxZ >> 4;
+
+		this.sX = this.minSX;
+		this.sY = this.minSY;
+		this.sZ = this.minSZ;
+		enterSection();
+	}
+
+	private void enterSection() {
+		this.secMinX = Math.max(this.minX, this.sX << 4);
+		this.secMinY = Math.max(this.minY, this.sY << 4);
+		this.secMinZ = Math.max(this.minZ, this.sZ << 4);
+		this.secMaxX = Math.min(this.maxX, (this.sX << 4) + 15);
+		this.secMaxY = Math.min(this.maxY, (this.sY << 4) + 15);
+		this.secMaxZ = Math.min(this.maxZ, (this.sZ << 4) + 15);
+		this.x = this.secMinX;
+		this.y = this.secMinY;
+		this.z = this.secMinZ;
+		this.peeked.setPos(this.x, this.y, this.z);
+	}
+
+	private void nextSection() {
+		if (++this.sX > this.maxSX) {
+			this.sX = this.minSX;
+			if (++this.sY > this.maxSY) {
+				this.sY = this.minSY;
+				if (++this.sZ > this.maxSZ) {
+					this.done = true;
+					return;
+				}
+			}
+		}
+		enterSection();
+	}
+
+	private void advance() {
+		if (++this.x > this.secMaxX) {
+			this.x = this.secMinX;
+			if (++this.y > this.secMaxY) {
+				this.y = this.secMinY;
+				if (++this.z > this.secMaxZ) {
+					nextSection();
+					return;
+				}
+			}
+		}
+		this.peeked.setPos(this.x, this.y, this.z);
 	}
 
 	@Override
 	@Nullable
 	public BlockPos next() {
-		final BlockPos result = this.peeked;
-		this.peeked = this.itr.hasNext() ? this.itr.next() : null;
-		return result;
+		if (this.done)
+			return null;
+		this.current.setPos(this.peeked);
+		advance();
+		return this.current;
 	}
 
 	@Override
 	@Nullable
 	public BlockPos peek() {
-		return this.peeked;
+		return this.done ? null : this.peeked;
+	}
+
+	@Override
+	public int skipSection() {
+		if (this.done)
+			return 0;
+		final int width = this.secMaxX - this.secMinX + 1;
+		final int height = this.secMaxY - this.secMinY + 1;
+		final int depth = this.secMaxZ - this.secMinZ + 1;
+		final int consumed = ((this.z - this.secMinZ) * height + (this.y - this.secMinY)) * width + this.x
+				- this.secMinX;
+		nextSection();
+		return width * height * depth - consumed;
 	}
 
 }
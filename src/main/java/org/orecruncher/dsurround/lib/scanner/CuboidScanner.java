@@ -29,14 +29,15 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import org.orecruncher.dsurround.event.BlockUpdateEvent;
-import org.orecruncher.lib.chunk.IBlockAccessEx;
+import org.orecruncher.lib.collections.ObjectArray;
 
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 
 /**
- * Scans the area around the player in a continuous pattern.
+ * Scans the area around the player in a continuous pattern. Chunk sections
+ * that contain nothing of interest are skipped as a whole.
  */
 public abstract class CuboidScanner extends Scanner {
 
@@ -49,6 +50,25 @@ public abstract class CuboidScanner extends Scanner {
 	protected BlockPos lastPos;
 	protected int lastReference = 0;
 
+	// Statistics for the diagnostic display
+	protected int scanned;
+	protected int skipped;
+	protected int lastScanned;
+	protected int lastSkipped;
+
+	// The section last tested by isSectionEmpty(). Points are consumed in order
+	// so most tests are for the same section as the one before. Forgotten at the
+	// start of each update since the section may have changed since.
+	protected boolean sectionCached;
+	protected long cachedSection;
+	protected boolean cachedSectionEmpty;
+
+	// Block updates that arrive while a snapshot scan is running. The scan state
+	// belongs to the worker until the results are handed off, so the updates are
+	// held and applied on the client thread in dispatch().
+	private final ObjectArray<IBlockState> updateStates = new ObjectArray<>();
+	private final ObjectArray<BlockPos> updatePositions = new ObjectArray<>();
+
 	protected CuboidScanner(@Nonnull final ScanLocus locus, @Nonnull final String name, final int range,
 			final int blocksPerTick) {
 		super(locus, name, range, blocksPerTick);
@@ -58,6 +78,35 @@ public abstract class CuboidScanner extends Scanner {
 		return this.scanFinished;
 	}
 
+	/**
+	 * Number of blocks read during the last update.
+	 */
+	public int getBlocksScanned() {
+		return this.lastScanned;
+	}
+
+	/**
+	 * Number of blocks passed over during the last update because their section
+	 * contained nothing of interest.
+	 */
+	public int getBlocksSkipped() {
+		return this.lastSkipped;
+	}
+
+	protected boolean isSectionEmpty(@Nonnull final BlockPos pos) {
+		final int x = pos.getX() >> 4;
+		final int y = pos.getY() >> 4;
+		final int z = pos.getZ() >> 4;
+		final long key = SectionSnapshot.sectionKey(x, y, z);
+		if (!this.sectionCached || this.cachedSection != key) {
+			final short[] blocks = getSectionBlocks(x, y, z, true);
+			this.cachedSection = key;
+			this.cachedSectionEmpty = blocks != null && blocks.length == 0;
+			this.sectionCached = true;
+		}
+		return this.cachedSectionEmpty;
+	}
+
 	protected BlockPos[] getMinMaxPointsForVolume(@Nonnull final BlockPos pos) {
 		BlockPos min = pos.add(-this.xRange, -this.yRange, -this.zRange);
 		final BlockPos max = pos.add(this.xRange, this.yRange, this.zRange);
@@ -74,8 +123,8 @@ public abstract class CuboidScanner extends Scanner {
 	}
 
 	protected void resetFullScan() {
-		this.lastPos = this.locus.getCenter();
-		this.lastReference = this.locus.getReference();
+		this.lastPos = getCenter();
+		this.lastReference = getReference();
 		this.scanFinished = false;
 
 		final BlockPos[] points = getMinMaxPointsForVolume(this.lastPos);
@@ -85,16 +134,25 @@ public abstract class CuboidScanner extends Scanner {
 
 	@Override
 	public void update() {
+		this.scanned = 0;
+		this.skipped = 0;
+		this.sectionCached = false;
+		update0();
+		this.lastScanned = this.scanned;
+		this.lastSkipped = this.skipped;
+	}
+
+	private void update0() {
 
 		// If there is no player position or it's bogus just return
-		final BlockPos playerPos = this.locus.getCenter();
+		final BlockPos playerPos = getCenter();
 		if (playerPos == null || playerPos.getY() < 0) {
 			this.fullRange = null;
 		} else {
 			// If the full range was reset, or the player dimension changed,
 			// dump
 			// everything and restart.
-			if (this.fullRange == null || this.locus.getReference() != this.lastReference) {
+			if (this.fullRange == null || getReference() != this.lastReference) {
 				resetFullScan();
 				super.update();
 			} else if (this.lastPos.equals(playerPos)) {
@@ -138,15 +196,18 @@ public abstract class CuboidScanner extends Scanner {
 
 	protected void updateScan(@Nonnull final Cuboid newVolume, @Nonnull final Cuboid intersect) {
 
-		final IBlockAccessEx provider = this.locus.getWorld();
-
 		// Notify on blocks coming into range
 		final ComplementsPointIterator newInRange = new ComplementsPointIterator(newVolume, intersect);
-		for (BlockPos point = newInRange.next(); point != null; point = newInRange.next()) {
+		BlockPos point;
+		while ((point = newInRange.peek()) != null) {
+			if (isSectionEmpty(point)) {
+				this.skipped += newInRange.skipSection();
+				continue;
+			}
+			point = newInRange.next();
 			if (point.getY() > 0) {
-				final IBlockState state = provider.getBlockState(point);
-				if (interestingBlock(state))
-					blockScan(state, point, this.random);
+				this.scanned++;
+				examine(point);
 			}
 		}
 
@@ -160,24 +221,28 @@ public abstract class CuboidScanner extends Scanner {
 		if (this.scanFinished)
 			return null;
 
-		final IBlockAccessEx provider = this.locus.getWorld();
-
 		int checked = 0;
 
 		BlockPos point;
 		while ((point = this.fullRange.peek()) != null) {
 
 			// Chunk not loaded we need to skip this tick
-			if (!provider.isAvailable(point))
+			if (!isAvailable(point))
 				return null;
 
-			// Consume the point
-			this.fullRange.next();
-
-			// Has to be in valid space for it to
-			// be returned.
-			if (point.getY() > 0) {
-				return point;
+			if (isSectionEmpty(point)) {
+				// Nothing of interest in the section so move on to the next
+				this.skipped += this.fullRange.skipSection();
+			} else {
+				// Consume the point
+				point = this.fullRange.next();
+
+				// Has to be in valid space for it to
+				// be returned.
+				if (point.getY() > 0) {
+					this.scanned++;
+					return point;
+				}
 			}
 
 			// Advance our check counter and loop back
@@ -190,28 +255,62 @@ public abstract class CuboidScanner extends Scanner {
 		return null;
 	}
 
-	protected boolean isInteresting(@Nonnull final BlockUpdateEvent event) {
-		if (this.activeCuboid == null || event.oldState == event.newState)
-			return false;
+	@Override
+	public void include(@Nonnull final SectionSnapshot.Builder builder) {
+		super.include(builder);
+		// An unfinished scan continues through the volume it was started on
+		if (this.lastPos != null && !this.scanFinished)
+			builder.include(this.lastPos, this.xRange, this.yRange, this.zRange);
+	}
+
+	@Override
+	public void dispatch() {
+		super.dispatch();
+		for (int i = 0; i < this.updateStates.size(); i++)
+			blockUpdate(this.updateStates.get(i), this.updatePositions.get(i));
+		this.updateStates.clear();
+		this.updatePositions.clear();
+	}
+
+	@Override
+	public void discard() {
+		super.discard();
+		this.updateStates.clear();
+		this.updatePositions.clear();
+	}
 
-		if (!this.activeCuboid.contains(event.pos))
+	protected boolean isInteresting(@Nonnull final IBlockState state, @Nonnull final BlockPos pos) {
+		if (this.activeCuboid == null || !this.activeCuboid.contains(pos))
 			return false;
 
-		if (!interestingBlock(event.newState))
+		if (!interestingBlock(state))
 			return false;
 
-		return this.locus.getWorld().isAvailable(event.pos);
+		return this.locus.getWorld().isAvailable(pos);
 	}
 
-	@SubscribeEvent()
-	public void onBlockUpdate(@Nonnull final BlockUpdateEvent event) {
+	private void blockUpdate(@Nonnull final IBlockState state, @Nonnull final BlockPos pos) {
 		try {
-			if (isInteresting(event)) {
-				blockScan(event.newState, event.pos, this.random);
-			}
+			if (isInteresting(state, pos))
+				blockScan(state, pos, this.random);
 		} catch (final Throwable t) {
 			this.log.error("onBlockUpdate() error", t);
 		}
 	}
 
-}
\ No newline at end of file
+	@SubscribeEvent()
+	public void onBlockUpdate(@Nonnull final BlockUpdateEvent event) {
+		if (event.oldState == event.newState)
+			return;
+
+		// The snapshot is only set and cleared on the client thread. While it is
+		// set a worker may be scanning, so hold the update until dispatch().
+		if (this.snapshot != null) {
+			this.updateStates.add(event.newState);
+			this.updatePositions.add(event.pos.toImmutable());
+		} else {
+			blockUpdate(event.newState, event.pos);
+		}
+	}
+
+}
@@ -32,4 +32,12 @@ public interface IPointIterator {
 	BlockPos next();
 
 	BlockPos peek();
+
+	/**
+	 * Advances past the remaining points in the 16x16x16 chunk section of the
+	 * peeked point.
+	 *
+	 * @return The number of points that were skipped
+	 */
+	int skipSection();
 }
\ No newline at end of file
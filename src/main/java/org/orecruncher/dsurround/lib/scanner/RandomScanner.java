@@ -34,36 +34,204 @@ import net.minecraft.util.math.BlockPos;
 /**
  * Serves up random blocks in an area around the player. Concentration of block
  * selections are closer to the player.
+ *
+ * With weighted sampling enabled the scanner draws from the positions of
+ * interesting blocks recorded in the section index rather than from every
+ * position in the area. Each block is selected with the same expected
+ * frequency as the uniform scan, but the lookups of blocks that can't produce
+ * anything are avoided.
  */
 public abstract class RandomScanner extends Scanner {
 
+	// Limit on the number of sections that are indexed per pass. Sections that
+	// have not been indexed are sampled over all of their positions.
+	private static final int MAX_SECTIONS_INDEXED = 8;
+
 	private final LCGRandom lcg = new LCGRandom();
 
 	private int playerX;
 	private int playerY;
 	private int playerZ;
 
+	protected boolean weightedSampling;
+
+	// Candidate sections for the pass
+	private final int[] sectionX;
+	private final int[] sectionY;
+	private final int[] sectionZ;
+	private final short[][] sectionBlocks;
+	private final double[] sectionBound;
+	private final double[] cumulative;
+
+	// Statistics for the diagnostic display
+	private int lookups;
+	private int lastLookups;
+
 	public RandomScanner(@Nonnull final ScanLocus locus, @Nonnull final String name, final int range) {
-		super(locus, name, range);
+		this(locus, name, range, 0);
 	}
 
 	public RandomScanner(@Nonnull final ScanLocus locus, @Nonnull final String name, final int range,
 			final int blocksPerTick) {
 		super(locus, name, range, blocksPerTick);
+
+		final int sections = sectionSpan(this.xRange) * sectionSpan(this.yRange) * sectionSpan(this.zRange);
+		this.sectionX = new int[sections];
+		this.sectionY = new int[sections];
+		this.sectionZ = new int[sections];
+		this.sectionBlocks = new short[sections][];
+		this.sectionBound = new double[sections];
+		this.cumulative = new double[sections];
+	}
+
+	private static int sectionSpan(final int range) {
+		// Offsets run from -(range - 1) to (range - 1)
+		return ((2 * range - 2) >> 4) + 2;
+	}
+
+	public void setWeightedSampling(final boolean flag) {
+		this.weightedSampling = flag;
+	}
+
+	/**
+	 * Number of blocks that were looked up during the last update.
+	 */
+	public int getBlockLookups() {
+		return this.lastLookups;
 	}
 
 	private int randomRange(final int range) {
 		return this.lcg.nextInt(range) - this.lcg.nextInt(range);
 	}
 
+	/**
+	 * Chance that randomRange() produces the offset.
+	 */
+	private static double chance(final int offset, final int range) {
+		final int d = Math.abs(offset);
+		return d >= range ? 0 : (double) (range - d) / (range * range);
+	}
+
+	/**
+	 * Highest chance of any offset in the section along an axis.
+	 */
+	private static double bound(final int section, final int center, final int range, final int min,
+			final int max) {
+		final int lo = Math.max(section << 4, min);
+		final int hi = Math.min((section << 4) + 15, max);
+		final int d = center < lo ? lo - center : center > hi ? center - hi : 0;
+		return chance(d, range);
+	}
+
 	@Override
 	public void preScan() {
-		final BlockPos pos = this.locus.getCenter();
+		final BlockPos pos = getCenter();
 		this.playerX = pos.getX();
 		this.playerY = pos.getY();
 		this.playerZ = pos.getZ();
 	}
 
+	@Override
+	public void update() {
+		if (this.weightedSampling) {
+			this.lookups = 0;
+			preScan();
+			sample();
+			postScan();
+			this.lastLookups = this.lookups;
+		} else {
+			super.update();
+			this.lastLookups = this.blocksPerTick;
+		}
+	}
+
+	private void sample() {
+		final int minX = this.playerX - this.xRange + 1;
+		final int maxX = this.playerX + this.xRange - 1;
+		final int minY = Math.max(this.playerY - this.yRange + 1, 0);
+		final int maxY = Math.min(this.playerY + this.yRange - 1, 255);
+		final int minZ = this.playerZ - this.zRange + 1;
+		final int maxZ = this.playerZ + this.zRange - 1;
+
+		// Gather the sections with candidate blocks. The bound is the chance of
+		// the most likely position in the section being picked by one uniform
+		// sample, and the weight of a section is that bound times the number of
+		// candidates.
+		int count = 0;
+		int indexed = 0;
+		double total = 0;
+		for (int sX = minX >> 4; sX <= maxX >> 4; sX++) {
+			final double bX = bound(sX, this.playerX, this.xRange, minX, maxX);
+			for (int sY = minY >> 4; sY <= maxY >> 4; sY++) {
+				final double bY = bound(sY, this.playerY, this.yRange, minY, maxY);
+				for (int sZ = minZ >> 4; sZ <= maxZ >> 4; sZ++) {
+					short[] blocks = getSectionBlocks(sX, sY, sZ, false);
+					if (blocks == SectionIndex.NOT_INDEXED && indexed < MAX_SECTIONS_INDEXED) {
+						blocks = getSectionBlocks(sX, sY, sZ, true);
+						indexed++;
+					}
+					if (blocks == null || (blocks.length == 0 && blocks != SectionIndex.NOT_INDEXED))
+						continue;
+
+					final int candidates = blocks == SectionIndex.NOT_INDEXED ? 4096 : blocks.length;
+					final double bound = bX * bY * bound(sZ, this.playerZ, this.zRange, minZ, maxZ);
+					total += bound * candidates;
+					this.sectionX[count] = sX;
+					this.sectionY[count] = sY;
+					this.sectionZ[count] = sZ;
+					this.sectionBlocks[count] = blocks;
+					this.sectionBound[count] = bound;
+					this.cumulative[count] = total;
+					count++;
+				}
+			}
+		}
+
+		if (count == 0)
+			return;
+
+		// Same expected number of selections per block as the uniform scan
+		final double expected = this.blocksPerTick * total;
+		int proposals = (int) expected;
+		if (this.random.nextDouble() < expected - proposals)
+			proposals++;
+
+		for (int i = 0; i < proposals; i++) {
+			final int s = pickSection(this.random.nextDouble() * total, count);
+			final short[] blocks = this.sectionBlocks[s];
+			final int idx = blocks == SectionIndex.NOT_INDEXED ? this.random.nextInt(4096)
+					: blocks[this.random.nextInt(blocks.length)];
+			final int x = (this.sectionX[s] << 4) | (idx & 15);
+			final int y = (this.sectionY[s] << 4) | (idx >> 8);
+			final int z = (this.sectionZ[s] << 4) | ((idx >> 4) & 15);
+
+			// Thin the proposal down to the chance of the actual position
+			final double chance = chance(x - this.playerX, this.xRange) * chance(y - this.playerY, this.yRange)
+					* chance(z - this.playerZ, this.zRange);
+			if (chance == 0 || this.random.nextDouble() * this.sectionBound[s] >= chance)
+				continue;
+
+			this.lookups++;
+			examine(this.workingPos.setPos(x, y, z));
+		}
+
+		for (int i = 0; i < count; i++)
+			this.sectionBlocks[i] = null;
+	}
+
+	private int pickSection(final double target, final int count) {
+		int lo = 0;
+		int hi = count - 1;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (this.cumulative[mid] <= target)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
 	@Override
 	@Nonnull
 	protected BlockPos nextPos(@Nonnull final BlockPos.MutableBlockPos workingPos, @Nonnull final Random rand) {
@@ -29,7 +29,8 @@ import java.util.concurrent.Callable;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-import org.orecruncher.lib.chunk.IBlockAccessEx;
+import org.orecruncher.dsurround.registry.blockstate.BlockStateUtil;
+import org.orecruncher.lib.collections.ObjectArray;
 import org.orecruncher.lib.logging.ModLog;
 import org.orecruncher.lib.random.XorShiftRandom;
 
@@ -59,6 +60,13 @@ public abstract class Scanner implements ITickable, Callable<Void> {
 	protected final Random random = new XorShiftRandom();
 	protected final BlockPos.MutableBlockPos workingPos = new BlockPos.MutableBlockPos();
 
+	// When scanning against a snapshot the hits are held until dispatch() is
+	// called on the client thread.
+	protected SectionSnapshot snapshot;
+	protected final SectionIndex sectionIndex = new SectionIndex(this::interestingBlock, this::interestingStateId);
+	private final ObjectArray<IBlockState> hitStates = new ObjectArray<>();
+	private final ObjectArray<BlockPos> hitPositions = new ObjectArray<>();
+
 	protected ModLog log;
 
 	public Scanner(@Nonnull final ScanLocus locus, @Nonnull final String name, final int range) {
@@ -122,6 +130,63 @@ public abstract class Scanner implements ITickable, Callable<Void> {
 		return state != Blocks.AIR.getDefaultState();
 	}
 
+	/**
+	 * Index of the positions of interesting blocks by chunk section. Needs to
+	 * be registered on the event bus for it to follow changes in the world.
+	 */
+	@Nonnull
+	public SectionIndex getSectionIndex() {
+		return this.sectionIndex;
+	}
+
+	/**
+	 * Sets the snapshot the next scan pass is to read from. Once set the scanner
+	 * can be run from a worker thread via call(). Interesting blocks that are
+	 * found are held until dispatch() is invoked.
+	 */
+	public void setSnapshot(@Nonnull final SectionSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * Adds the region the next scan pass will read to the snapshot builder.
+	 */
+	public void include(@Nonnull final SectionSnapshot.Builder builder) {
+		final BlockPos center = this.locus.getCenter();
+		if (center != null)
+			builder.include(center, this.xRange, this.yRange, this.zRange);
+	}
+
+	/**
+	 * Hands the blocks found by the last snapshot scan to blockScan(). Must be
+	 * invoked on the client thread after the scan has completed.
+	 */
+	public void dispatch() {
+		this.snapshot = null;
+		for (int i = 0; i < this.hitStates.size(); i++)
+			blockScan(this.hitStates.get(i), this.hitPositions.get(i), this.random);
+		this.hitStates.clear();
+		this.hitPositions.clear();
+	}
+
+	/**
+	 * Drops the snapshot and any blocks found by the last snapshot scan.
+	 */
+	public void discard() {
+		this.snapshot = null;
+		this.hitStates.clear();
+		this.hitPositions.clear();
+	}
+
+	/**
+	 * Same as interestingBlock() but for a block state id. This is what is used
+	 * when scanning a snapshot, so override with a test that doesn't need to
+	 * resolve the state.
+	 */
+	protected boolean interestingStateId(final int stateId) {
+		return interestingBlock(BlockStateUtil.getStateById(stateId));
+	}
+
 	@Override
 	public Void call() {
 		update();
@@ -136,20 +201,69 @@ public abstract class Scanner implements ITickable, Callable<Void> {
 
 	}
 
+	@Nullable
+	protected BlockPos getCenter() {
+		return this.snapshot != null ? this.snapshot.getCenter() : this.locus.getCenter();
+	}
+
+	protected int getReference() {
+		return this.snapshot != null ? this.snapshot.getReference() : this.locus.getReference();
+	}
+
+	/**
+	 * Reads the block at the position and passes it along to onHit() if it is of
+	 * interest.
+	 */
+	protected void examine(@Nonnull final BlockPos pos) {
+		if (this.snapshot != null) {
+			final int id = this.snapshot.getStateId(pos);
+			if (interestingStateId(id))
+				onHit(BlockStateUtil.getStateById(id), pos);
+		} else {
+			final IBlockState state = this.locus.getWorld().getBlockState(pos);
+			if (interestingBlock(state))
+				onHit(state, pos);
+		}
+	}
+
+	/**
+	 * Obtains the positions of interesting blocks within a chunk section from
+	 * the section index. See SectionIndex.getBlocks().
+	 */
+	@Nullable
+	protected short[] getSectionBlocks(final int x, final int y, final int z, final boolean build) {
+		if (this.snapshot != null)
+			return this.sectionIndex.getBlocks(this.snapshot, x, y, z, build);
+		return this.sectionIndex.getBlocks(this.locus.getWorld().getWorld(), x, y, z, build);
+	}
+
+	protected boolean isAvailable(@Nonnull final BlockPos pos) {
+		return this.snapshot != null ? this.snapshot.isAvailable(pos) : this.locus.getWorld().isAvailable(pos);
+	}
+
+	/**
+	 * Routes an interesting block to blockScan(), or holds it for dispatch() if
+	 * scanning against a snapshot.
+	 */
+	protected void onHit(@Nonnull final IBlockState state, @Nonnull final BlockPos pos) {
+		if (this.snapshot != null) {
+			this.hitStates.add(state);
+			this.hitPositions.add(pos.toImmutable());
+		} else {
+			blockScan(state, pos, this.random);
+		}
+	}
+
 	@Override
 	public void update() {
 
 		preScan();
 
-		final IBlockAccessEx provider = this.locus.getWorld();
 		for (int count = 0; count < this.blocksPerTick; count++) {
 			final BlockPos pos = nextPos(this.workingPos, this.random);
 			if (pos == null)
 				break;
-			final IBlockState state = provider.getBlockState(pos);
-			if (interestingBlock(state)) {
-				blockScan(state, pos, this.random);
-			}
+			examine(pos);
 		}
 
 		postScan();
@@ -0,0 +1,247 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.lib.scanner;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.orecruncher.dsurround.event.BlockRangeUpdateEvent;
+import org.orecruncher.dsurround.event.BlockUpdateEvent;
+import org.orecruncher.dsurround.registry.RegistryDataEvent;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+/**
+ * Tracks the positions within each chunk section of the block states a
+ * scanner is interested in. Sections without any can be skipped, and random
+ * sampling can be limited to the blocks that matter. Positions are encoded as
+ * (y << 8) | (z << 4) | x relative to the section.
+ *
+ * Lists for sections in the world are built on first use and kept up to date
+ * from block updates and range refreshes, so the index needs to be registered on the event bus.
+ * Sections in a snapshot are immutable so their list is remembered per copy,
+ * and are tested by state id.
+ */
+public final class SectionIndex {
+
+	/**
+	 * Returned when the section is available but has yet to be indexed.
+	 */
+	public static final short[] NOT_INDEXED = new short[0];
+
+	private static final short[] NONE = new short[0];
+	private static final short[] ALL = new short[4096];
+	private static final int MAX_SNAPSHOT_ENTRIES = 4096;
+
+	static {
+		for (int i = 0; i < ALL.length; i++)
+			ALL[i] = (short) i;
+	}
+
+	private final Predicate<IBlockState> filter;
+	private final IntPredicate idFilter;
+	private final Long2ObjectOpenHashMap<short[]> sections = new Long2ObjectOpenHashMap<>();
+	private final Reference2ObjectOpenHashMap<char[], short[]> copies = new Reference2ObjectOpenHashMap<>();
+
+	// Snapshot sections are examined on the scanning thread, so a clear() from
+	// the client thread is picked up through the generation.
+	private volatile int generation;
+	private int copiesGeneration;
+
+	public SectionIndex(@Nonnull final Predicate<IBlockState> filter, @Nonnull final IntPredicate idFilter) {
+		this.filter = filter;
+		this.idFilter = idFilter;
+	}
+
+	/**
+	 * Obtains the interesting positions of a section in the world. Returns null
+	 * if the section is not loaded, or NOT_INDEXED if it has not been indexed and
+	 * build is false.
+	 */
+	@Nullable
+	public short[] getBlocks(@Nonnull final World world, final int x, final int y, final int z,
+			final boolean build) {
+		if (y < 0 || y > 15)
+			return null;
+
+		final long key = SectionSnapshot.sectionKey(x, y, z);
+		short[] blocks = this.sections.get(key);
+		if (blocks == null) {
+			final Chunk chunk = world.getChunkProvider().getLoadedChunk(x, z);
+			if (chunk == null || chunk.isEmpty())
+				return null;
+			if (!build)
+				return NOT_INDEXED;
+			blocks = index(chunk.getBlockStorageArray()[y]);
+			this.sections.put(key, blocks);
+		}
+		return blocks;
+	}
+
+	/**
+	 * Obtains the interesting positions of a section captured by the snapshot.
+	 * Returns null if the section was not captured, or NOT_INDEXED if it has not
+	 * been indexed and build is false.
+	 */
+	@Nullable
+	public short[] getBlocks(@Nonnull final SectionSnapshot snapshot, final int x, final int y, final int z,
+			final boolean build) {
+		final char[] section = snapshot.getSection(x, y, z);
+		if (section == null)
+			return null;
+
+		final int gen = this.generation;
+		if (gen != this.copiesGeneration) {
+			this.copies.clear();
+			this.copiesGeneration = gen;
+		}
+
+		short[] blocks = this.copies.get(section);
+		if (blocks == null) {
+			if (!build)
+				return NOT_INDEXED;
+			if (this.copies.size() >= MAX_SNAPSHOT_ENTRIES)
+				this.copies.clear();
+			blocks = index(section);
+			this.copies.put(section, blocks);
+		}
+		return blocks;
+	}
+
+	@Nonnull
+	private short[] index(@Nullable final ExtendedBlockStorage storage) {
+		if (storage == Chunk.NULL_BLOCK_STORAGE || storage.isEmpty())
+			return this.filter.test(Blocks.AIR.getDefaultState()) ? ALL : NONE;
+
+		final short[] scratch = new short[4096];
+		int count = 0;
+		for (int y = 0; y < 16; y++)
+			for (int z = 0; z < 16; z++)
+				for (int x = 0; x < 16; x++)
+					if (this.filter.test(storage.get(x, y, z)))
+						scratch[count++] = (short) SectionSnapshot.index(x, y, z);
+		return count == 0 ? NONE : Arrays.copyOf(scratch, count);
+	}
+
+	@Nonnull
+	private short[] index(@Nonnull final char[] section) {
+		final short[] scratch = new short[4096];
+		int count = 0;
+		for (int i = 0; i < section.length; i++)
+			if (this.idFilter.test(section[i]))
+				scratch[count++] = (short) i;
+		return count == 0 ? NONE : Arrays.copyOf(scratch, count);
+	}
+
+	public void clear() {
+		this.sections.clear();
+		this.generation++;
+	}
+
+	private void invalidateColumn(final int x, final int z) {
+		for (int y = 0; y < 16; y++)
+			this.sections.remove(SectionSnapshot.sectionKey(x, y, z));
+	}
+
+	@SubscribeEvent
+	public void onBlockUpdate(@Nonnull final BlockUpdateEvent event) {
+		final int y = event.pos.getY();
+		if (y < 0 || y > 255)
+			return;
+
+		final long key = SectionSnapshot.sectionKey(event.pos.getX() >> 4, y >> 4, event.pos.getZ() >> 4);
+		final short[] blocks = this.sections.get(key);
+		if (blocks == null)
+			return;
+
+		final short idx = (short) SectionSnapshot.index(event.pos.getX(), y, event.pos.getZ());
+		int found = -1;
+		for (int i = 0; i < blocks.length; i++)
+			if (blocks[i] == idx) {
+				found = i;
+				break;
+			}
+
+		final boolean interesting = this.filter.test(event.newState);
+		if (interesting && found < 0) {
+			final short[] updated = Arrays.copyOf(blocks, blocks.length + 1);
+			updated[blocks.length] = idx;
+			this.sections.put(key, updated);
+		} else if (!interesting && found >= 0) {
+			final short[] updated = new short[blocks.length - 1];
+			System.arraycopy(blocks, 0, updated, 0, found);
+			System.arraycopy(blocks, found + 1, updated, found, blocks.length - found - 1);
+			this.sections.put(key, updated.length == 0 ? NONE : updated);
+		}
+	}
+
+	@SubscribeEvent
+	public void onBlockRangeUpdate(@Nonnull final BlockRangeUpdateEvent event) {
+		final int y0 = Math.max(event.minY, 0) >> 4;
+		final int y1 = Math.min(event.maxY, 255) >> 4;
+		for (int x = event.minX >> 4; x <= event.maxX >> 4; x++)
+			for (int z = event.minZ >> 4; z <= event.maxZ >> 4; z++)
+				for (int y = y0; y <= y1; y++)
+					this.sections.remove(SectionSnapshot.sectionKey(x, y, z));
+	}
+
+	@SubscribeEvent
+	public void onChunkLoad(@Nonnull final ChunkEvent.Load event) {
+		if (event.getWorld().isRemote)
+			invalidateColumn(event.getChunk().x, event.getChunk().z);
+	}
+
+	@SubscribeEvent
+	public void onChunkUnload(@Nonnull final ChunkEvent.Unload event) {
+		if (event.getWorld().isRemote)
+			invalidateColumn(event.getChunk().x, event.getChunk().z);
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(@Nonnull final WorldEvent.Unload event) {
+		if (event.getWorld().isRemote)
+			clear();
+	}
+
+	@SubscribeEvent
+	public void registryReload(@Nonnull final RegistryDataEvent.Reload event) {
+		// What is considered interesting may have changed
+		clear();
+	}
+
+}
@@ -0,0 +1,332 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.lib.scanner;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.orecruncher.dsurround.event.BlockRangeUpdateEvent;
+import org.orecruncher.dsurround.event.BlockUpdateEvent;
+import org.orecruncher.dsurround.registry.blockstate.BlockStateUtil;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+/**
+ * Immutable copy of the block states of the chunk sections around a point.
+ * Scanners can read a snapshot from a worker thread while the client thread
+ * continues to modify the world. Positions outside of the captured sections
+ * read as air and are reported as not available.
+ *
+ * Sections are held as block state ids (see BlockStateUtil.getStateId()) so
+ * that scanners can test the flags of a state without resolving it.
+ */
+public final class SectionSnapshot {
+
+	private static final char[] EMPTY_SECTION = new char[4096];
+
+	private static final int AIR_ID = 0;
+
+	private final Long2ObjectOpenHashMap<char[]> sections;
+	private final LongOpenHashSet columns;
+	private final BlockPos center;
+	private final int reference;
+
+	private SectionSnapshot(@Nonnull final Long2ObjectOpenHashMap<char[]> sections,
+			@Nonnull final LongOpenHashSet columns, @Nonnull final BlockPos center, final int reference) {
+		this.sections = sections;
+		this.columns = columns;
+		this.center = center;
+		this.reference = reference;
+	}
+
+	/**
+	 * The scan center at the time the snapshot was taken.
+	 */
+	@Nonnull
+	public BlockPos getCenter() {
+		return this.center;
+	}
+
+	/**
+	 * The world reference at the time the snapshot was taken.
+	 */
+	public int getReference() {
+		return this.reference;
+	}
+
+	public boolean isAvailable(@Nonnull final BlockPos pos) {
+		return this.columns.contains(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+	}
+
+	/**
+	 * The block state id at the position. Positions that were not captured
+	 * report air.
+	 */
+	public int getStateId(@Nonnull final BlockPos pos) {
+		final int y = pos.getY();
+		if (y < 0 || y > 255)
+			return AIR_ID;
+		final char[] section = this.sections.get(sectionKey(pos.getX() >> 4, y >> 4, pos.getZ() >> 4));
+		return section == null ? AIR_ID : section[index(pos.getX(), y, pos.getZ())];
+	}
+
+	@Nonnull
+	public IBlockState getBlockState(@Nonnull final BlockPos pos) {
+		return BlockStateUtil.getStateById(getStateId(pos));
+	}
+
+	/**
+	 * The block state ids of the section, or null if it was not captured. Arrays
+	 * are shared between snapshots as long as the section does not change.
+	 */
+	@Nullable
+	char[] getSection(final int x, final int y, final int z) {
+		return this.sections.get(sectionKey(x, y, z));
+	}
+
+	public int getSectionCount() {
+		return this.sections.size();
+	}
+
+	static long sectionKey(final int x, final int y, final int z) {
+		return (((long) x & 0x3FFFFFF) << 38) | (((long) z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+	}
+
+	static int index(final int x, final int y, final int z) {
+		return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+	}
+
+	/**
+	 * Takes snapshots on the client thread. Copies of sections are retained
+	 * between snapshots and only refreshed when a chunk is loaded or a range of
+	 * blocks is refreshed by the server. Block updates
+	 * are applied copy-on-write so a snapshot that has been handed out never
+	 * changes. Needs to be registered on the event bus to receive updates.
+	 */
+	public static final class Builder {
+
+		private final Long2ObjectOpenHashMap<char[]> cache = new Long2ObjectOpenHashMap<>();
+		// Sections that have been copied since the last snapshot and can be
+		// modified in place
+		private final LongOpenHashSet owned = new LongOpenHashSet();
+
+		private World world;
+
+		private int minX, minY, minZ;
+		private int maxX, maxY, maxZ;
+		private boolean empty = true;
+
+		// Statistics for the diagnostic display
+		private int sectionsCopied;
+
+		/**
+		 * Adds the area around the point to the region to be captured by the next
+		 * snapshot.
+		 */
+		public void include(@Nonnull final BlockPos center, final int xRange, final int yRange, final int zRange) {
+			final int x0 = (center.getX() - xRange) >> 4;
+			final int y0 = Math.max(center.getY() - yRange, 0) >> 4;
+			final int z0 = (center.getZ() - zRange) >> 4;
+			final int x1 = (center.getX() + xRange) >> 4;
+			final int y1 = Math.min(center.getY() + yRange, 255) >> 4;
+			final int z1 = (center.getZ() + zRange) >> 4;
+
+			if (this.empty) {
+				this.minX = x0;
+				this.minY = y0;
+				this.minZ = z0;
+				this.maxX = x1;
+				this.maxY = y1;
+				this.maxZ = z1;
+				this.empty = false;
+			} else {
+				this.minX = Math.min(this.minX, x0);
+				this.minY = Math.min(this.minY, y0);
+				this.minZ = Math.min(this.minZ, z0);
+				this.maxX = Math.max(this.maxX, x1);
+				this.maxY = Math.max(this.maxY, y1);
+				this.maxZ = Math.max(this.maxZ, z1);
+			}
+		}
+
+		/**
+		 * Captures the region built up by calls to include(). The region is reset
+		 * afterwards.
+		 */
+		@Nonnull
+		public SectionSnapshot build(@Nonnull final World world, @Nonnull final BlockPos center,
+				final int reference) {
+			if (this.world != world) {
+				this.world = world;
+				this.cache.clear();
+			}
+
+			this.sectionsCopied = 0;
+			this.owned.clear();
+
+			final Long2ObjectOpenHashMap<char[]> sections = new Long2ObjectOpenHashMap<>();
+			final LongOpenHashSet columns = new LongOpenHashSet();
+
+			if (!this.empty) {
+				for (int cX = this.minX; cX <= this.maxX; cX++)
+					for (int cZ = this.minZ; cZ <= this.maxZ; cZ++) {
+						final Chunk chunk = world.getChunkProvider().getLoadedChunk(cX, cZ);
+						if (chunk == null || chunk.isEmpty())
+							continue;
+						columns.add(ChunkPos.asLong(cX, cZ));
+						for (int cY = this.minY; cY <= this.maxY; cY++) {
+							final long key = sectionKey(cX, cY, cZ);
+							char[] section = this.cache.get(key);
+							if (section == null) {
+								section = copy(chunk, cY);
+								this.cache.put(key, section);
+							}
+							sections.put(key, section);
+						}
+					}
+			}
+
+			evict();
+			this.empty = true;
+
+			return new SectionSnapshot(sections, columns, center.toImmutable(), reference);
+		}
+
+		/**
+		 * Number of sections that had to be copied from the world by the last
+		 * build().
+		 */
+		public int getSectionsCopied() {
+			return this.sectionsCopied;
+		}
+
+		public void clear() {
+			this.cache.clear();
+			this.owned.clear();
+			this.world = null;
+			this.empty = true;
+		}
+
+		@Nonnull
+		private char[] copy(@Nonnull final Chunk chunk, final int cY) {
+			final ExtendedBlockStorage storage = chunk.getBlockStorageArray()[cY];
+			if (storage == Chunk.NULL_BLOCK_STORAGE || storage.isEmpty())
+				return EMPTY_SECTION;
+
+			this.sectionsCopied++;
+			final char[] section = new char[4096];
+			// Sections tend to be made up of runs of the same state
+			IBlockState last = null;
+			char lastId = 0;
+			for (int y = 0; y < 16; y++)
+				for (int z = 0; z < 16; z++)
+					for (int x = 0; x < 16; x++) {
+						final IBlockState state = storage.get(x, y, z);
+						if (state != last) {
+							last = state;
+							lastId = (char) BlockStateUtil.getStateId(state);
+						}
+						section[index(x, y, z)] = lastId;
+					}
+			return section;
+		}
+
+		private void evict() {
+			final ObjectIterator<Long2ObjectMap.Entry<char[]>> itr = this.cache.long2ObjectEntrySet()
+					.fastIterator();
+			while (itr.hasNext()) {
+				final long key = itr.next().getLongKey();
+				final int cX = (int) (key >> 38);
+				final int cZ = (int) (key << 26 >> 38);
+				final int cY = (int) (key & 0xFFF);
+				if (cX < this.minX || cX > this.maxX || cZ < this.minZ || cZ > this.maxZ || cY < this.minY
+						|| cY > this.maxY)
+					itr.remove();
+			}
+		}
+
+		private void invalidateColumn(final int cX, final int cZ) {
+			for (int cY = 0; cY < 16; cY++)
+				this.cache.remove(sectionKey(cX, cY, cZ));
+		}
+
+		@SubscribeEvent
+		public void onBlockUpdate(@Nonnull final BlockUpdateEvent event) {
+			if (event.world != this.world)
+				return;
+			final BlockPos pos = event.pos;
+			if (pos.getY() < 0 || pos.getY() > 255)
+				return;
+			final long key = sectionKey(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+			char[] section = this.cache.get(key);
+			if (section == null)
+				return;
+			if (this.owned.add(key)) {
+				section = section.clone();
+				this.cache.put(key, section);
+			}
+			section[index(pos.getX(), pos.getY(), pos.getZ())] = (char) BlockStateUtil.getStateId(event.newState);
+		}
+
+		@SubscribeEvent
+		public void onBlockRangeUpdate(@Nonnull final BlockRangeUpdateEvent event) {
+			if (event.world != this.world)
+				return;
+			final int y0 = Math.max(event.minY, 0) >> 4;
+			final int y1 = Math.min(event.maxY, 255) >> 4;
+			for (int cX = event.minX >> 4; cX <= event.maxX >> 4; cX++)
+				for (int cZ = event.minZ >> 4; cZ <= event.maxZ >> 4; cZ++)
+					for (int cY = y0; cY <= y1; cY++) {
+						final long key = sectionKey(cX, cY, cZ);
+						this.cache.remove(key);
+						this.owned.remove(key);
+					}
+		}
+
+		@SubscribeEvent
+		public void onChunkLoad(@Nonnull final ChunkEvent.Load event) {
+			if (event.getWorld() == this.world)
+				invalidateColumn(event.getChunk().x, event.getChunk().z);
+		}
+
+		@SubscribeEvent
+		public void onChunkUnload(@Nonnull final ChunkEvent.Unload event) {
+			if (event.getWorld() == this.world)
+				invalidateColumn(event.getChunk().x, event.getChunk().z);
+		}
+	}
+
+}
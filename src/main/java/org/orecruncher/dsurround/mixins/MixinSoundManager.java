@@ -27,12 +27,14 @@ import org.orecruncher.dsurround.client.sound.SoundEngine;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.audio.ISound;
 import net.minecraft.client.audio.SoundManager;
 import net.minecraft.client.gui.GuiScreen;
+import net.minecraft.util.SoundCategory;
 import net.minecraftforge.fml.client.GuiErrorBase;
 
 @Mixin(SoundManager.class)
@@ -48,4 +50,14 @@ public abstract class MixinSoundManager {
 			}
 		}
 	}
+
+	@Inject(method = "setVolume(Lnet/minecraft/util/SoundCategory;F)V", at = @At("HEAD"))
+	private void setVolume(SoundCategory category, float volume, CallbackInfo ci) {
+		SoundEngine.instance().onCategoryVolumeChanged(category);
+	}
+
+	@Inject(method = "stopSound(Lnet/minecraft/client/audio/ISound;)V", at = @At("HEAD"))
+	private void stopSound(ISound sound, CallbackInfo ci) {
+		SoundEngine.instance().onSoundStopped(sound);
+	}
 }
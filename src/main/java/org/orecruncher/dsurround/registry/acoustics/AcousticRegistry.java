@@ -26,10 +26,12 @@ package org.orecruncher.dsurround.registry.acoustics;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -50,6 +52,7 @@ import com.google.gson.JsonObject;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectAVLTreeMap;
 import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.block.SoundType;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
@@ -124,6 +127,11 @@ public class AcousticRegistry extends Registry {
 	 */
 	private final Map<String, IAcoustic[]> compiled = new Object2ObjectAVLTreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
+	/*
+	 * Sounds used by the acoustics
+	 */
+	private final Set<SoundEvent> sounds = new ReferenceOpenHashSet<>();
+
 	// Special sentinels for equating
 	public static final IAcoustic[] EMPTY = {};
 	public static final IAcoustic[] NOT_EMITTER = { new NullAcoustic("NOT_EMITTER") };
@@ -144,6 +152,7 @@ public class AcousticRegistry extends Registry {
 		this.material = 0;
 		this.acoustics.clear();
 		this.compiled.clear();
+		this.sounds.clear();
 		this.compiled.put("EMPTY", EMPTY);
 		this.compiled.put("NOT_EMITTER", NOT_EMITTER);
 		this.compiled.put("MESSY_GROUND", MESSY_GROUND);
@@ -256,6 +265,14 @@ public class AcousticRegistry extends Registry {
 		this.acoustics.put(acoustic.getName(), acoustic);
 	}
 
+	/**
+	 * Sounds that are referenced by the acoustics in the registry.
+	 */
+	@Nonnull
+	public Collection<SoundEvent> getReferencedSounds() {
+		return this.sounds;
+	}
+
 	@Nullable
 	public IAcoustic getAcoustic(@Nonnull final String name) {
 		return this.acoustics.get(name);
@@ -295,6 +312,7 @@ public class AcousticRegistry extends Registry {
 		if (result == null) {
 			result = new SimpleAcoustic(evt);
 			this.acoustics.put(result.getName(), result);
+			this.sounds.add(evt);
 		}
 		return result;
 	}
@@ -409,10 +427,13 @@ public class AcousticRegistry extends Registry {
 			} else {
 				res = new ResourceLocation("minecraft", soundName.substring(1));
 			}
-			if (res == null)
+			if (res == null) {
 				a.setSound(null);
-			else
-				a.setSound(RegistryManager.SOUND.getSound(res));
+			} else {
+				final SoundEvent evt = RegistryManager.SOUND.getSound(res);
+				a.setSound(evt);
+				this.sounds.add(evt);
+			}
 		} catch (final Throwable t) {
 			ModBase.log().warn("Unable to locate sound [%s]", soundName);
 			a.setSound(null);
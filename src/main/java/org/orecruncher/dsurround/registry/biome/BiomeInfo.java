@@ -37,6 +37,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.orecruncher.dsurround.capabilities.season.TemperatureRating;
 import org.orecruncher.dsurround.client.handlers.BiomeSoundEffectsHandler;
 import org.orecruncher.dsurround.client.sound.SoundEffect;
+import org.orecruncher.dsurround.expression.SampledVariable;
 import org.orecruncher.dsurround.registry.RegistryManager;
 import org.orecruncher.dsurround.registry.config.models.BiomeConfig;
 import org.orecruncher.dsurround.registry.config.models.SoundConfig;
@@ -82,6 +83,16 @@ public final class BiomeInfo implements Comparable<BiomeInfo> {
 	protected SoundEffect[] spotSounds = NO_SOUNDS;
 	protected int spotSoundChance = DEFAULT_SPOT_CHANCE;
 
+	// Results of the last sound match. Reused until one of the script variables
+	// referenced by the sound conditions changes. A null version array means at
+	// least one condition could not be compiled and the matches have to be
+	// checked every time.
+	private SoundEffect[] soundMatches = NO_SOUNDS;
+	private SoundEffect[] matchScratch;
+	private SampledVariable[] matchVariables;
+	private int[] matchVersions;
+	private boolean matchesValid;
+
 	protected final List<String> comments = Lists.newArrayList();
 
 	protected final boolean isRiver;
@@ -237,6 +248,7 @@ public final class BiomeInfo implements Comparable<BiomeInfo> {
 
 	void addSound(final SoundEffect sound) {
 		this.sounds = MyUtils.append(this.sounds, sound);
+		invalidateSoundMatches();
 	}
 
 	void addSpotSound(final SoundEffect sound) {
@@ -278,11 +290,92 @@ public final class BiomeInfo implements Comparable<BiomeInfo> {
 
 	@Nonnull
 	public Collection<SoundEffect> findSoundMatches(@Nonnull final Collection<SoundEffect> results) {
+		for (final SoundEffect sound : getSoundMatches())
+			results.add(sound);
+		return results;
+	}
+
+	/**
+	 * Obtains the sounds whose conditions currently match. The returned array is
+	 * shared and reused across calls until the match changes, so it must not be
+	 * modified.
+	 */
+	@Nonnull
+	public SoundEffect[] getSoundMatches() {
+		if (this.sounds == NO_SOUNDS)
+			return NO_SOUNDS;
+
+		if (this.matchScratch == null)
+			buildMatchDependencies();
+
+		boolean changed = !this.matchesValid || this.matchVersions == null;
+		if (!changed) {
+			for (int i = 0; i < this.matchVariables.length; i++) {
+				final int v = this.matchVariables[i].getVersion();
+				if (v != this.matchVersions[i]) {
+					this.matchVersions[i] = v;
+					changed = true;
+				}
+			}
+		}
+
+		if (changed) {
+			int count = 0;
+			for (final SoundEffect sound : this.sounds)
+				if (sound.matches())
+					this.matchScratch[count++] = sound;
+
+			if (!matchesEqual(count))
+				this.soundMatches = count == 0 ? NO_SOUNDS : Arrays.copyOf(this.matchScratch, count);
+			this.matchesValid = true;
+		}
+
+		return this.soundMatches;
+	}
+
+	private boolean matchesEqual(final int count) {
+		if (count != this.soundMatches.length)
+			return false;
+		for (int i = 0; i < count; i++)
+			if (this.soundMatches[i] != this.matchScratch[i])
+				return false;
+		return true;
+	}
+
+	private void buildMatchDependencies() {
+		final ObjectArray<SampledVariable> vars = new ObjectArray<>();
+		boolean cacheable = true;
 		for (final SoundEffect sound : this.sounds) {
-			if (sound.matches())
-				results.add(sound);
+			final SampledVariable[] deps = sound.getCondition().getVariables();
+			if (deps == null) {
+				cacheable = false;
+				break;
+			}
+			for (final SampledVariable v : deps)
+				if (!vars.contains(v))
+					vars.add(v);
 		}
-		return results;
+
+		this.matchScratch = new SoundEffect[this.sounds.length];
+		if (cacheable) {
+			this.matchVariables = vars.toArray(new SampledVariable[0]);
+			this.matchVersions = new int[this.matchVariables.length];
+			// Prime the versions so the first pass does not see a change
+			for (int i = 0; i < this.matchVariables.length; i++)
+				this.matchVersions[i] = this.matchVariables[i].getVersion();
+		} else {
+			this.matchVariables = null;
+			this.matchVersions = null;
+		}
+		this.matchesValid = false;
+	}
+
+	private void invalidateSoundMatches() {
+		this.soundMatches = NO_SOUNDS;
+		this.matchScratch = null;
+		this.matchVariables = null;
+		this.matchVersions = null;
+		this.matchesValid = false;
 	}
 
 	@Nullable
@@ -294,6 +387,7 @@ public final class BiomeInfo implements Comparable<BiomeInfo> {
 
 	void resetSounds() {
 		this.sounds = NO_SOUNDS;
+		invalidateSoundMatches();
 		this.spotSounds = NO_SOUNDS;
 		this.spotSoundChance = DEFAULT_SPOT_CHANCE;
 	}
@@ -26,6 +26,7 @@ package org.orecruncher.dsurround.registry.blockstate;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -46,10 +47,13 @@ import org.orecruncher.dsurround.registry.config.models.SoundConfig;
 import org.orecruncher.dsurround.registry.sound.SoundRegistry;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
 import net.minecraftforge.fml.common.registry.ForgeRegistries;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
@@ -58,6 +62,7 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 public final class BlockStateRegistry extends Registry {
 
 	private Map<BlockStateMatcher, BlockStateProfile> registry;
+	private final Set<SoundEvent> sounds = new ReferenceOpenHashSet<>();
 	private int blockStates;
 
 	public BlockStateRegistry() {
@@ -67,6 +72,7 @@ public final class BlockStateRegistry extends Registry {
 	@Override
 	protected void preInit() {
 		this.registry = new Object2ObjectOpenHashMap<>();
+		this.sounds.clear();
 
 		// Wipe out any cached data
 		getBlockStates().forEach(state -> BlockStateUtil.setStateData(state, null));
@@ -81,6 +87,40 @@ public final class BlockStateRegistry extends Registry {
 	@Override
 	protected void postInit() {
 		this.blockStates = (int) getBlockStates().map(this::get).count();
+		BlockStateUtil.setFlags(buildFlags());
+	}
+
+	/**
+	 * Builds the flag array indexed by block state id. The states are gathered
+	 * from the blocks rather than from BLOCK_STATE_IDS since iterating the id map
+	 * only gives one state per id. States that share an id differ only in
+	 * properties not stored in metadata, so their flags are OR'd together; a
+	 * scanner testing the id will not skip a block one of those states cares
+	 * about.
+	 */
+	@Nonnull
+	private byte[] buildFlags() {
+		int size = 0;
+		for (final Block block : Block.REGISTRY)
+			for (final IBlockState state : block.getBlockState().getValidStates())
+				size = Math.max(size, Block.BLOCK_STATE_IDS.get(state) + 1);
+
+		final byte[] flags = new byte[size];
+		for (final Block block : Block.REGISTRY) {
+			for (final IBlockState state : block.getBlockState().getValidStates()) {
+				final int id = Block.BLOCK_STATE_IDS.get(state);
+				if (id < 0)
+					continue;
+				final BlockStateData data = get(state);
+				int f = 0;
+				if (data.hasSoundsOrEffects())
+					f |= BlockStateUtil.FLAG_SOUNDS_OR_EFFECTS;
+				if (data.hasAlwaysOnEffects())
+					f |= BlockStateUtil.FLAG_ALWAYS_ON;
+				flags[id] |= (byte) f;
+			}
+		}
+		return flags;
 	}
 
 	@Override
@@ -90,6 +130,14 @@ public final class BlockStateRegistry extends Registry {
 		this.registry = null;
 	}
 
+	/**
+	 * Sounds that have been configured for block states.
+	 */
+	@Nonnull
+	public Collection<SoundEvent> getReferencedSounds() {
+		return this.sounds;
+	}
+
 	private Stream<IBlockState> getBlockStates() {
 		//@formatter:off
 		return StreamSupport.stream(ForgeRegistries.BLOCKS.spliterator(), false)
@@ -180,6 +228,7 @@ public final class BlockStateRegistry extends Registry {
 
 				// add sound config to current block data
                 blockData.addSound(soundEffect);
+                this.sounds.add(soundEffect.getSound());
             }
 
 			// -- HANDLE EFFECT CONFIG --
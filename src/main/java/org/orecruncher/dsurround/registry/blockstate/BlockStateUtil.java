@@ -31,15 +31,65 @@ import org.orecruncher.dsurround.ModBase;
 import org.orecruncher.dsurround.registry.IDataAccessor;
 import org.orecruncher.dsurround.registry.RegistryManager;
 
+import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
 
 /**
  * Helper class used to access and manipulate the reference to our data we have
  * referenced in the IBlockState implementation class. Goal is to avoid all the
  * dictionary lookups and things.
+ *
+ * The commonly tested properties of the data are also kept as a flag array
+ * indexed by block state id. Code that works with state ids, such as the
+ * section snapshots used by the block scanners, can test those without going
+ * to the state or its data at all.
  */
 public final class BlockStateUtil {
 
+	public static final int FLAG_SOUNDS_OR_EFFECTS = 0x01;
+	public static final int FLAG_ALWAYS_ON = 0x02;
+
+	// Replaced as a whole when the registry is rebuilt so it can be read from
+	// scanner threads.
+	private static volatile byte[] flags = new byte[0];
+
+	/**
+	 * Obtains the id of the state in Block.BLOCK_STATE_IDS. States that are not
+	 * registered there map to the id of the state their metadata represents.
+	 */
+	public static int getStateId(@Nonnull final IBlockState state) {
+		int id = Block.BLOCK_STATE_IDS.get(state);
+		if (id < 0) {
+			final Block block = state.getBlock();
+			id = Block.BLOCK_STATE_IDS.get(block.getStateFromMeta(block.getMetaFromState(state)));
+		}
+		return Math.max(id, 0);
+	}
+
+	@Nonnull
+	public static IBlockState getStateById(final int id) {
+		final IBlockState state = Block.BLOCK_STATE_IDS.getByValue(id);
+		return state != null ? state : Blocks.AIR.getDefaultState();
+	}
+
+	public static int getFlags(final int stateId) {
+		final byte[] f = flags;
+		return stateId < f.length ? f[stateId] : 0;
+	}
+
+	public static boolean hasSoundsOrEffects(final int stateId) {
+		return (getFlags(stateId) & FLAG_SOUNDS_OR_EFFECTS) != 0;
+	}
+
+	public static boolean hasAlwaysOnEffects(final int stateId) {
+		return (getFlags(stateId) & FLAG_ALWAYS_ON) != 0;
+	}
+
+	static void setFlags(@Nonnull final byte[] newFlags) {
+		flags = newFlags;
+	}
+
 	@SuppressWarnings("unchecked")
 	@Nonnull
 	public static <T extends BlockStateData> T getStateData(@Nonnull final IBlockState state) {
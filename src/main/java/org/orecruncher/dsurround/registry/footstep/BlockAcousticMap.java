@@ -60,6 +60,10 @@ public final class BlockAcousticMap {
 	protected final IAcousticResolver resolver;
 	protected final Map<Block, ObjectArray<BlockMapEntry>> data = new Reference2ObjectOpenHashMap<>();
 
+	// Flattened form of the map indexed by block state id. A null slot means the
+	// states sharing that id resolve differently and have to go through the map.
+	protected IAcoustic[][] compiled;
+
 	/**
 	 * CTOR for building a map that has no resolver and performs special lookups
 	 * based on block properties (i.e. used for substrate maps).
@@ -111,6 +115,15 @@ public final class BlockAcousticMap {
 	 */
 	@Nonnull
 	public IAcoustic[] getBlockAcoustics(@Nonnull final IBlockState state) {
+		final IAcoustic[][] c = this.compiled;
+		if (c != null) {
+			final int id = Block.BLOCK_STATE_IDS.get(state);
+			if (id >= 0 && id < c.length) {
+				final IAcoustic[] result = c[id];
+				if (result != null)
+					return result;
+			}
+		}
 		IAcoustic[] result = this.cache.get(state);
 		if (result == null) {
 			result = cacheMiss(state);
@@ -125,11 +138,60 @@ public final class BlockAcousticMap {
 			this.data.put(info.getBlock(), entry = new ObjectArray<>(2));
 		}
 		entry.add(new BlockMapEntry(info, acoustics));
+		this.compiled = null;
+	}
+
+	/**
+	 * Resolves every registered block state and stores the results in an array
+	 * indexed by block state id. Several states can share an id when they differ
+	 * only by properties not stored in metadata; if those resolve differently the
+	 * slot is left empty so lookups fall back to the map.
+	 *
+	 * The states are gathered from the blocks rather than from BLOCK_STATE_IDS
+	 * since iterating the id map only gives one state per id.
+	 *
+	 * @return The number of ids that could be compiled
+	 */
+	public int compile() {
+		// Resolve through the map, not a table left from a previous compile
+		this.compiled = null;
+
+		int size = 0;
+		for (final Block block : Block.REGISTRY)
+			for (final IBlockState state : block.getBlockState().getValidStates())
+				size = Math.max(size, Block.BLOCK_STATE_IDS.get(state) + 1);
+
+		final IAcoustic[][] result = new IAcoustic[size][];
+		final boolean[] ambiguous = new boolean[size];
+		for (final Block block : Block.REGISTRY) {
+			for (final IBlockState state : block.getBlockState().getValidStates()) {
+				final int id = Block.BLOCK_STATE_IDS.get(state);
+				if (id < 0)
+					continue;
+				final IAcoustic[] acoustics = getBlockAcoustics(state);
+				if (result[id] == null)
+					result[id] = acoustics;
+				else if (result[id] != acoustics)
+					ambiguous[id] = true;
+			}
+		}
+
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if (ambiguous[i])
+				result[i] = null;
+			else if (result[i] != null)
+				count++;
+		}
+
+		this.compiled = result;
+		return count;
 	}
 
 	public void clear() {
 		this.data.clear();
 		this.cache.clear();
+		this.compiled = null;
 	}
 
 	private static class BlockMapEntry {
@@ -42,8 +42,10 @@ import org.orecruncher.dsurround.registry.acoustics.IAcoustic;
 import org.orecruncher.dsurround.registry.blockstate.BlockStateMatcher;
 import org.orecruncher.lib.BlockNameUtil;
 import org.orecruncher.lib.BlockNameUtil.NameResult;
+import org.orecruncher.lib.MyUtils;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
@@ -57,6 +59,7 @@ public class BlockMap {
 	private final AcousticRegistry acousticsManager;
 	private final BlockAcousticMap metaMap;
 	private final Map<Substrate, BlockAcousticMap> substrateMap = new EnumMap<>(Substrate.class);
+	private final Map<IAcoustic[], Map<IAcoustic[], IAcoustic[]>> combined = new Reference2ObjectOpenHashMap<>();
 
 	private static class MacroEntry {
 		public final String propertyName;
@@ -197,6 +200,27 @@ public class BlockMap {
 		return this.metaMap.getBlockAcoustics(state);
 	}
 
+	/**
+	 * Returns the acoustics of a block with the foliage acoustics of the block
+	 * above laid over them. The acoustic arrays handed out by the maps are shared,
+	 * so the combinations are cached by identity rather than concatenated on every
+	 * footstep.
+	 */
+	@Nonnull
+	public IAcoustic[] getCombinedAcoustics(@Nonnull final IAcoustic[] base, @Nonnull final IAcoustic[] foliage) {
+		if (foliage.length == 0)
+			return base;
+		if (base.length == 0)
+			return foliage;
+		Map<IAcoustic[], IAcoustic[]> overlays = this.combined.get(base);
+		if (overlays == null)
+			this.combined.put(base, overlays = new Reference2ObjectOpenHashMap<>(4));
+		IAcoustic[] result = overlays.get(foliage);
+		if (result == null)
+			overlays.put(foliage, result = MyUtils.concatenate(base, foliage));
+		return result;
+	}
+
 	private void put(@Nonnull final BlockStateMatcher info, @Nullable final String substrate,
 			@Nonnull final String value) {
 
@@ -269,9 +293,23 @@ public class BlockMap {
 		}
 	}
 
+	/**
+	 * Flattens the base and substrate maps into arrays indexed by block state id.
+	 * Called once the registry has all of its entries.
+	 *
+	 * @return The number of ids compiled across all the maps
+	 */
+	public int compile() {
+		int count = this.metaMap.compile();
+		for (final BlockAcousticMap sub : this.substrateMap.values())
+			count += sub.compile();
+		return count;
+	}
+
 	public void clear() {
 		this.metaMap.clear();
 		this.substrateMap.clear();
+		this.combined.clear();
 	}
 
 }
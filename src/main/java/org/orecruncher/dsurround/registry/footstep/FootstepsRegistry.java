@@ -210,6 +210,11 @@ public final class FootstepsRegistry extends Registry {
 			})
 			.forEach(bs -> this.FOOTPRINT_STATES.add(bs));
 		//@formatter:on
+
+		// Flatten the block map so footstep lookups are an index by state id
+		// rather than a map probe per substrate.
+		final int compiled = getBlockMap().compile();
+		ModBase.log().debug("[%s] %d block state ids compiled into acoustic lookup", getName(), compiled);
 	}
 
 	@Override
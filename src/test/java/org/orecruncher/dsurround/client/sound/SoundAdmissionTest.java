@@ -0,0 +1,282 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.client.sound;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import javax.annotation.Nonnull;
+
+import org.junit.Test;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * Runs the SoundAdmission rules against a simulated set of channels. The
+ * workload is generated from a fixed seed so the dropped, stolen and late
+ * counts are the same on every run.
+ */
+public class SoundAdmissionTest {
+
+	private static final int NORMAL = 8;
+	private static final int STREAMING = 2;
+
+	private static final int IDLE = 0;
+	private static final int WAITING = 1;
+	private static final int PLAYING = 2;
+	private static final int DONE = 3;
+
+	private static final class Voice {
+		public final float priority;
+		public final boolean streaming;
+		public final int due;
+		public int end;
+		public int state = IDLE;
+
+		public Voice(final float priority, final boolean streaming, final int due) {
+			this.priority = priority;
+			this.streaming = streaming;
+			this.due = due;
+		}
+	}
+
+	private static final class Simulation implements SoundAdmission.IChannels<Voice> {
+
+		public final SoundAdmission<Voice> admission = new SoundAdmission<>(this);
+		public final ObjectArrayList<Voice> active = new ObjectArrayList<>();
+		public int tick;
+		public int duration = 20;
+		public int normalInUse;
+		public int streamingInUse;
+		public int late;
+		public int waits;
+
+		@Override
+		public boolean isStreaming(@Nonnull final Voice voice) {
+			return voice.streaming;
+		}
+
+		@Override
+		public int getInUse(final boolean streaming) {
+			return streaming ? this.streamingInUse : this.normalInUse;
+		}
+
+		@Override
+		public int getLimit(final boolean streaming) {
+			return streaming ? STREAMING : NORMAL;
+		}
+
+		@Override
+		public boolean recount() {
+			return false;
+		}
+
+		@Override
+		@Nonnull
+		public Iterable<Voice> getActive() {
+			return this.active;
+		}
+
+		@Override
+		public boolean isPlaying(@Nonnull final Voice voice) {
+			return voice.state == PLAYING;
+		}
+
+		@Override
+		public boolean isWaiting(@Nonnull final Voice voice) {
+			return voice.state == WAITING;
+		}
+
+		@Override
+		public float getPriority(@Nonnull final Voice voice) {
+			return voice.priority;
+		}
+
+		@Override
+		public void start(@Nonnull final Voice voice) {
+			if (voice.state != WAITING)
+				this.active.add(voice);
+			voice.state = PLAYING;
+			voice.end = this.tick + this.duration;
+			if (voice.streaming)
+				this.streamingInUse++;
+			else
+				this.normalInUse++;
+			if (this.tick - voice.due > 2)
+				this.late++;
+		}
+
+		@Override
+		public void stop(@Nonnull final Voice voice) {
+			if (voice.state == PLAYING) {
+				if (voice.streaming)
+					this.streamingInUse--;
+				else
+					this.normalInUse--;
+			}
+			voice.state = DONE;
+		}
+
+		public void submit(@Nonnull final Voice voice, final boolean canQueue) {
+			switch (this.admission.admit(voice, canQueue)) {
+			case PLAY:
+				start(voice);
+				break;
+			case WAIT:
+				voice.state = WAITING;
+				this.active.add(voice);
+				this.waits++;
+				break;
+			default:
+				voice.state = DONE;
+				break;
+			}
+		}
+
+		public void endTick() {
+			this.active.removeIf(voice -> {
+				if (voice.state == PLAYING && voice.end <= this.tick)
+					stop(voice);
+				return voice.state == DONE;
+			});
+			this.admission.drainWaiting();
+			assertTrue(this.normalInUse <= NORMAL);
+			assertTrue(this.streamingInUse <= STREAMING);
+			this.tick++;
+		}
+	}
+
+	private static Voice play(@Nonnull final Simulation sim, final float priority, final boolean canQueue) {
+		final Voice voice = new Voice(priority, false, sim.tick);
+		sim.submit(voice, canQueue);
+		return voice;
+	}
+
+	@Test
+	public void stealsOnlyFromMuchQuieterSounds() {
+		final Simulation sim = new Simulation();
+		for (int i = 0; i < NORMAL; i++)
+			play(sim, 1.0F + i, false);
+		final Voice quietest = sim.active.get(0);
+
+		// Not enough louder than the quietest to take its channel
+		assertEquals(DONE, play(sim, 1.5F, false).state);
+		assertEquals(1, sim.admission.getDropped());
+
+		assertEquals(PLAYING, play(sim, 2.5F, false).state);
+		assertEquals(DONE, quietest.state);
+		assertEquals(1, sim.admission.getStolen());
+		assertEquals(NORMAL, sim.normalInUse);
+	}
+
+	@Test
+	public void noStealingWhenTurnedOff() {
+		final Simulation sim = new Simulation();
+		sim.admission.setVoiceStealing(false);
+		for (int i = 0; i < NORMAL; i++)
+			play(sim, 0.1F, false);
+		assertEquals(DONE, play(sim, 10.0F, false).state);
+		assertEquals(0, sim.admission.getStolen());
+	}
+
+	@Test
+	public void waitingSoundsStartByPriority() {
+		final Simulation sim = new Simulation();
+		sim.admission.setVoiceStealing(false);
+		for (int i = 0; i < NORMAL; i++)
+			play(sim, 1.0F, false);
+		final Voice first = play(sim, 0.5F, true);
+		final Voice second = play(sim, 0.8F, true);
+		final Voice third = play(sim, 0.5F, true);
+		assertEquals(3, sim.admission.getWaiting());
+
+		sim.stop(sim.active.get(0));
+		sim.endTick();
+		assertEquals(PLAYING, second.state);
+		assertEquals(WAITING, first.state);
+
+		sim.stop(sim.active.get(1));
+		sim.endTick();
+		// Same priority goes first come first served
+		assertEquals(PLAYING, first.state);
+		assertEquals(WAITING, third.state);
+	}
+
+	@Test
+	public void fullStreamingPoolDoesNotHoldUpNormalSounds() {
+		final Simulation sim = new Simulation();
+		for (int i = 0; i < STREAMING; i++)
+			sim.submit(new Voice(4.0F, true, sim.tick), false);
+		final Voice stream = new Voice(1.0F, true, sim.tick);
+		sim.submit(stream, true);
+		assertEquals(WAITING, stream.state);
+		assertEquals(PLAYING, play(sim, 1.0F, false).state);
+		assertSame(SoundAdmission.Result.PLAY, sim.admission.admit(new Voice(1.0F, false, sim.tick), false));
+	}
+
+	private static int[] runWorkload(final boolean stealing) {
+		final Simulation sim = new Simulation();
+		sim.admission.setVoiceStealing(stealing);
+		final Random random = new Random(12345L);
+		int loudDropped = 0;
+		for (int t = 0; t < 2000; t++) {
+			// Bursts of quiet ambient sounds with the occasional loud one, as when
+			// walking through a busy area
+			final int count = random.nextInt(t % 200 < 50 ? 6 : 2);
+			for (int i = 0; i < count; i++) {
+				final boolean loud = random.nextInt(8) == 0;
+				final Voice voice = new Voice(loud ? 2.0F + random.nextFloat() : random.nextFloat() * 0.5F,
+						random.nextInt(40) == 0, sim.tick);
+				sim.submit(voice, random.nextBoolean());
+				if (loud && voice.state == DONE)
+					loudDropped++;
+			}
+			sim.endTick();
+		}
+		System.out.println(String.format("Voice stealing %s: %d dropped (%d loud), %d stolen, %d waited, %d late",
+				stealing ? "on " : "off", sim.admission.getDropped(), loudDropped, sim.admission.getStolen(),
+				sim.waits, sim.late));
+		return new int[] { sim.admission.getDropped(), loudDropped, sim.admission.getStolen(), sim.late };
+	}
+
+	@Test
+	public void simulatedWorkload() {
+		final int[] without = runWorkload(false);
+		final int[] with = runWorkload(true);
+		assertEquals(0, without[2]);
+		assertTrue(with[2] > 0);
+		// The loud sounds get their channels by taking them from quiet ones
+		assertTrue(without[1] > 0);
+		assertTrue(with[1] < without[1]);
+		// Same seed, same answer
+		final int[] again = runWorkload(true);
+		for (int i = 0; i < with.length; i++)
+			assertEquals(with[i], again[i]);
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.client.sound;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import paulscode.sound.SoundBuffer;
+import paulscode.sound.codecs.CodecJOrbis;
+
+/**
+ * Decodes the non-streamed sounds shipped with the mod using the codec the
+ * sound library loads them with, without a sound device. These are the files
+ * the preloader asks the library to hold, so together they have to fit in its
+ * budget.
+ */
+public class SoundDecodeTest {
+
+	private static final Path ASSETS = Paths.get("src", "main", "resources", "assets", "dsurround");
+
+	/**
+	 * Paths, relative to the sounds folder, of the sound files that are not
+	 * streamed.
+	 */
+	private static Set<String> getSoundFiles() throws IOException {
+		final Set<String> result = new TreeSet<>();
+		try (final Reader reader = Files.newBufferedReader(ASSETS.resolve("sounds.json"), StandardCharsets.UTF_8)) {
+			final JsonObject root = new JsonParser().parse(reader).getAsJsonObject();
+			for (final Map.Entry<String, JsonElement> event : root.entrySet()) {
+				final JsonElement sounds = event.getValue().getAsJsonObject().get("sounds");
+				if (sounds == null)
+					continue;
+				for (final JsonElement e : sounds.getAsJsonArray()) {
+					final String name;
+					if (e.isJsonObject()) {
+						final JsonObject o = e.getAsJsonObject();
+						if (o.has("stream") && o.get("stream").getAsBoolean())
+							continue;
+						if (o.has("type") && "event".equals(o.get("type").getAsString()))
+							continue;
+						name = o.get("name").getAsString();
+					} else {
+						name = e.getAsString();
+					}
+					if (name.startsWith("dsurround:"))
+						result.add(name.substring("dsurround:".length()) + ".ogg");
+				}
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public void bundledSoundsDecode() throws IOException {
+		final Set<String> files = getSoundFiles();
+		assertFalse("No sounds found", files.isEmpty());
+
+		long total = 0;
+		for (final String file : files) {
+			final Path path = ASSETS.resolve("sounds").resolve(file);
+			assertTrue("Missing sound file " + file, Files.exists(path));
+
+			final CodecJOrbis codec = new CodecJOrbis();
+			try {
+				assertTrue("Unable to open " + file, codec.initialize(path.toUri().toURL()));
+				final SoundBuffer buffer = codec.readAll();
+				assertNotNull("Unable to decode " + file, buffer);
+				assertTrue("No audio data in " + file, buffer.audioData != null && buffer.audioData.length > 0);
+				total += buffer.audioData.length;
+			} finally {
+				codec.cleanup();
+			}
+		}
+
+		assertTrue(String.format("Decoded sounds take %dKB, budget is %dKB", total / 1024,
+				SoundPreloader.MAX_BUFFER_BYTES / 1024), total <= SoundPreloader.MAX_BUFFER_BYTES);
+	}
+
+}
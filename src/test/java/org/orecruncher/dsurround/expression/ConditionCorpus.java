@@ -0,0 +1,171 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.expression;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnull;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+/**
+ * The condition scripts shipped in the mod's configuration files, plus a few
+ * written to cover the corners of the script language that the configuration
+ * files do not use.
+ */
+public final class ConditionCorpus {
+
+	private static final Path DATA = Paths.get("src", "main", "resources", "assets", "dsurround");
+
+	private static final String[] EXTRA = {
+		"true",
+		"FALSE || diurnal.isDay",
+		"biome.isForest && true",
+		"!biome.isForest",
+		"!!biome.isForest",
+		"biome.isforest",
+		"BIOME.ISFOREST || Diurnal.IsNight",
+		"biome.isForest = true",
+		"biome.isForest == false",
+		"biome.isForest != diurnal.isDay",
+		"biome.name = 'Plains'",
+		"biome.name == \"Plains\"",
+		"biome.name != 'Plains'",
+		"biome.name < 'M'",
+		"biome.rainfall > 0.5",
+		"biome.rainfall >= 0.5 && biome.rainfall <= 1",
+		"dim.id = 0",
+		"dim.id == -1",
+		"!(dim.id = 1)",
+		"dim.id <> 1",
+		"player.Y < 40 || player.Y > 128",
+		"player.Y - 10 > 50",
+		"player.health * 2 < player.maxHealth",
+		"player.health / 2 >= 1",
+		"player.Y % 2 = 0",
+		"-player.Y < 0",
+		"(player.Y + 1) * 2 > 100",
+		"1 + 2 = 3",
+		"2 > 1 && diurnal.isDay",
+		"0.5 < biome.rainfall"
+	};
+
+	// Variables used by the extra cases that the configuration files do not use
+	private static final String[] EXTRA_NAMES = { "player.health", "player.maxHealth" };
+
+	private static final Pattern NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*\\.[A-Za-z0-9_.]*[A-Za-z0-9_]");
+	private static final Pattern LITERAL = Pattern.compile("'([^']*)'|\"([^\"]*)\"");
+
+	private ConditionCorpus() {
+
+	}
+
+	/**
+	 * Gathers the condition scripts from the configuration files along with the
+	 * extra cases.
+	 */
+	@Nonnull
+	public static Set<String> load() throws IOException {
+		final Set<String> result = new TreeSet<>();
+		try (final Stream<Path> files = Files.walk(DATA)) {
+			for (final Path file : (Iterable<Path>) files::iterator) {
+				if (file.toString().endsWith(".json")) {
+					try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+						collect(new JsonParser().parse(reader), result);
+					}
+				}
+			}
+		}
+		for (final String s : EXTRA)
+			result.add(s);
+		return result;
+	}
+
+	private static void collect(@Nonnull final JsonElement element, @Nonnull final Set<String> result) {
+		if (element.isJsonObject()) {
+			for (final Map.Entry<String, JsonElement> e : element.getAsJsonObject().entrySet()) {
+				if ("conditions".equals(e.getKey()) && e.getValue().isJsonPrimitive()) {
+					final String s = e.getValue().getAsString();
+					if (!s.isEmpty())
+						result.add(s);
+				} else {
+					collect(e.getValue(), result);
+				}
+			}
+		} else if (element.isJsonArray()) {
+			for (final JsonElement e : element.getAsJsonArray())
+				collect(e, result);
+		}
+	}
+
+	/**
+	 * Variable names referenced by the scripts. The spelling is taken from the
+	 * configuration files, which use the names as they are registered; the extra
+	 * cases play with the case of the names so they are not looked at.
+	 */
+	@Nonnull
+	public static Set<String> names(@Nonnull final Set<String> corpus) {
+		final Set<String> extra = new TreeSet<>();
+		for (final String s : EXTRA)
+			extra.add(s);
+		final Set<String> seen = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		for (final String s : EXTRA_NAMES)
+			seen.add(s);
+		for (final String s : corpus) {
+			if (extra.contains(s))
+				continue;
+			final Matcher m = NAME.matcher(LITERAL.matcher(s).replaceAll("''"));
+			while (m.find())
+				seen.add(m.group());
+		}
+		return seen;
+	}
+
+	/**
+	 * The string literals used in the scripts.
+	 */
+	@Nonnull
+	public static String[] literals(@Nonnull final Set<String> corpus) {
+		final Set<String> result = new TreeSet<>();
+		for (final String s : corpus) {
+			final Matcher m = LITERAL.matcher(s);
+			while (m.find())
+				result.add(m.group(1) != null ? m.group(1) : m.group(2));
+		}
+		return result.toArray(new String[0]);
+	}
+}
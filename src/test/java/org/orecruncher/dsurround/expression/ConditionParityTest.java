@@ -0,0 +1,117 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.expression;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.orecruncher.lib.expression.ExpressionCache;
+import org.orecruncher.lib.logging.ModLog;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * Checks that compiled conditions give the same answer as the expression
+ * engine for every condition script shipped with the mod.
+ */
+public class ConditionParityTest {
+
+	private static final int TRIALS = 200;
+
+	private static Set<String> corpus;
+	private static String[] literals;
+	private static VariableSnapshot snapshot;
+	private static ExpressionCache cache;
+	private static TestVariables variables;
+	private static ConditionCompiler compiler;
+
+	@BeforeClass
+	public static void setup() throws Exception {
+		corpus = ConditionCorpus.load();
+		literals = ConditionCorpus.literals(corpus);
+		snapshot = new VariableSnapshot();
+		cache = new ExpressionCache(ModLog.NULL_LOGGER);
+		variables = new TestVariables(snapshot, ConditionCorpus.names(corpus));
+		cache.add(variables);
+		compiler = new ConditionCompiler(snapshot, cache);
+	}
+
+	private static void nextTick(final Random random) {
+		variables.randomize(random, literals);
+		cache.reset();
+		snapshot.tick();
+	}
+
+	@Test
+	public void corpusIsCompiled() {
+		int compiled = 0;
+		for (final String s : corpus)
+			if (ConditionCompiler.isCompiled(compiler.compile(s)) || compiler.compile(s).isConstant())
+				compiled++;
+		// Function calls such as MATCH() are left to the expression engine, but
+		// most of what ships should compile
+		assertTrue("Only " + compiled + " of " + corpus.size() + " conditions compiled",
+				compiled * 2 > corpus.size());
+	}
+
+	@Test
+	public void compiledMatchesInterpreted() {
+		final ObjectArrayList<Condition> compiled = new ObjectArrayList<>();
+		final ObjectArrayList<Condition> interpreted = new ObjectArrayList<>();
+		for (final String s : corpus) {
+			compiled.add(compiler.compile(s));
+			interpreted.add(compiler.interpret(s));
+		}
+
+		final Random random = new Random(1234L);
+		for (int trial = 0; trial < TRIALS; trial++) {
+			nextTick(random);
+			for (int i = 0; i < compiled.size(); i++) {
+				final Condition c = compiled.get(i);
+				final Condition expected = interpreted.get(i);
+				assertEquals("'" + c.getSource() + "' with " + variables.getValues(), expected.test(), c.test());
+			}
+		}
+	}
+
+	@Test
+	public void unchangedVariablesReuseResult() {
+		final Random random = new Random(5678L);
+		nextTick(random);
+		final Condition c = compiler.compile("biome.isForest && player.Y > 40");
+		assertTrue(ConditionCompiler.isCompiled(c));
+		final boolean first = c.test();
+		// Nothing changes from one tick to the next so the answer must hold
+		snapshot.tick();
+		cache.reset();
+		assertEquals(first, c.test());
+		assertEquals(cache.check(c.getSource()), c.test());
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.expression;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import com.google.common.collect.ImmutableSet;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * Script variables whose values are set by the test rather than sampled from
+ * the game. The names and types mirror the variables registered by the real
+ * variant lists.
+ */
+public final class TestVariables extends SampledVariantList {
+
+	private static final Set<String> NUMBERS = ImmutableSet.of("battle.hostileCount", "biome.rainfall",
+			"biome.temperatureValue", "dim.id", "diurnal.celestialAngle", "diurnal.moonPhaseFactor", "player.X",
+			"player.Y", "player.Z", "player.food.level", "player.food.saturation", "player.health",
+			"player.lightLevel", "player.luck", "player.maxHealth", "weather.rainfall", "weather.temperatureValue");
+
+	private static final Set<String> STRINGS = ImmutableSet.of("biome.id", "biome.modid", "biome.name",
+			"biome.temperature", "biome.traits", "dim.name", "player.temperature", "season.season", "season.subtype",
+			"season.type", "weather.temperature");
+
+	private static final float[] SAMPLE_NUMBERS = { -1F, 0F, 0.25F, 0.5F, 1F, 2F, 20F, 40F, 63.5F, 64F, 128F };
+
+	private final Map<String, Object> values = new Object2ObjectOpenHashMap<>();
+	private final ObjectArrayList<String> booleans = new ObjectArrayList<>();
+	private final ObjectArrayList<String> numbers = new ObjectArrayList<>();
+	private final ObjectArrayList<String> strings = new ObjectArrayList<>();
+
+	public TestVariables(@Nonnull final VariableSnapshot snapshot, @Nonnull final Set<String> names) {
+		super(snapshot);
+		for (final String name : names) {
+			if (NUMBERS.contains(name)) {
+				this.numbers.add(name);
+				this.values.put(name, 0F);
+				addNumber(name, () -> (Float) this.values.get(name));
+			} else if (STRINGS.contains(name)) {
+				this.strings.add(name);
+				this.values.put(name, "");
+				addString(name, () -> (String) this.values.get(name));
+			} else {
+				this.booleans.add(name);
+				this.values.put(name, Boolean.FALSE);
+				addBoolean(name, () -> (Boolean) this.values.get(name));
+			}
+		}
+	}
+
+	/**
+	 * Assigns new values to all the variables. Strings are picked from the
+	 * supplied candidates so comparisons against literals can go either way.
+	 */
+	public void randomize(@Nonnull final Random random, @Nonnull final String[] candidates) {
+		for (final String name : this.booleans)
+			this.values.put(name, random.nextBoolean());
+		for (final String name : this.numbers)
+			this.values.put(name, SAMPLE_NUMBERS[random.nextInt(SAMPLE_NUMBERS.length)]);
+		for (final String name : this.strings)
+			this.values.put(name, candidates.length == 0 ? "" : candidates[random.nextInt(candidates.length)]);
+	}
+
+	@Nonnull
+	public Map<String, Object> getValues() {
+		return this.values;
+	}
+}
@@ -0,0 +1,255 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.client.footsteps;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orecruncher.dsurround.registry.acoustics.AcousticRegistry;
+import org.orecruncher.dsurround.registry.acoustics.EventType;
+import org.orecruncher.dsurround.registry.acoustics.IAcoustic;
+import org.orecruncher.dsurround.registry.acoustics.IOptions;
+import org.orecruncher.dsurround.registry.acoustics.ISoundPlayer;
+import org.orecruncher.dsurround.registry.footstep.BlockMap;
+import org.orecruncher.dsurround.registry.footstep.Substrate;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.biome.Biome;
+
+/**
+ * Resolves the acoustics of a batch of footsteps on a grass field with tall
+ * grass growing over part of it, so a share of the steps has foliage laid
+ * over the grass. "reused" is how the generators work now, with one resolver
+ * and one association set up for each step; "fresh" creates both for each
+ * step. Run with the gc profiler to see the allocation rate:
+ *
+ * <pre>
+ * gradlew benchmark --args="AcousticResolverBenchmark -prof gc"
+ * </pre>
+ *
+ * The block map and the acoustic registry are filled from the mod config in
+ * the game, so the map here is a stand-in answering for the two blocks of the
+ * field; the combination of base and foliage acoustics is the real one. The
+ * facade lookup is skipped since no facade mods are present outside the game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AcousticResolverBenchmark {
+
+	private static final int FOOTSTEPS = 256;
+	private static final int FIELD = 32;
+	private static final int GROUND = 63;
+	private static final double DISTANCE_TO_CENTER = 0.55D;
+
+	private static final class StandInAcoustic implements IAcoustic {
+		private final String name;
+
+		StandInAcoustic(@Nonnull final String name) {
+			this.name = name;
+		}
+
+		@Override
+		@Nonnull
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public void playSound(@Nonnull final ISoundPlayer player, @Nonnull final Vec3d location,
+				@Nullable final EventType event, @Nullable final IOptions inputOptions) {
+		}
+	}
+
+	private static final class StandInMap extends BlockMap {
+		private final IAcoustic[] grass = { new StandInAcoustic("grass"), new StandInAcoustic("dirt") };
+		private final IAcoustic[] brush = { new StandInAcoustic("brush") };
+
+		StandInMap() {
+			// The acoustic registry is only used when entries are put
+			super(null);
+		}
+
+		@Override
+		@Nonnull
+		public IAcoustic[] getBlockAcoustics(@Nonnull final IBlockState state, @Nullable final Substrate substrate) {
+			if (state == Blocks.AIR.getDefaultState())
+				return AcousticRegistry.NOT_EMITTER;
+			if (substrate == null)
+				return state.getBlock() == Blocks.GRASS ? this.grass : AcousticRegistry.EMPTY;
+			if (substrate == Substrate.FOLIAGE && state.getBlock() == Blocks.TALLGRASS)
+				return this.brush;
+			return AcousticRegistry.EMPTY;
+		}
+	}
+
+	private static final class Field implements IBlockAccess {
+		private final boolean[] tallGrass = new boolean[FIELD * FIELD];
+		private final IBlockState grass = Blocks.GRASS.getDefaultState();
+		private final IBlockState air = Blocks.AIR.getDefaultState();
+		private final IBlockState foliage = Blocks.TALLGRASS.getDefaultState();
+
+		Field(@Nonnull final Random random) {
+			for (int i = 0; i < this.tallGrass.length; i++)
+				this.tallGrass[i] = random.nextInt(3) == 0;
+		}
+
+		@Override
+		@Nullable
+		public TileEntity getTileEntity(@Nonnull final BlockPos pos) {
+			return null;
+		}
+
+		@Override
+		public int getCombinedLight(@Nonnull final BlockPos pos, final int lightValue) {
+			return 0;
+		}
+
+		@Override
+		@Nonnull
+		public IBlockState getBlockState(@Nonnull final BlockPos pos) {
+			final int x = pos.getX();
+			final int z = pos.getZ();
+			if (x < 0 || x >= FIELD || z < 0 || z >= FIELD || pos.getY() > GROUND + 1)
+				return this.air;
+			if (pos.getY() <= GROUND)
+				return this.grass;
+			return this.tallGrass[x * FIELD + z] ? this.foliage : this.air;
+		}
+
+		@Override
+		public boolean isAirBlock(@Nonnull final BlockPos pos) {
+			return getBlockState(pos) == this.air;
+		}
+
+		@Override
+		@Nonnull
+		public Biome getBiome(@Nonnull final BlockPos pos) {
+			return Biome.getBiome(1);
+		}
+
+		@Override
+		public int getStrongPower(@Nonnull final BlockPos pos, @Nonnull final EnumFacing direction) {
+			return 0;
+		}
+
+		@Override
+		@Nonnull
+		public WorldType getWorldType() {
+			return WorldType.DEFAULT;
+		}
+
+		@Override
+		public boolean isSideSolid(@Nonnull final BlockPos pos, @Nonnull final EnumFacing side, final boolean _default) {
+			return getBlockState(pos) == this.grass;
+		}
+	}
+
+	private static final class Resolver extends AcousticResolver {
+		Resolver(@Nonnull final BlockMap map) {
+			super(map);
+		}
+
+		@Override
+		protected IBlockState getBlockStateFacade(final double x, final double y, final double z) {
+			return getBlockState(x, y, z);
+		}
+	}
+
+	@Param({ "reused", "fresh" })
+	public String mode;
+
+	private Field world;
+	private BlockMap map;
+	private FootStrikeLocation[] steps;
+	private Resolver resolver;
+	private Association association;
+
+	@Setup
+	public void setup() {
+		Bootstrap.register();
+
+		final Random random = new Random(1234L);
+		this.world = new Field(random);
+		this.map = new StandInMap();
+		this.resolver = new Resolver(this.map);
+		this.association = new Association();
+
+		// The steps land well inside a block so the edge of block search, which
+		// needs the position of the entity, is not taken. The entity is not
+		// otherwise looked at.
+		this.steps = new FootStrikeLocation[FOOTSTEPS];
+		for (int i = 0; i < this.steps.length; i++)
+			this.steps[i] = new FootStrikeLocation(null, random.nextInt(FIELD) + 0.5D, GROUND,
+					random.nextInt(FIELD) + 0.5D);
+	}
+
+	@Benchmark
+	public int resolve() {
+		int result = 0;
+		if ("reused".equals(this.mode)) {
+			for (final FootStrikeLocation step : this.steps) {
+				final Association a = this.resolver.set(this.world, step, DISTANCE_TO_CENTER)
+						.findAssociationForEvent(this.association);
+				if (a != null)
+					result += a.getAcoustics().size();
+			}
+		} else {
+			for (final FootStrikeLocation step : this.steps) {
+				final Resolver r = new Resolver(this.map);
+				r.set(this.world, step, DISTANCE_TO_CENTER);
+				final Association a = r.findAssociationForEvent();
+				if (a != null)
+					result += a.getAcoustics().size();
+			}
+		}
+		return result;
+	}
+}
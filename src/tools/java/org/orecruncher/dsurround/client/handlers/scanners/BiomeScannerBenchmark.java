@@ -0,0 +1,138 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.client.handlers.scanners;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orecruncher.dsurround.registry.biome.BiomeInfo;
+import org.orecruncher.dsurround.registry.biome.FakeBiome;
+
+/**
+ * Walks a player along a simulated path and runs the biome survey at the
+ * handler's scan interval. "full" resurveys whenever the player's column
+ * changes, which is what the scanner did before the sliding window; "window"
+ * is the current scanner. The columns counter reports the columns queried
+ * over an iteration; divide by the op count for columns per scan.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BiomeScannerBenchmark {
+
+	// Walking speed in blocks per tick, and the ticks between surveys
+	private static final double SPEED = 0.216D;
+	private static final int SCAN_INTERVAL = 4;
+
+	@Param({ "window", "full" })
+	public String mode;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Columns {
+		public long columns;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			this.columns = 0;
+		}
+	}
+
+	/**
+	 * Biomes laid out in 64x64 patches.
+	 */
+	private static final class SyntheticWorld implements BiomeScanner.ColumnSource {
+		private final BiomeInfo[] biomes = new BiomeInfo[8];
+
+		SyntheticWorld() {
+			for (int i = 0; i < this.biomes.length; i++)
+				this.biomes[i] = new BiomeInfo(new FakeBiome("bench" + i));
+		}
+
+		@Override
+		public boolean isColumnLoaded(final int x, final int z) {
+			return true;
+		}
+
+		@Override
+		public BiomeInfo getBiomeInfo(final int x, final int z) {
+			final int h = (x >> 6) * 31 + (z >> 6);
+			return this.biomes[(h ^ (h >>> 7)) & 7];
+		}
+	}
+
+	private BiomeScanner scanner;
+	private final Random random = new Random(1234L);
+	private double posX;
+	private double posZ;
+	private double heading;
+	private boolean full;
+
+	@Setup
+	public void setup() {
+		this.scanner = new BiomeScanner(new SyntheticWorld());
+		this.full = "full".equals(this.mode);
+	}
+
+	private void walk() {
+		for (int i = 0; i < SCAN_INTERVAL; i++) {
+			// Mostly straight with the occasional turn
+			if (this.random.nextInt(40) == 0)
+				this.heading += (this.random.nextDouble() - 0.5D) * Math.PI;
+			this.posX += Math.cos(this.heading) * SPEED;
+			this.posZ += Math.sin(this.heading) * SPEED;
+		}
+	}
+
+	@Benchmark
+	public int scan(final Columns counter) {
+		final int lastX = (int) Math.floor(this.posX);
+		final int lastZ = (int) Math.floor(this.posZ);
+		walk();
+		final int x = (int) Math.floor(this.posX);
+		final int z = (int) Math.floor(this.posZ);
+		if (this.full && (x != lastX || z != lastZ))
+			this.scanner.invalidate();
+		this.scanner.scan(0, x, z);
+		counter.columns += this.scanner.getColumnsVisited();
+		return this.scanner.getBiomeCount();
+	}
+}
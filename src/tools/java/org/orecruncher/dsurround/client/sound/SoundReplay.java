@@ -0,0 +1,486 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.client.sound;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.orecruncher.dsurround.lib.TimingWheel;
+import org.orecruncher.lib.math.MathStuff;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.util.SoundCategory;
+
+/**
+ * Replays a sound workload written by the SoundRecorder outside of the game
+ * and reports how the sound engine would have handled it. The sounds go
+ * through the same audibility cull and SoundAdmission rules as in the game:
+ * the channel pools with their slack, voice stealing, and the priority ordered
+ * wait queues. A one off sound holds its channel for a fixed number of ticks since the recording does not know how
+ * long the sounds are. A repeating sound holds its channel until it is
+ * stopped. Category volumes and configured volume scales are taken to be 1.
+ *
+ * Run with the replaySoundWorkload task:
+ *
+ * <pre>
+ * gradlew replaySoundWorkload --args="soundworkload-xxx.bin -normal 28 -streaming 4"
+ * </pre>
+ */
+public final class SoundReplay implements SoundRecorder.IListener {
+
+	private static final int STATE_DELAYED = 0;
+	private static final int STATE_WAITING = 1;
+	private static final int STATE_PLAYING = 2;
+	private static final int STATE_DONE = 3;
+
+	private static final class Voice {
+		public int id;
+		public int category;
+		public int flags;
+		public float x, y, z;
+		public float volume;
+		public int due;
+		public int end;
+		public int state = STATE_DELAYED;
+
+		public boolean isRepeating() {
+			return (this.flags & SoundRecorder.FLAG_REPEAT) != 0;
+		}
+
+		public boolean isStreaming() {
+			return (this.flags & SoundRecorder.FLAG_STREAMING) != 0;
+		}
+
+		public boolean isAttenuated() {
+			return (this.flags & SoundRecorder.FLAG_ATTENUATION) != 0;
+		}
+
+		public boolean canQueue() {
+			return (this.flags & SoundRecorder.FLAG_QUEUE) != 0;
+		}
+
+		public boolean isTickable() {
+			return (this.flags & SoundRecorder.FLAG_TICKABLE) != 0;
+		}
+
+		public boolean isActive() {
+			return this.state == STATE_WAITING || this.state == STATE_PLAYING;
+		}
+	}
+
+	// Settings
+	private int normalChannels = 28;
+	private int streamingChannels = 4;
+	private int duration = 40;
+	private float cullThreshold = 0.01F;
+	private int lateTicks = 2;
+
+	// Replay state
+	private final Int2ObjectOpenHashMap<String> names = new Int2ObjectOpenHashMap<>();
+	// Sounds that are playing or waiting for a channel, same as the queued sound
+	// set of the SoundEngine
+	private final ObjectArrayList<Voice> active = new ObjectArrayList<>();
+	private final SoundAdmission<Voice> admission = new SoundAdmission<>(new Channels());
+	private final TimingWheel<Voice> delayed = new TimingWheel<>(64);
+	private boolean started;
+	private int tick;
+	private float listenerX, listenerY, listenerZ;
+	private int normalInUse;
+	private int streamingInUse;
+
+	// Statistics
+	private final int[] requests = new int[SoundCategory.values().length];
+	private final int[] dropped = new int[SoundCategory.values().length];
+	private int firstTick;
+	private int ticks;
+	private int ambientUpdates;
+	private int retries;
+	private int culled;
+	private int played;
+	private int queued;
+	private int stopped;
+	private int late;
+	private long totalLatency;
+	private int maxLatency;
+	private long normalOccupancy;
+	private long streamingOccupancy;
+	private int peakNormal;
+	private int peakStreaming;
+	private int saturatedTicks;
+
+	private SoundReplay() {
+
+	}
+
+	private int normalLimit() {
+		return this.normalChannels - SoundEngine.SOUND_QUEUE_SLACK;
+	}
+
+	private float getEstimatedGain(@Nonnull final Voice voice) {
+		final float volume = MathStuff.clamp(voice.volume, 0.0F, 1.0F);
+		if (!voice.isAttenuated())
+			return volume;
+		final double dX = voice.x - this.listenerX;
+		final double dY = voice.y - this.listenerY;
+		final double dZ = voice.z - this.listenerZ;
+		return volume * SoundPriority.getAttenuation(dX * dX + dY * dY + dZ * dZ, voice.volume);
+	}
+
+	@Nullable
+	private static SoundCategory getCategory(final int ordinal) {
+		final SoundCategory[] categories = SoundCategory.values();
+		return ordinal < categories.length ? categories[ordinal] : null;
+	}
+
+	private float getPriority(@Nonnull final Voice voice) {
+		return SoundPriority.getPriority(getEstimatedGain(voice), getCategory(voice.category), voice.isStreaming(),
+				voice.isRepeating());
+	}
+
+	private void startVoice(@Nonnull final Voice voice) {
+		if (voice.state != STATE_WAITING)
+			this.active.add(voice);
+		voice.state = STATE_PLAYING;
+		voice.end = voice.isRepeating() ? Integer.MAX_VALUE : this.tick + this.duration;
+		if (voice.isStreaming())
+			this.streamingInUse++;
+		else
+			this.normalInUse++;
+		final int latency = this.tick - voice.due;
+		this.totalLatency += latency;
+		this.maxLatency = Math.max(this.maxLatency, latency);
+		if (latency > this.lateTicks)
+			this.late++;
+		this.played++;
+	}
+
+	private void stopVoice(@Nonnull final Voice voice) {
+		if (voice.state == STATE_PLAYING) {
+			if (voice.isStreaming())
+				this.streamingInUse--;
+			else
+				this.normalInUse--;
+		}
+		voice.state = STATE_DONE;
+	}
+
+	/**
+	 * Hands a sound to the engine, same as the SoundEffectHandler and
+	 * SoundEngine.playSound() do for a sound that is not already queued.
+	 */
+	private void submit(@Nonnull final Voice voice) {
+		if (this.cullThreshold > 0 && SoundPriority.canCull(voice.isTickable(), voice.isRepeating(),
+				voice.isAttenuated()) && getEstimatedGain(voice) < this.cullThreshold) {
+			voice.state = STATE_DONE;
+			this.culled++;
+			return;
+		}
+
+		switch (this.admission.admit(voice, voice.canQueue())) {
+		case PLAY:
+			startVoice(voice);
+			break;
+		case WAIT:
+			voice.state = STATE_WAITING;
+			this.active.add(voice);
+			this.queued++;
+			break;
+		default:
+			voice.state = STATE_DONE;
+			this.dropped[voice.category]++;
+			break;
+		}
+	}
+
+	/**
+	 * Finishes off the current tick. Sounds that have run their course give up
+	 * their channel and the waiting sounds get the free ones, as in the
+	 * SoundEngine client tick.
+	 */
+	private void endTick() {
+		this.active.removeIf(voice -> {
+			if (voice.state == STATE_PLAYING && voice.end <= this.tick)
+				stopVoice(voice);
+			return voice.state == STATE_DONE;
+		});
+
+		this.admission.drainWaiting();
+
+		this.ticks++;
+		this.normalOccupancy += this.normalInUse;
+		this.streamingOccupancy += this.streamingInUse;
+		this.peakNormal = Math.max(this.peakNormal, this.normalInUse);
+		this.peakStreaming = Math.max(this.peakStreaming, this.streamingInUse);
+		if (this.normalInUse >= normalLimit())
+			this.saturatedTicks++;
+	}
+
+	/**
+	 * Finds the playing or waiting sound with the id that is closest to the
+	 * position. Positions of sounds attached to an entity change while they
+	 * play, so an exact match cannot be relied on.
+	 */
+	@Nullable
+	private Voice findActive(final int id, final float x, final float y, final float z) {
+		Voice result = null;
+		double best = Double.MAX_VALUE;
+		for (final Voice voice : this.active) {
+			if (voice.id == id && voice.isActive()) {
+				final double dX = voice.x - x;
+				final double dY = voice.y - y;
+				final double dZ = voice.z - z;
+				final double distSq = dX * dX + dY * dY + dZ * dZ;
+				if (distSq < best) {
+					best = distSq;
+					result = voice;
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void define(final int id, @Nonnull final String name) {
+		this.names.put(id, name);
+	}
+
+	@Override
+	public void tick(final int tick, final float x, final float y, final float z) {
+		if (!this.started) {
+			this.started = true;
+			this.firstTick = tick;
+			this.tick = tick;
+		} else {
+			while (this.tick < tick) {
+				endTick();
+				this.tick++;
+				this.delayed.advance(this.tick, this::submit);
+			}
+		}
+		this.listenerX = x;
+		this.listenerY = y;
+		this.listenerZ = z;
+	}
+
+	@Override
+	public void play(final int id, final int category, final int flags, final float x, final float y, final float z,
+			final float volume, final float pitch, final int delay) {
+		final int cat = category < this.requests.length ? category : 0;
+		this.requests[cat]++;
+
+		// A repeating sound that is asked for again while it is still active is
+		// the same instance being retried by its emitter
+		if ((flags & SoundRecorder.FLAG_REPEAT) != 0 && findActive(id, x, y, z) != null) {
+			this.retries++;
+			return;
+		}
+
+		final Voice voice = new Voice();
+		voice.id = id;
+		voice.category = cat;
+		voice.flags = flags;
+		voice.x = x;
+		voice.y = y;
+		voice.z = z;
+		voice.volume = volume;
+		voice.due = this.tick + delay;
+		if (delay > 0)
+			this.delayed.schedule(voice, voice.due);
+		else
+			submit(voice);
+	}
+
+	@Override
+	public void ambient(@Nonnull final int[] ids, @Nonnull final float[] volumes) {
+		// The ambient loops show up as plays and stops of their emitters
+		this.ambientUpdates++;
+	}
+
+	@Override
+	public void stop(final int id, final float x, final float y, final float z) {
+		final Voice voice = findActive(id, x, y, z);
+		if (voice != null) {
+			stopVoice(voice);
+			this.stopped++;
+		}
+	}
+
+	private void finish() {
+		if (this.started)
+			endTick();
+	}
+
+	private void report(@Nonnull final String name) {
+		int totalRequests = 0;
+		int totalDropped = 0;
+		for (int i = 0; i < this.requests.length; i++) {
+			totalRequests += this.requests[i];
+			totalDropped += this.dropped[i];
+		}
+		int stillWaiting = 0;
+		for (final Voice voice : this.active)
+			if (voice.state == STATE_WAITING)
+				stillWaiting++;
+
+		final double ticks = Math.max(this.ticks, 1);
+		System.out.println(String.format("Workload      : %s", name));
+		System.out.println(String.format("Ticks         : %d (%d - %d), %d sound names, %d ambient updates",
+				this.ticks, this.firstTick, this.tick, this.names.size(), this.ambientUpdates));
+		System.out.println(String.format(
+				"Channels      : %d normal (%d usable), %d streaming, %d tick sound length, voice stealing %s",
+				this.normalChannels, normalLimit(), this.streamingChannels, this.duration,
+				this.admission.isVoiceStealing() ? "on" : "off"));
+		System.out.println(
+				String.format("Requests      : %d (%d retries of active loops)", totalRequests, this.retries));
+		System.out.println(String.format("Played        : %d", this.played));
+		System.out.println(String.format("Culled        : %d", this.culled));
+		System.out.println(String.format("Dropped       : %d", totalDropped));
+		System.out.println(String.format("Queued        : %d (%d still waiting at end)", this.queued, stillWaiting));
+		System.out.println(String.format("Stolen        : %d", this.admission.getStolen()));
+		System.out.println(String.format("Stopped       : %d", this.stopped));
+		System.out.println(String.format("Latency       : %.2f ticks average, %d ticks max, %d late (> %d ticks)",
+				this.played == 0 ? 0D : (double) this.totalLatency / this.played, this.maxLatency, this.late,
+				this.lateTicks));
+		System.out.println(String.format("Normal        : %.2f average, %d peak, full %.1f%% of ticks",
+				this.normalOccupancy / ticks, this.peakNormal, this.saturatedTicks * 100D / ticks));
+		System.out.println(String.format("Streaming     : %.2f average, %d peak", this.streamingOccupancy / ticks,
+				this.peakStreaming));
+		for (int i = 0; i < this.requests.length; i++) {
+			if (this.requests[i] > 0) {
+				final SoundCategory category = getCategory(i);
+				System.out.println(String.format("  %-12s: %d requests, %d dropped",
+						category != null ? category.getName() : "?", this.requests[i], this.dropped[i]));
+			}
+		}
+	}
+
+	/**
+	 * The channels of the replay as seen by the admission rules. The counts are
+	 * kept exact so there is never a need to recount.
+	 */
+	private final class Channels implements SoundAdmission.IChannels<Voice> {
+
+		@Override
+		public boolean isStreaming(@Nonnull final Voice voice) {
+			return voice.isStreaming();
+		}
+
+		@Override
+		public int getInUse(final boolean streaming) {
+			return streaming ? streamingInUse : normalInUse;
+		}
+
+		@Override
+		public int getLimit(final boolean streaming) {
+			return streaming ? streamingChannels : normalLimit();
+		}
+
+		@Override
+		public boolean recount() {
+			return false;
+		}
+
+		@Override
+		@Nonnull
+		public Iterable<Voice> getActive() {
+			return active;
+		}
+
+		@Override
+		public boolean isPlaying(@Nonnull final Voice voice) {
+			return voice.state == STATE_PLAYING;
+		}
+
+		@Override
+		public boolean isWaiting(@Nonnull final Voice voice) {
+			return voice.state == STATE_WAITING;
+		}
+
+		@Override
+		public float getPriority(@Nonnull final Voice voice) {
+			return SoundReplay.this.getPriority(voice);
+		}
+
+		@Override
+		public void start(@Nonnull final Voice voice) {
+			startVoice(voice);
+		}
+
+		@Override
+		public void stop(@Nonnull final Voice voice) {
+			stopVoice(voice);
+		}
+	}
+
+	private static void usage() {
+		System.out.println("SoundReplay <recording> [-normal channels] [-streaming channels] [-duration ticks]");
+		System.out.println("            [-cull threshold] [-steal true|false] [-late ticks]");
+	}
+
+	public static void main(@Nonnull final String[] args) throws IOException {
+		if (args.length == 0) {
+			usage();
+			return;
+		}
+
+		final SoundReplay replay = new SoundReplay();
+		for (int i = 1; i < args.length - 1; i += 2) {
+			final String value = args[i + 1];
+			switch (args[i]) {
+			case "-normal":
+				replay.normalChannels = Integer.parseInt(value);
+				break;
+			case "-streaming":
+				replay.streamingChannels = Integer.parseInt(value);
+				break;
+			case "-duration":
+				replay.duration = Integer.parseInt(value);
+				break;
+			case "-cull":
+				replay.cullThreshold = Float.parseFloat(value);
+				break;
+			case "-steal":
+				replay.admission.setVoiceStealing(Boolean.parseBoolean(value));
+				break;
+			case "-late":
+				replay.lateTicks = Integer.parseInt(value);
+				break;
+			default:
+				usage();
+				return;
+			}
+		}
+
+		final File file = new File(args[0]);
+		SoundRecorder.read(file, replay);
+		replay.finish();
+		replay.report(file.getName());
+	}
+
+}
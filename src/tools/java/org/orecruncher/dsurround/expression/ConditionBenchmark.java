@@ -0,0 +1,107 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.expression;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.orecruncher.lib.expression.ExpressionCache;
+import org.orecruncher.lib.logging.ModLog;
+
+/**
+ * Compares a pass over every shipped condition script using the compiled
+ * conditions against the same pass through ExpressionCache.check(). Each
+ * invocation is one tick; with "changing" set the variables get new values
+ * every tick, otherwise the player is standing still.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConditionBenchmark {
+
+	@Param({ "false", "true" })
+	public boolean changing;
+
+	private String[] literals;
+	private VariableSnapshot snapshot;
+	private ExpressionCache cache;
+	private TestVariables variables;
+	private String[] sources;
+	private Condition[] conditions;
+	private final Random random = new Random(1234L);
+
+	@Setup
+	public void setup() throws Exception {
+		final Set<String> corpus = ConditionCorpus.load();
+		this.literals = ConditionCorpus.literals(corpus);
+		this.snapshot = new VariableSnapshot();
+		this.cache = new ExpressionCache(ModLog.NULL_LOGGER);
+		this.variables = new TestVariables(this.snapshot, ConditionCorpus.names(corpus));
+		this.cache.add(this.variables);
+		final ConditionCompiler compiler = new ConditionCompiler(this.snapshot, this.cache);
+		this.sources = corpus.toArray(new String[0]);
+		this.conditions = new Condition[this.sources.length];
+		for (int i = 0; i < this.sources.length; i++)
+			this.conditions[i] = compiler.compile(this.sources[i]);
+		this.variables.randomize(this.random, this.literals);
+	}
+
+	private void tick() {
+		if (this.changing)
+			this.variables.randomize(this.random, this.literals);
+		this.cache.reset();
+		this.snapshot.tick();
+	}
+
+	@Benchmark
+	public void compiled(final Blackhole bh) {
+		tick();
+		for (final Condition c : this.conditions)
+			bh.consume(c.test());
+	}
+
+	@Benchmark
+	public void check(final Blackhole bh) {
+		tick();
+		for (final String s : this.sources)
+			bh.consume(this.cache.check(s));
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.registry.blockstate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orecruncher.dsurround.registry.IDataAccessor;
+
+/**
+ * The inner loop of a snapshot scan: test every state id of a chunk section
+ * for always on effects. "flags" is the id indexed flag array; "object" goes
+ * id -> state -> data the way interestingStateId() used to.
+ *
+ * The data accessor on a block state is added by a mixin, which is not
+ * applied outside the game, so the object path runs on stand-in states that
+ * carry their data the same way. The states are held in a list indexed by id
+ * like Block.BLOCK_STATE_IDS.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockFlagBenchmark {
+
+	private static final int STATE_IDS = 4096 * 16;
+	private static final int PALETTE = 48;
+
+	private static final class StandInData extends BlockStateData {
+		private final boolean alwaysOn;
+
+		StandInData(final boolean alwaysOn) {
+			this.alwaysOn = alwaysOn;
+		}
+
+		@Override
+		public boolean hasAlwaysOnEffects() {
+			return this.alwaysOn;
+		}
+	}
+
+	private static final class StandInState implements IDataAccessor<BlockStateData> {
+		private BlockStateData data;
+
+		@Override
+		public BlockStateData getData() {
+			return this.data;
+		}
+
+		@Override
+		public void setData(final BlockStateData data) {
+			this.data = data;
+		}
+	}
+
+	private final char[] section = new char[4096];
+	private final List<StandInState> statesById = new ArrayList<>(STATE_IDS);
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(1234L);
+		final byte[] flags = new byte[STATE_IDS];
+		for (int i = 0; i < STATE_IDS; i++) {
+			final StandInState state = new StandInState();
+			// Most states have no data of their own
+			if (random.nextInt(20) == 0) {
+				final boolean alwaysOn = random.nextInt(10) == 0;
+				state.setData(new StandInData(alwaysOn));
+				if (alwaysOn)
+					flags[i] = BlockStateUtil.FLAG_ALWAYS_ON;
+			} else {
+				state.setData(BlockStateData.DEFAULT);
+			}
+			this.statesById.add(state);
+		}
+		BlockStateUtil.setFlags(flags);
+
+		// A section is mostly a handful of states
+		final char[] palette = new char[PALETTE];
+		for (int i = 0; i < palette.length; i++)
+			palette[i] = (char) random.nextInt(STATE_IDS);
+		palette[0] = 0;
+		for (int i = 0; i < this.section.length; i++)
+			this.section[i] = palette[random.nextInt(4) == 0 ? random.nextInt(PALETTE) : 0];
+	}
+
+	@Benchmark
+	public int flags() {
+		int count = 0;
+		for (int i = 0; i < this.section.length; i++)
+			if (BlockStateUtil.hasAlwaysOnEffects(this.section[i]))
+				count++;
+		return count;
+	}
+
+	@Benchmark
+	public int object() {
+		int count = 0;
+		for (int i = 0; i < this.section.length; i++) {
+			final IDataAccessor<BlockStateData> state = this.statesById.get(this.section[i]);
+			BlockStateData data = state.getData();
+			if (data == null)
+				data = BlockStateData.DEFAULT;
+			if (data.hasAlwaysOnEffects())
+				count++;
+		}
+		return count;
+	}
+}
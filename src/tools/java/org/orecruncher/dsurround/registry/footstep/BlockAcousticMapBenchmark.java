@@ -0,0 +1,143 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.orecruncher.dsurround.registry.footstep;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orecruncher.dsurround.registry.acoustics.IAcoustic;
+import org.orecruncher.dsurround.registry.blockstate.BlockStateMatcher;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Bootstrap;
+
+/**
+ * Looks up the acoustics of every registered block state. "compiled" goes
+ * through the table indexed by state id; "map" is the same map without the
+ * table, so each lookup is a hash of the state with the cache already warm.
+ * The states counter gives the lookups per op.
+ *
+ * The vanilla blocks are registered with Bootstrap, so these are the states
+ * the game has before any mods add theirs. Entries are put in the way the
+ * footstep config does: some blocks generically, some down to a specific
+ * state, the rest left to the resolver which answers by material.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockAcousticMapBenchmark {
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class States {
+		public int states;
+	}
+
+	private final Map<Material, IAcoustic[]> byMaterial = new IdentityHashMap<>();
+	private BlockAcousticMap compiled;
+	private BlockAcousticMap map;
+	private IBlockState[] states;
+
+	private IAcoustic[] resolve(final IBlockState state) {
+		return this.byMaterial.computeIfAbsent(state.getMaterial(), m -> new IAcoustic[0]);
+	}
+
+	private BlockAcousticMap create() {
+		final BlockAcousticMap result = new BlockAcousticMap(this::resolve);
+		final Random random = new Random(1234L);
+		for (final Block block : Block.REGISTRY) {
+			final IBlockState state = block.getDefaultState();
+			switch (random.nextInt(4)) {
+			case 0:
+				result.put(BlockStateMatcher.asGeneric(state), new IAcoustic[0]);
+				break;
+			case 1:
+				for (final IBlockState s : block.getBlockState().getValidStates())
+					if (random.nextBoolean())
+						result.put(BlockStateMatcher.create(s), new IAcoustic[0]);
+				break;
+			default:
+				break;
+			}
+		}
+		return result;
+	}
+
+	@Setup
+	public void setup() {
+		Bootstrap.register();
+
+		final List<IBlockState> list = new ObjectArrayList<>();
+		for (final Block block : Block.REGISTRY)
+			list.addAll(block.getBlockState().getValidStates());
+		Collections.shuffle(list, new Random(1234L));
+		this.states = list.toArray(new IBlockState[0]);
+
+		this.compiled = create();
+		this.compiled.compile();
+		this.map = create();
+		for (final IBlockState state : this.states)
+			this.map.getBlockAcoustics(state);
+	}
+
+	@Benchmark
+	public int compiled(final States counters) {
+		counters.states += this.states.length;
+		int result = 0;
+		for (final IBlockState state : this.states)
+			result += this.compiled.getBlockAcoustics(state).length;
+		return result;
+	}
+
+	@Benchmark
+	public int map(final States counters) {
+		counters.states += this.states.length;
+		int result = 0;
+		for (final IBlockState state : this.states)
+			result += this.map.getBlockAcoustics(state).length;
+		return result;
+	}
+}